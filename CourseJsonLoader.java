@@ -1,189 +1,572 @@
-import java.io.BufferedReader;
-import java.io.FileReader;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.IntStream;
 
 /**
- * Simple JSON loader for course data from cs-courses.json
- * Parses the JSON format and creates classes objects
+ * Streaming JSON loader for course data (cs-courses.json, all-courses.json)
+ * Expects an array of flat objects and creates a classes object from each one
+ *
+ * The file is memory-mapped and tokenized byte by byte; each object's fields are read
+ * straight into a classes object, so nothing is copied except the two ID strings.
+ * Numeric fields are parsed from the bytes whether or not they are quoted ("capacity": "10").
+ * A record that cannot be used is reported with its byte offset and skipped.
+ *
+ * In parallel mode the file is split between objects into chunks that are tokenized on the
+ * common ForkJoinPool and merged in file order. The split points come from one byte scan that
+ * tracks strings, escapes and nesting depth, so a chunk only ever starts at the '{' of a
+ * top-level object and valid JSON loads the same as in sequential mode.
  */
 public class CourseJsonLoader {
-    
+
+    private static final byte[] COURSE_SECTION_ID = ascii("courseSectionId");
+    private static final byte[] COURSE_SECTION_NUMBER = ascii("courseSectionNumber");
+    private static final byte[] CAPACITY = ascii("capacity");
+    private static final byte[] CURRENT_ENROLLMENT = ascii("currentEnrollment");
+    private static final byte[] CREDIT_HOURS = ascii("creditHours");
+
+    // Bytes per chunk in parallel mode; files under two chunks are read sequentially
+    static final int CHUNK_SIZE = 1 << 22;
+
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18
+    };
+
     /**
-     * Load courses from JSON file
+     * Load courses from JSON file, printing any skipped records to stderr
      * @param filepath Path to the JSON file
      * @return List of classes objects
      */
     public static List<classes> loadCoursesFromJson(String filepath) {
-        List<classes> courses = new ArrayList<>();
-        
-        try (BufferedReader br = new BufferedReader(new FileReader(filepath))) {
-            StringBuilder jsonContent = new StringBuilder();
-            String line;
-            while ((line = br.readLine()) != null) {
-                jsonContent.append(line).append("\n");
-            }
-            
-            String json = jsonContent.toString().trim();
-            
-            // Remove outer brackets if present
-            if (json.startsWith("[")) {
-                json = json.substring(1);
-            }
-            if (json.endsWith("]")) {
-                json = json.substring(0, json.length() - 1);
-            }
-            
-            // Split by objects (simple approach - look for closing braces)
-            String[] objects = splitJsonObjects(json);
-            
-            for (String obj : objects) {
-                classes course = parseCourseObject(obj);
-                if (course != null) {
-                    courses.add(course);
-                }
-            }
-        } catch (IOException e) {
-            System.err.println("Error loading course data: " + e.getMessage());
+        return loadCoursesFromJson(filepath, false);
+    }
+
+    /**
+     * Load courses from JSON file, printing any skipped records to stderr
+     * @param filepath Path to the JSON file
+     * @param parallel true to tokenize chunks of the file on the common ForkJoinPool
+     * @return List of classes objects, in file order
+     */
+    public static List<classes> loadCoursesFromJson(String filepath, boolean parallel) {
+        List<String> problems = new ArrayList<>();
+        List<classes> courses = loadCoursesFromJson(filepath, problems, parallel);
+        for (String problem : problems) {
+            System.err.println("Skipped course record " + problem);
         }
-        
         return courses;
     }
-    
+
     /**
-     * Split JSON string into individual object strings
+     * Load courses from JSON file
+     * @param filepath Path to the JSON file
+     * @param problems Receives one message per skipped record, e.g. "at offset 1234: missing courseSectionId"
+     * @return List of classes objects, in file order
      */
-    private static String[] splitJsonObjects(String json) {
-        List<String> objects = new ArrayList<>();
-        int braceCount = 0;
-        int start = 0;
-        
-        for (int i = 0; i < json.length(); i++) {
-            char c = json.charAt(i);
-            if (c == '{') {
-                if (braceCount == 0) {
-                    start = i;
-                }
-                braceCount++;
-            } else if (c == '}') {
-                braceCount--;
-                if (braceCount == 0) {
-                    objects.add(json.substring(start, i + 1));
-                }
-            }
-        }
-        
-        return objects.toArray(new String[0]);
+    public static List<classes> loadCoursesFromJson(String filepath, List<String> problems) {
+        return loadCoursesFromJson(filepath, problems, false);
     }
-    
+
     /**
-     * Parse a single course object from JSON string
+     * Load courses from JSON file
+     * @param filepath Path to the JSON file
+     * @param problems Receives one message per skipped record, in file order
+     * @param parallel true to tokenize chunks of the file on the common ForkJoinPool
+     * @return List of classes objects, in file order
      */
-    private static classes parseCourseObject(String objJson) {
-        try {
-            String courseSectionId = extractStringValue(objJson, "courseSectionId");
-            String courseSectionNumber = extractStringValue(objJson, "courseSectionNumber");
-            int capacity = extractIntValue(objJson, "capacity");
-            int currentEnrollment = extractIntValue(objJson, "currentEnrollment");
-            double creditHours = extractDoubleValue(objJson, "creditHours");
-            
-            if (courseSectionId == null || courseSectionNumber == null) {
-                return null;
-            }
-            
-            return new classes(courseSectionId, courseSectionNumber, capacity, currentEnrollment, creditHours);
-        } catch (Exception e) {
-            return null;
+    public static List<classes> loadCoursesFromJson(String filepath, List<String> problems, boolean parallel) {
+        List<classes> courses = new ArrayList<>();
+
+        try (FileChannel channel = FileChannel.open(Paths.get(filepath), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("file is too large to map (" + size + " bytes)");
+            }
+            ByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (!parallel || size < 2L * CHUNK_SIZE) {
+                new Tokenizer(data, 0, (int) size, courses, problems).parseArray();
+            } else {
+                parseChunks(data, (int) size, courses, problems);
+            }
+        } catch (IOException e) {
+            System.err.println("Error loading course data: " + e.getMessage());
+        }
+
+        return courses;
+    }
+
+    private static void parseChunks(ByteBuffer data, int size, List<classes> courses, List<String> problems) {
+        int[] bounds = chunkBounds(data, size);
+        int chunkCount = bounds.length - 1;
+        List<List<classes>> chunkCourses = new ArrayList<>();
+        List<List<String>> chunkProblems = new ArrayList<>();
+        for (int c = 0; c < chunkCount; c++) {
+            chunkCourses.add(new ArrayList<>());
+            chunkProblems.add(new ArrayList<>());
+        }
+
+        // Absolute gets leave the buffer's position alone, so the chunks can share it
+        IntStream.range(0, chunkCount).parallel().forEach(c ->
+                new Tokenizer(data, bounds[c], bounds[c + 1], chunkCourses.get(c), chunkProblems.get(c)).parseArray());
+
+        for (int c = 0; c < chunkCount; c++) {
+            courses.addAll(chunkCourses.get(c));
+            problems.addAll(chunkProblems.get(c));
         }
     }
-    
+
     /**
-     * Extract string value from JSON object
+     * Split the file into chunks of about CHUNK_SIZE bytes, each starting at the '{' of a
+     * top-level object. Bytes inside strings (including escaped quotes) and inside nested
+     * objects or arrays are never split points.
+     * @return chunk start offsets followed by the file size
      */
-    private static String extractStringValue(String json, String key) {
-        String searchKey = "\"" + key + "\"";
-        int keyIndex = json.indexOf(searchKey);
-        if (keyIndex == -1) return null;
-        
-        int colonIndex = json.indexOf(":", keyIndex);
-        if (colonIndex == -1) return null;
-        
-        // Find the opening quote
-        int quoteStart = json.indexOf("\"", colonIndex);
-        if (quoteStart == -1) return null;
-        
-        // Find the closing quote
-        int quoteEnd = json.indexOf("\"", quoteStart + 1);
-        if (quoteEnd == -1) return null;
-        
-        return json.substring(quoteStart + 1, quoteEnd);
+    private static int[] chunkBounds(ByteBuffer data, int size) {
+        int chunks = (size + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        int[] bounds = new int[chunks + 1];
+        // Objects sit at depth 1 inside the enclosing [ ], or at depth 0 if there is none
+        int first = skipWhitespace(data, 0, size);
+        int topDepth = (first < size && data.get(first) == '[') ? 1 : 0;
+
+        int c = 1;
+        int depth = 0;
+        boolean inString = false;
+        for (int i = 0; i < size && c < chunks; i++) {
+            byte b = data.get(i);
+            if (inString) {
+                if (b == '\\') {
+                    i++; // the escaped byte cannot end the string
+                } else if (b == '"') {
+                    inString = false;
+                }
+            } else if (b == '"') {
+                inString = true;
+            } else if (b == '{' || b == '[') {
+                if (b == '{' && depth == topDepth && i >= (long) c * CHUNK_SIZE) {
+                    bounds[c++] = i;
+                }
+                depth++;
+            } else if (b == '}' || b == ']') {
+                depth--;
+            }
+        }
+        while (c < chunks) {
+            bounds[c++] = size;
+        }
+        bounds[chunks] = size;
+        return bounds;
     }
-    
+
+    private static int skipWhitespace(ByteBuffer data, int pos, int end) {
+        while (pos < end) {
+            byte b = data.get(pos);
+            if (b != ' ' && b != '\n' && b != '\r' && b != '\t') {
+                break;
+            }
+            pos++;
+        }
+        return pos;
+    }
+
     /**
-     * Extract integer value from JSON object
+     * A record that could not be turned into a classes object. Carries no stack trace;
+     * it only unwinds the tokenizer to the record loop.
      */
-    private static int extractIntValue(String json, String key) {
-        String searchKey = "\"" + key + "\"";
-        int keyIndex = json.indexOf(searchKey);
-        if (keyIndex == -1) return 0;
-        
-        int colonIndex = json.indexOf(":", keyIndex);
-        if (colonIndex == -1) return 0;
-        
-        // Skip whitespace
-        int valueStart = colonIndex + 1;
-        while (valueStart < json.length() && Character.isWhitespace(json.charAt(valueStart))) {
-            valueStart++;
-        }
-        
-        // Find the end of the number (comma, brace, or bracket)
-        int valueEnd = valueStart;
-        while (valueEnd < json.length() && 
-               (Character.isDigit(json.charAt(valueEnd)) || json.charAt(valueEnd) == '"')) {
-            valueEnd++;
-        }
-        
-        String valueStr = json.substring(valueStart, valueEnd).replace("\"", "").trim();
-        try {
-            return Integer.parseInt(valueStr);
-        } catch (NumberFormatException e) {
-            return 0;
+    private static final class MalformedRecord extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        final int offset;
+
+        MalformedRecord(int offset, String message) {
+            super(message, null, false, false);
+            this.offset = offset;
         }
     }
-    
+
     /**
-     * Extract double value from JSON object
+     * Reads objects from data[start, end) into classes objects.
      */
-    private static double extractDoubleValue(String json, String key) {
-        String searchKey = "\"" + key + "\"";
-        int keyIndex = json.indexOf(searchKey);
-        if (keyIndex == -1) return 0.0;
-        
-        int colonIndex = json.indexOf(":", keyIndex);
-        if (colonIndex == -1) return 0.0;
-        
-        // Skip whitespace
-        int valueStart = colonIndex + 1;
-        while (valueStart < json.length() && Character.isWhitespace(json.charAt(valueStart))) {
-            valueStart++;
-        }
-        
-        // Find the end of the number
-        int valueEnd = valueStart;
-        while (valueEnd < json.length() && 
-               (Character.isDigit(json.charAt(valueEnd)) || 
-                json.charAt(valueEnd) == '.' || 
-                json.charAt(valueEnd) == '"')) {
-            valueEnd++;
-        }
-        
-        String valueStr = json.substring(valueStart, valueEnd).replace("\"", "").trim();
-        try {
-            return Double.parseDouble(valueStr);
-        } catch (NumberFormatException e) {
-            return 0.0;
+    private static final class Tokenizer {
+        private final ByteBuffer data;
+        private final int end;
+        private final List<classes> out;
+        private final List<String> problems;
+        private int pos;
+        private byte[] scratch = new byte[64];
+
+        // Fields of the record being read
+        private String courseSectionId;
+        private String courseSectionNumber;
+        private int capacity;
+        private int currentEnrollment;
+        private double creditHours;
+
+        Tokenizer(ByteBuffer data, int start, int end, List<classes> out, List<String> problems) {
+            this.data = data;
+            this.pos = start;
+            this.end = end;
+            this.out = out;
+            this.problems = problems;
+        }
+
+        /**
+         * Read every object up to the end of the range; the enclosing [ ] and the commas
+         * between objects are optional, so a range may start and end between any two objects
+         */
+        void parseArray() {
+            while (true) {
+                skipWhitespace();
+                if (pos >= end) {
+                    return;
+                }
+                byte b = data.get(pos);
+                if (b == '[' || b == ']' || b == ',') {
+                    pos++;
+                } else if (b == '{') {
+                    int recordStart = pos;
+                    try {
+                        parseRecord();
+                    } catch (MalformedRecord e) {
+                        problems.add("at offset " + e.offset + ": " + e.getMessage());
+                        skipPastRecord();
+                        continue;
+                    }
+                    addRecord(recordStart);
+                } else {
+                    problems.add("at offset " + pos + ": expected '{' but found '" + (char) b + "'");
+                    skipPastRecord();
+                }
+            }
+        }
+
+        private void parseRecord() throws MalformedRecord {
+            courseSectionId = null;
+            courseSectionNumber = null;
+            capacity = 0;
+            currentEnrollment = 0;
+            creditHours = 0.0;
+
+            pos++; // '{'
+            skipWhitespace();
+            if (peek() == '}') {
+                pos++;
+            } else {
+                while (true) {
+                    skipWhitespace();
+                    expect('"');
+                    int keyStart = pos;
+                    int keyEnd = skipStringBody();
+                    skipWhitespace();
+                    expect(':');
+                    skipWhitespace();
+
+                    if (keyIs(keyStart, keyEnd, COURSE_SECTION_ID)) {
+                        courseSectionId = readString();
+                    } else if (keyIs(keyStart, keyEnd, COURSE_SECTION_NUMBER)) {
+                        courseSectionNumber = readString();
+                    } else if (keyIs(keyStart, keyEnd, CAPACITY)) {
+                        capacity = readInt();
+                    } else if (keyIs(keyStart, keyEnd, CURRENT_ENROLLMENT)) {
+                        currentEnrollment = readInt();
+                    } else if (keyIs(keyStart, keyEnd, CREDIT_HOURS)) {
+                        creditHours = readDouble();
+                    } else {
+                        skipValue();
+                    }
+
+                    skipWhitespace();
+                    byte b = next();
+                    if (b == '}') {
+                        break;
+                    }
+                    if (b != ',') {
+                        throw new MalformedRecord(pos - 1, "expected ',' or '}' but found '" + (char) b + "'");
+                    }
+                }
+            }
+
+        }
+
+        /**
+         * Turn the record just read into a classes object, or report why it cannot be one
+         */
+        private void addRecord(int recordStart) {
+            if (courseSectionId == null) {
+                problems.add("at offset " + recordStart + ": missing courseSectionId");
+            } else if (courseSectionNumber == null) {
+                problems.add("at offset " + recordStart + ": missing courseSectionNumber");
+            } else {
+                try {
+                    out.add(new classes(courseSectionId, courseSectionNumber, capacity, currentEnrollment, creditHours));
+                } catch (IllegalArgumentException e) {
+                    problems.add("at offset " + recordStart + ": " + courseSectionId + ": " + e.getMessage());
+                }
+            }
+        }
+
+        /**
+         * After a bad record, move past the next '}' so the next object can be read
+         */
+        private void skipPastRecord() {
+            while (pos < end && data.get(pos) != '}') {
+                pos++;
+            }
+            if (pos < end) {
+                pos++;
+            }
+        }
+
+        private void skipWhitespace() {
+            while (pos < end) {
+                byte b = data.get(pos);
+                if (b != ' ' && b != '\n' && b != '\r' && b != '\t') {
+                    return;
+                }
+                pos++;
+            }
+        }
+
+        private byte peek() throws MalformedRecord {
+            if (pos >= end) {
+                throw new MalformedRecord(pos, "unexpected end of input");
+            }
+            return data.get(pos);
+        }
+
+        private byte next() throws MalformedRecord {
+            byte b = peek();
+            pos++;
+            return b;
+        }
+
+        private void expect(char c) throws MalformedRecord {
+            byte b = next();
+            if (b != c) {
+                throw new MalformedRecord(pos - 1, "expected '" + c + "' but found '" + (char) b + "'");
+            }
+        }
+
+        /**
+         * Skip a string whose opening quote was just read
+         * @return offset of the closing quote (pos is left after it)
+         */
+        private int skipStringBody() throws MalformedRecord {
+            while (true) {
+                byte b = next();
+                if (b == '"') {
+                    return pos - 1;
+                }
+                if (b == '\\') {
+                    next();
+                }
+            }
+        }
+
+        private boolean keyIs(int start, int stop, byte[] key) {
+            if (stop - start != key.length) {
+                return false;
+            }
+            for (int i = 0; i < key.length; i++) {
+                if (data.get(start + i) != key[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private String readString() throws MalformedRecord {
+            expect('"');
+            int start = pos;
+            int stop = skipStringBody();
+            for (int i = start; i < stop; i++) {
+                if (data.get(i) == '\\') {
+                    return unescape(start, stop);
+                }
+            }
+            int length = stop - start;
+            if (length > scratch.length) {
+                scratch = new byte[Math.max(length, scratch.length * 2)];
+            }
+            data.get(start, scratch, 0, length);
+            return new String(scratch, 0, length, StandardCharsets.UTF_8);
+        }
+
+        /**
+         * Slow path for strings with escape sequences (none in the course files so far)
+         */
+        private String unescape(int start, int stop) throws MalformedRecord {
+            java.io.ByteArrayOutputStream bytes = new java.io.ByteArrayOutputStream(stop - start);
+            for (int i = start; i < stop; i++) {
+                byte b = data.get(i);
+                if (b != '\\') {
+                    bytes.write(b);
+                    continue;
+                }
+                byte escaped = data.get(++i);
+                switch (escaped) {
+                    case 'n': bytes.write('\n'); break;
+                    case 't': bytes.write('\t'); break;
+                    case 'r': bytes.write('\r'); break;
+                    case 'b': bytes.write('\b'); break;
+                    case 'f': bytes.write('\f'); break;
+                    case 'u':
+                        if (i + 4 >= stop) {
+                            throw new MalformedRecord(i - 1, "bad \\u escape");
+                        }
+                        int code = 0;
+                        for (int k = 1; k <= 4; k++) {
+                            int digit = Character.digit(data.get(i + k), 16);
+                            if (digit < 0) {
+                                throw new MalformedRecord(i - 1, "bad \\u escape");
+                            }
+                            code = code * 16 + digit;
+                        }
+                        i += 4;
+                        byte[] utf8 = String.valueOf((char) code).getBytes(StandardCharsets.UTF_8);
+                        bytes.write(utf8, 0, utf8.length);
+                        break;
+                    default: bytes.write(escaped); // \" \\ \/
+                }
+            }
+            return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+        }
+
+        /**
+         * Read a non-negative integer, quoted or not, straight from the bytes
+         */
+        private int readInt() throws MalformedRecord {
+            int valueStart = pos;
+            boolean quoted = peek() == '"';
+            if (quoted) {
+                pos++;
+            }
+            long value = 0;
+            int digits = 0;
+            while (pos < end) {
+                byte b = data.get(pos);
+                if (b < '0' || b > '9') {
+                    break;
+                }
+                value = value * 10 + (b - '0');
+                if (value > Integer.MAX_VALUE) {
+                    throw new MalformedRecord(valueStart, "number out of range");
+                }
+                digits++;
+                pos++;
+            }
+            if (digits == 0) {
+                throw new MalformedRecord(valueStart, "expected a whole number");
+            }
+            if (quoted) {
+                expect('"');
+            }
+            return (int) value;
+        }
+
+        /**
+         * Read a plain decimal such as "3.0" or 0.5, quoted or not; other forms
+         * (exponents, very long mantissas) fall back to Double.parseDouble
+         */
+        private double readDouble() throws MalformedRecord {
+            int valueStart = pos;
+            boolean quoted = peek() == '"';
+            if (quoted) {
+                pos++;
+            }
+            int numberStart = pos;
+            boolean negative = pos < end && data.get(pos) == '-';
+            if (negative) {
+                pos++;
+            }
+            long mantissa = 0;
+            int digits = 0;
+            int fractionDigits = 0;
+            boolean seenPoint = false;
+            while (pos < end) {
+                byte b = data.get(pos);
+                if (b >= '0' && b <= '9') {
+                    mantissa = mantissa * 10 + (b - '0');
+                    digits++;
+                    if (seenPoint) {
+                        fractionDigits++;
+                    }
+                } else if (b == '.' && !seenPoint) {
+                    seenPoint = true;
+                } else {
+                    break;
+                }
+                pos++;
+            }
+            if (digits == 0) {
+                throw new MalformedRecord(valueStart, "expected a number");
+            }
+
+            double value;
+            byte b = (pos < end) ? data.get(pos) : 0;
+            if (b == 'e' || b == 'E' || digits > 15) {
+                while (pos < end && "+-.eE0123456789".indexOf(data.get(pos)) >= 0) {
+                    pos++;
+                }
+                byte[] text = new byte[pos - numberStart];
+                data.get(numberStart, text);
+                try {
+                    value = Double.parseDouble(new String(text, StandardCharsets.US_ASCII));
+                } catch (NumberFormatException e) {
+                    throw new MalformedRecord(valueStart, "expected a number");
+                }
+            } else {
+                // Both operands are exact, so the one division rounds correctly
+                value = mantissa / POWERS_OF_TEN[fractionDigits];
+                if (negative) {
+                    value = -value;
+                }
+            }
+            if (quoted) {
+                expect('"');
+            }
+            return value;
+        }
+
+        /**
+         * Skip a value of a field we do not use: string, number, literal, object or array
+         */
+        private void skipValue() throws MalformedRecord {
+            int valueStart = pos;
+            byte b = next();
+            if (b == '"') {
+                skipStringBody();
+            } else if (b == '{' || b == '[') {
+                int depth = 1;
+                while (depth > 0) {
+                    byte c = next();
+                    if (c == '"') {
+                        skipStringBody();
+                    } else if (c == '{' || c == '[') {
+                        depth++;
+                    } else if (c == '}' || c == ']') {
+                        depth--;
+                    }
+                }
+            } else {
+                while (pos < end) {
+                    byte c = data.get(pos);
+                    if (c == ',' || c == '}' || c == ']' || c == ' ' || c == '\n' || c == '\r' || c == '\t') {
+                        break;
+                    }
+                    pos++;
+                }
+                if (b == ',' || b == '}' || b == ']') {
+                    throw new MalformedRecord(valueStart, "missing value");
+                }
+            }
         }
     }
-}
 
+    private static byte[] ascii(String s) {
+        return s.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -1,9 +1,7 @@
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileReader;
 import java.io.IOException;
 import java.util.*;
 import java.util.Map;
@@ -201,13 +199,9 @@ public class LotteryGUI extends JFrame {
             studentsById.put(s.studentId, s);
         }
 
-        // Group requests by courseId
-        Map<String, java.util.List<ClassRequest>> requestsByCourse = new HashMap<>();
-        for (ClassRequest req : requestList) {
-            requestsByCourse
-                    .computeIfAbsent(req.courseId, k -> new ArrayList<>())
-                    .add(req);
-        }
+        // Weights for every request, computed once for the whole run
+        int currentYear = java.time.Year.now().getValue();
+        RequestTable requests = RequestTable.build(studentList, courseList, requestList, currentYear);
 
         Map<String, java.util.List<students>> enrolledByCourse = new HashMap<>();
         java.util.Random rand = new java.util.Random();
@@ -220,10 +214,12 @@ public class LotteryGUI extends JFrame {
                     ", Currently Enrolled: " + course.currentEnrollment + ")\n");
             outputArea.append("━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━\n\n");
             
-            java.util.List<ClassRequest> courseRequests =
-                    requestsByCourse.getOrDefault(course.courseSectionId, new ArrayList<>());
+            // This course's requests are one contiguous run of rows
+            int section = requests.sectionOf(course.courseSectionId);
+            int firstRow = (section < 0) ? 0 : requests.sectionStart(section);
+            int endRow = (section < 0) ? 0 : requests.sectionEnd(section);
 
-            if (courseRequests.isEmpty()) {
+            if (firstRow == endRow) {
                 outputArea.append("No requests for this course.\n\n");
                 enrolledByCourse.put(course.courseSectionId, new ArrayList<>());
                 continue;
@@ -245,14 +241,15 @@ public class LotteryGUI extends JFrame {
             
             outputArea.append("Available seats: " + seatsLeft + "\n\n");
             
-            for (ClassRequest req : courseRequests) {
-                students s = studentsById.get(req.studentId);
+            for (int row = firstRow; row < endRow; row++) {
+                int preferenceRank = requests.getRank(row);
+                students s = requests.getStudent(row);
                 if (s == null) {
-                    outputArea.append("  ⚠ Warning: Student " + req.studentId + " not found, skipping.\n");
+                    outputArea.append("  ⚠ Warning: Student " + requests.getStudentId(row) + " not found, skipping.\n");
                     continue;
                 }
 
-                int weight = LotteryWeightCalculator.computeWeight(s, req, course);
+                int weight = requests.getWeight(row);
                 if (weight <= 0) {
                     outputArea.append("  ⚠ Warning: Invalid weight for " + s.studentId + ", skipping.\n");
                     continue;
@@ -261,12 +258,11 @@ public class LotteryGUI extends JFrame {
                 studentWeights.put(s.studentId, weight);
                 
                 // Show weight breakdown
-                int currentYear = java.time.Year.now().getValue();
                 StudentYear year = LotteryWeightCalculator.getStudentYear(s.gradYear, currentYear);
                 
                 outputArea.append("  Student: " + s.name + " (" + s.studentId + ")\n");
-                outputArea.append("    - Preference Rank: " + req.preferenceRank + 
-                        " (bonus: " + getRankBonus(req.preferenceRank) + ")\n");
+                outputArea.append("    - Preference Rank: " + preferenceRank + 
+                        " (bonus: " + getRankBonus(preferenceRank) + ")\n");
                 outputArea.append("    - Major Status: " + s.majorStatus + 
                         " (bonus: " + getMajorBonus(s.majorStatus) + ")\n");
                 outputArea.append("    - Academic Year: " + year + 
@@ -487,115 +483,28 @@ public class LotteryGUI extends JFrame {
     private java.util.List<students> loadStudentsFromCSV(String filepath) {
         java.util.List<students> studentList = new ArrayList<>();
         
-        try (BufferedReader br = new BufferedReader(new FileReader(filepath))) {
-            String line = br.readLine(); // Skip header
-            
-            while ((line = br.readLine()) != null) {
-                if (line.trim().isEmpty()) continue;
+        try {
+            StudentCsvLoader.load(filepath, row -> {
+                // Convert major status string to enum
+                students.MajorStatus majorStatus;
+                if (row.majorStatus.equalsIgnoreCase("CS major")) {
+                    majorStatus = students.MajorStatus.CS_MAJOR;
+                } else if (row.majorStatus.equalsIgnoreCase("CS minor")) {
+                    majorStatus = students.MajorStatus.CS_MINOR;
+                } else {
+                    majorStatus = students.MajorStatus.NON_MAJOR;
+                }
                 
                 try {
-                    int firstComma = line.indexOf(',');
-                    int secondComma = line.indexOf(',', firstComma + 1);
-                    int firstBracket = line.indexOf('[');
-                    int firstCloseBracket = line.indexOf(']');
-                    int secondBracket = (firstCloseBracket != -1) ? line.indexOf('[', firstCloseBracket + 1) : -1;
-                    int secondCloseBracket = (secondBracket != -1) ? line.indexOf(']', secondBracket + 1) : -1;
-                    
-                    if (firstComma == -1 || secondComma == -1) {
-                        continue;
-                    }
-                    
-                    String studentId = line.substring(0, firstComma).trim();
-                    String name = line.substring(firstComma + 1, secondComma).trim();
-                    
-                    // Parse past classes
-                    java.util.List<String> pastClasses = new ArrayList<>();
-                    if (firstBracket != -1 && firstCloseBracket != -1) {
-                        String pastClassesStr = line.substring(firstBracket + 1, firstCloseBracket).trim();
-                        if (!pastClassesStr.isEmpty()) {
-                            String[] courses = pastClassesStr.split(",");
-                            for (String course : courses) {
-                                pastClasses.add(course.trim());
-                            }
-                        }
-                    }
-                    
-                    // Parse requested classes
-                    java.util.List<String> requestedClasses = new ArrayList<>();
-                    if (secondBracket != -1 && secondCloseBracket != -1) {
-                        String requestedClassesStr = line.substring(secondBracket + 1, secondCloseBracket).trim();
-                        if (!requestedClassesStr.isEmpty()) {
-                            String[] courses = requestedClassesStr.split(",");
-                            for (String course : courses) {
-                                requestedClasses.add(course.trim());
-                            }
-                        }
-                    }
-                    
-                    // Parse remaining fields (grad_year, major_status)
-                    int lastBracketClose = (secondCloseBracket != -1) ? secondCloseBracket : firstCloseBracket;
-                    
-                    String remaining;
-                    if (lastBracketClose != -1 && lastBracketClose < line.length()) {
-                        int commaPos = line.indexOf(',', lastBracketClose);
-                        if (commaPos != -1 && commaPos < line.length() - 1) {
-                            remaining = line.substring(commaPos + 1);
-                        } else {
-                            if (lastBracketClose + 1 < line.length()) {
-                                remaining = line.substring(lastBracketClose + 1).trim();
-                                if (remaining.startsWith(",")) {
-                                    remaining = remaining.substring(1).trim();
-                                }
-                            } else {
-                                continue;
-                            }
-                        }
-                    } else {
-                        if (secondComma + 1 < line.length()) {
-                            remaining = line.substring(secondComma + 1);
-                        } else {
-                            continue;
-                        }
-                    }
-                    
-                    if (remaining.isEmpty()) {
-                        continue;
-                    }
-                    
-                    String[] lastParts = remaining.split(",", 2);
-                    
-                    if (lastParts.length < 2) {
-                        continue;
-                    }
-                    
-                    int gradYear;
-                    try {
-                        gradYear = Integer.parseInt(lastParts[0].trim());
-                    } catch (NumberFormatException e) {
-                        continue;
-                    }
-                    String majorStatusStr = lastParts[1].trim();
-                    
-                    // Convert major status string to enum
-                    students.MajorStatus majorStatus;
-                    if (majorStatusStr.equalsIgnoreCase("CS major")) {
-                        majorStatus = students.MajorStatus.CS_MAJOR;
-                    } else if (majorStatusStr.equalsIgnoreCase("CS minor")) {
-                        majorStatus = students.MajorStatus.CS_MINOR;
-                    } else {
-                        majorStatus = students.MajorStatus.NON_MAJOR;
-                    }
-                    
-                    students student = new students(
-                            studentId, name, pastClasses, requestedClasses, gradYear, majorStatus
-                    );
-                    studentList.add(student);
-                    
-                } catch (Exception e) {
-                    // Skip malformed lines
-                    continue;
+                    // The row's lists are reused for the next row; the record keeps the
+                    // transcript as dictionary IDs instead of copying the strings
+                    StudentRecord record = new StudentRecord(row.studentId, row.name, row.gradYear,
+                            row.majorStatus, row.pastClasses);
+                    studentList.add(new students(record, new ArrayList<>(row.requestedClasses), majorStatus));
+                } catch (IllegalArgumentException e) {
+                    // Skip rows with an invalid graduation year
                 }
-            }
+            });
         } catch (IOException e) {
             outputArea.append("Error reading CSV file: " + e.getMessage() + "\n");
         }
@@ -18,8 +18,33 @@ public class MainInterface
     private Scanner scanner;
     private String studentCsvPath;
     private String courseJsonPath;
+    // Binary copy of the loaded state, next to the student CSV
+    private String snapshotPath;
     private List<classes> allCourses;
-    private List<ClassRequest> allRequests; // Store all course requests
+    private Map<String, classes> coursesBySectionId;
+    // Position of each section ID's first appearance in allCourses
+    private Map<String, Integer> catalogPosition;
+    // All course requests, grouped by course code, section and student
+    private RequestIndex requestIndex;
+    // Current requested classes per student: the CSV's requested_classes plus journaled changes
+    private Map<String, List<String>> requestedCodesByStudent;
+    // Requested-class changes since the CSV was last compacted, next to the student CSV
+    private String journalPath;
+    private RequestJournal requestJournal;
+    // Folds the journal into the CSV in the background once it grows past this many bytes
+    private static final long JOURNAL_COMPACT_BYTES = 1 << 20;
+    private java.util.concurrent.ExecutorService compactor;
+    private java.util.concurrent.Future<?> compaction;
+    // Set once student.csv is rewritten or appended to, so the snapshot is refreshed on exit
+    private volatile boolean studentCsvChanged;
+    // Live admission odds per course section, built on first lookup and kept up to date as requests change
+    private Map<String, AdmissionEstimator> admissionEstimators;
+    
+    // Number of simulated lotteries used to estimate admission chances
+    private static final int SIMULATION_REPLICAS = 10000;
+    // Simulation for the most recent lottery run (computed on first use)
+    private LotteryEngine.LotteryResult simulatedRun;
+    private LotterySimulator.SimulationResult admissionSimulation;
     
     
     // Main Entry Point
@@ -30,8 +55,14 @@ public class MainInterface
         this.scanner = new Scanner(System.in);
         this.studentCsvPath = studentCsvPath;
         this.courseJsonPath = courseJsonPath;
+        this.snapshotPath = java.nio.file.Paths.get(studentCsvPath).resolveSibling("registration.snapshot").toString();
+        this.journalPath = java.nio.file.Paths.get(studentCsvPath).resolveSibling("requests.journal").toString();
         this.allCourses = new ArrayList<>();
-        this.allRequests = new ArrayList<>();
+        this.coursesBySectionId = new HashMap<>();
+        this.catalogPosition = new HashMap<>();
+        this.requestIndex = new RequestIndex();
+        this.requestedCodesByStudent = new HashMap<>();
+        this.admissionEstimators = new HashMap<>();
     }
     
     /**
@@ -109,39 +140,59 @@ public class MainInterface
     
     /**
      * Load existing student and course data
+     * Uses the binary snapshot when it is newer than both text files, and writes a fresh
+     * snapshot after loading from text
      */
     private void loadExistingData()
     {
         try
         {
-            // Load student data
-            if (new java.io.File(studentCsvPath).exists())
+            String[] sources = { studentCsvPath, courseJsonPath };
+            RegistrationSnapshot snapshot = RegistrationSnapshot.read(snapshotPath, sources);
+            if (snapshot != null)
             {
-                registrationSystem.loadStudentData(studentCsvPath);
+                loadSnapshot(snapshot);
+                System.out.println("Loaded " + allCourses.size() + " courses.");
                 System.out.println("Loaded existing student data.");
+                if (requestIndex.size() > 0)
+                {
+                    System.out.println("Loaded " + requestIndex.size() + " course requests from snapshot.");
+                }
+                openRequestJournal();
+                return;
             }
             
             // Load course data from JSON
             if (new java.io.File(courseJsonPath).exists())
             {
-                allCourses = CourseJsonLoader.loadCoursesFromJson(courseJsonPath);
+                allCourses = CourseJsonLoader.loadCoursesFromJson(courseJsonPath, true);
                 System.out.println("Loaded " + allCourses.size() + " courses.");
                 
                 // Add courses to registration system for prerequisite checking
-                for (classes c : allCourses)
-                {
-                    String courseCode = extractCourseCode(c.courseSectionId);
-                    Course course = new Course(c.courseSectionId, courseCode, c.capacity);
-                    registrationSystem.addCourse(course);
-                }
+                indexCourses();
             }
             else
             {
                 System.out.println("Warning: Course data file not found at " + courseJsonPath);
             }
             
-            // Load requested classes from CSV and convert to ClassRequest objects
-            loadRequestedClassesFromCsv();
+            // Load students and their requested classes in one pass (requests need the courses above)
+            if (new java.io.File(studentCsvPath).exists())
+            {
+                loadStudentsAndRequests();
+                System.out.println("Loaded existing student data.");
+                if (requestIndex.size() > 0)
+                {
+                    System.out.println("Loaded " + requestIndex.size() + " course requests from CSV.");
+                }
+            }
+            
+            if (new java.io.File(courseJsonPath).exists() && new java.io.File(studentCsvPath).exists())
+            {
+                writeSnapshot();
+            }
+            
+            openRequestJournal();
         }
         catch (Exception e)
         {
@@ -151,87 +202,136 @@ public class MainInterface
     }
     
     /**
-     * Load requested classes from CSV file and convert to ClassRequest objects
+     * Write the loaded state to the snapshot, recording the current size and time of both text files
      */
-    private void loadRequestedClassesFromCsv()
+    private void writeSnapshot()
     {
-        try (BufferedReader br = new BufferedReader(new FileReader(studentCsvPath)))
+        try
         {
-            String line = br.readLine(); // Skip header
-            
-            while ((line = br.readLine()) != null)
-            {
-                if (line.trim().isEmpty()) continue;
-                
-                int firstComma = line.indexOf(',');
-                int secondComma = line.indexOf(',', firstComma + 1);
-                int firstCloseBracket = line.indexOf(']');
-                int secondBracket = line.indexOf('[', firstCloseBracket + 1);
-                int secondCloseBracket = (secondBracket != -1) ? line.indexOf(']', secondBracket + 1) : -1;
-                
-                if (firstComma == -1 || secondComma == -1) continue;
-                
-                String studentId = line.substring(0, firstComma).trim();
-                String requestedClassesStr = "";
-                
-                if (secondBracket != -1 && secondCloseBracket != -1)
-                {
-                    requestedClassesStr = line.substring(secondBracket, secondCloseBracket + 1).trim();
-                }
-                
-                if (requestedClassesStr.equals("") || requestedClassesStr.equals("[]"))
-                {
-                    continue; // No requested classes
-                }
-                
-                // Parse requested classes
-                String cleaned = requestedClassesStr.replace("[", "").replace("]", "");
-                String[] courseCodes = cleaned.split(",");
-                
-                int rank = 1;
-                for (String courseCode : courseCodes)
-                {
-                    courseCode = courseCode.trim();
-                    if (courseCode.isEmpty()) continue;
-                    
-                    // Normalize course code (ensure CS prefix)
-                    String normalizedCode = normalizeCourseCodeInput(courseCode);
-                    
-                    // Find matching course sections
-                    List<classes> matchingCourses = findCoursesByCode(normalizedCode);
-                    
-                    if (!matchingCourses.isEmpty())
-                    {
-                        // Use the first available section (or first section if all are full)
-                        // In a real system, you might want to pick the one with most available seats
-                        classes selectedCourse = matchingCourses.get(0);
-                        
-                        // Create ClassRequest with preference rank
-                        ClassRequest request = new ClassRequest(studentId, selectedCourse.courseSectionId, rank);
-                        allRequests.add(request);
-                    }
-                    
-                    rank++;
-                    if (rank > 4) break; // Maximum 4 requests
-                }
-            }
-            
-            if (!allRequests.isEmpty())
-            {
-                System.out.println("Loaded " + allRequests.size() + " course requests from CSV.");
-            }
+            RegistrationSnapshot.write(snapshotPath, new String[] { studentCsvPath, courseJsonPath }, allCourses,
+                    registrationSystem.getAllStudents().values(), requestedCodesByStudent, requestIndex.getRequests());
         }
         catch (IOException e)
         {
-            System.err.println("Error loading requested classes from CSV: " + e.getMessage());
+            System.err.println("Could not write snapshot: " + e.getMessage());
         }
-        catch (Exception e)
+    }
+    
+    /**
+     * Open the request journal and apply the changes it holds on top of the loaded requests
+     * Entries left by a session that did not exit cleanly are folded into the CSV in the background
+     */
+    private void openRequestJournal() throws IOException
+    {
+        requestJournal = RequestJournal.open(journalPath);
+        compactor = java.util.concurrent.Executors.newSingleThreadExecutor(r ->
+        {
+            Thread thread = new Thread(r, "request-journal-compact");
+            thread.setDaemon(true);
+            return thread;
+        });
+        applyRequestJournal();
+        if (requestJournal.size() > 0)
+        {
+            startCompaction();
+        }
+    }
+    
+    /**
+     * Replace the loaded requests of every student in the journal with their latest entry
+     */
+    private void applyRequestJournal() throws IOException
+    {
+        for (Map.Entry<String, List<String>> entry : requestJournal.latest().entrySet())
+        {
+            removeRequestsForStudent(entry.getKey());
+            requestedCodesByStudent.remove(entry.getKey());
+            addRequestsFromCsv(entry.getKey(), entry.getValue());
+        }
+    }
+    
+    /**
+     * Add every loaded section to the lookup map and the registration system
+     */
+    private void indexCourses()
+    {
+        for (classes c : allCourses)
+        {
+            coursesBySectionId.put(c.courseSectionId, c);
+            catalogPosition.putIfAbsent(c.courseSectionId, catalogPosition.size());
+            String courseCode = CourseCode.of(c.courseSectionId).getCode();
+            Course course = new Course(c.courseSectionId, courseCode, c.capacity);
+            registrationSystem.addCourse(course);
+        }
+    }
+    
+    /**
+     * Restore courses, students and requests from a snapshot instead of the text files
+     */
+    private void loadSnapshot(RegistrationSnapshot snapshot)
+    {
+        allCourses = snapshot.courses;
+        indexCourses();
+        for (Student student : snapshot.students)
+        {
+            registrationSystem.addStudent(student);
+        }
+        requestedCodesByStudent.putAll(snapshot.requestedCodesByStudent);
+        for (ClassRequest request : snapshot.requests)
         {
-            System.err.println("Error parsing requested classes: " + e.getMessage());
+            addRequest(request);
         }
     }
     
-    // Registration of students and adding course requests
+    /**
+     * Load students from the CSV into the registration system and convert their requested
+     * classes to ClassRequest objects, reading the file once (courses must be loaded first)
+     */
+    private void loadStudentsAndRequests()
+    {
+        requestIndex.clear();
+        admissionEstimators.clear();
+        requestedCodesByStudent.clear();
+        registrationSystem.loadStudentData(studentCsvPath, row -> addRequestsFromCsv(row.studentId, row.requestedClasses));
+    }
+    
+    /**
+     * Convert one student's requested classes from the CSV to ClassRequest objects
+     * @param studentId The student ID
+     * @param requestedCodes Requested course codes in preference order (copied, not kept)
+     */
+    private void addRequestsFromCsv(String studentId, List<String> requestedCodes)
+    {
+        if (requestedCodes.isEmpty())
+        {
+            return; // No requested classes
+        }
+        requestedCodesByStudent.put(studentId, new ArrayList<>(requestedCodes));
+        
+        int rank = 1;
+        for (String courseCode : requestedCodes)
+        {
+            // Normalize course code (ensure CS prefix)
+            String normalizedCode = CourseCode.normalizeInput(courseCode);
+            
+            // Find matching course sections
+            List<classes> matchingCourses = findCoursesByCode(normalizedCode);
+            
+            if (!matchingCourses.isEmpty())
+            {
+                // Use the first available section (or first section if all are full)
+                // In a real system, you might want to pick the one with most available seats
+                classes selectedCourse = matchingCourses.get(0);
+                
+                // Create ClassRequest with preference rank
+                ClassRequest request = new ClassRequest(studentId, selectedCourse.courseSectionId, rank);
+                addRequest(request);
+            }
+            
+            rank++;
+            if (rank > 4) break; // Maximum 4 requests
+        }
+    }
     
     /**
      * Student Registration - Register new students or add course requests for existing students
@@ -249,11 +349,21 @@ public class MainInterface
         {
             case "1":
                 // Register new student using RegistrationInterface
-                RegistrationInterface regInterface = new RegistrationInterface(studentCsvPath);
+                // (it appends to the CSV, so let a running compaction finish rewriting it first)
+                awaitCompaction();
+                RegistrationInterface regInterface = new RegistrationInterface(studentCsvPath, registrationSystem);
                 regInterface.registerNewStudent();
+                studentCsvChanged = true;
                 // Reload student data and requested classes after registration
-                registrationSystem.loadStudentData(studentCsvPath);
-                loadRequestedClassesFromCsv();
+                loadStudentsAndRequests();
+                try
+                {
+                    applyRequestJournal();
+                }
+                catch (IOException e)
+                {
+                    System.err.println("Error reading request journal: " + e.getMessage());
+                }
                 break;
             case "2":
                 // Add course requests for existing student
@@ -335,164 +445,20 @@ public class MainInterface
         System.out.println();
     }
     
-    // Checking course code validity
-    
-    /**
-     * Normalize course code input from user
-     */
-    private String normalizeCourseCodeInput(String courseCode)
-    {
-        if (courseCode == null) return "";
-        courseCode = courseCode.toUpperCase().replaceAll("\\s+", "");
-        
-        if (courseCode.startsWith("CSCI"))
-        {
-            courseCode = courseCode.substring(4);
-            if (courseCode.matches("^0+\\d+.*"))
-            {
-                courseCode = courseCode.replaceFirst("^0+", "");
-            }
-        }
-        else if (courseCode.startsWith("CS"))
-        {
-            courseCode = courseCode.substring(2);
-        }
-        
-        if (courseCode.matches("^0+\\d+.*"))
-        {
-            courseCode = courseCode.replaceFirst("^0+", "");
-        }
-        
-        return "CS" + courseCode;
-    }
-    
-    /**
-     * Extract course code from course section ID
-     * Handles formats like "CSCI140  HM-01 SP2025", "CSCI181DVPO-01 SP2025", or "CS62-01"
-     * Converts CSCI prefix to CS and removes location codes (like HM, PO)
-     */
-    private String extractCourseCode(String courseSectionId)
-    {
-        if (courseSectionId == null || courseSectionId.isEmpty())
-        {
-            return "";
-        }
-        
-        int dashIndex = courseSectionId.indexOf('-');
-        int spaceIndex = courseSectionId.indexOf(' ');
-        
-        String courseCode;
-        if (dashIndex > 0 && (spaceIndex == -1 || dashIndex < spaceIndex))
-        {
-            courseCode = courseSectionId.substring(0, dashIndex).trim();
-        }
-        else if (spaceIndex > 0)
-        {
-            courseCode = courseSectionId.substring(0, spaceIndex).trim();
-        }
-        else
-        {
-            courseCode = courseSectionId.trim();
-        }
-        
-        // Convert CSCI prefix to CS
-        if (courseCode.startsWith("CSCI"))
-        {
-            courseCode = "CS" + courseCode.substring(4);
-        }
-        
-        // Note: Location codes (like PO, HM) are kept in the course code
-        // Matching is done using "starts with" logic in findCoursesByCode()
-        
-        // Remove leading zeros from numbers
-        if (courseCode.length() > 2 && courseCode.startsWith("CS"))
-        {
-            String numberPart = courseCode.substring(2);
-            if (numberPart.matches("^0+\\d+.*"))
-            {
-                numberPart = numberPart.replaceFirst("^0+", "");
-                courseCode = "CS" + numberPart;
-            }
-        }
-        
-        return courseCode;
-    }
-    
-    /**
-     * Remove location code from course code (e.g., CS181DVPO -> CS181DV)
-     */
-    private String removeLocationCode(String courseCode)
-    {
-        if (courseCode.length() > 4 && courseCode.startsWith("CS"))
-        {
-            String afterCS = courseCode.substring(2);
-            // Check if ends with 2 uppercase letters (likely location code)
-            if (afterCS.length() >= 2)
-            {
-                String lastTwo = afterCS.substring(afterCS.length() - 2);
-                // Common location codes (2 uppercase letters)
-                Set<String> locationCodes = Set.of("PO", "HM", "CM", "PZ", "AF", "SA", "IO", "BS");
-                
-                if (locationCodes.contains(lastTwo))
-                {
-                    // Remove the location code
-                    return "CS" + afterCS.substring(0, afterCS.length() - 2);
-                }
-            }
-        }
-        return courseCode;
-    }
-    
-    /**
-     * Validate course code format
-     */
-    private boolean isValidCourseCode(String courseCode)
-    {
-        if (courseCode == null || courseCode.isEmpty() || courseCode.length() <= 2)
-        {
-            return false;
-        }
-        String afterCS = courseCode.substring(2);
-        return !afterCS.isEmpty() && !afterCS.trim().isEmpty();
-    }
-    
     /**
      * Find courses by course code (normalized)
      * Uses smart matching to handle location codes (e.g., CS181DV matches CS181DVPO)
+     * Looked up in the registration system's course code index instead of scanning the catalog
      */
     private List<classes> findCoursesByCode(String courseCode)
     {
         List<classes> matches = new ArrayList<>();
-        for (classes c : allCourses)
+        for (String sectionId : registrationSystem.getSectionIdsMatchingCode(courseCode))
         {
-            String code = extractCourseCode(c.courseSectionId);
-            
-            // Exact match
-            if (code.equals(courseCode))
-            {
-                matches.add(c);
-            }
-            // Handle location codes: CS181DV should match CS181DVPO
-            // Check if one is a prefix of the other and the difference is 2-3 uppercase letters
-            else if (code.startsWith(courseCode))
-            {
-                String suffix = code.substring(courseCode.length());
-                // If suffix is 2-3 uppercase letters, it's likely a location code
-                if (suffix.matches("^[A-Z]{2,3}$"))
-                {
-                    matches.add(c);
-                }
-            }
-            else if (courseCode.startsWith(code))
-            {
-                String suffix = courseCode.substring(code.length());
-                // If suffix is 2-3 uppercase letters, it's likely a location code
-                if (suffix.matches("^[A-Z]{2,3}$"))
-                {
-                    matches.add(c);
-                }
-            }
+            matches.add(coursesBySectionId.get(sectionId));
         }
+        // Several codes can match (CS181DV -> CS181DVPO, CS181DVHM); keep catalog order
+        matches.sort(Comparator.comparingInt(c -> catalogPosition.get(c.courseSectionId)));
         return matches;
     }
     
@@ -514,7 +480,7 @@ public class MainInterface
             System.out.println("\nYour Current Requests:");
             for (int i = 0; i < existingCourseCodesFromCsv.size(); i++)
             {
-                String code = removeLocationCode(existingCourseCodesFromCsv.get(i));
+                String code = CourseCode.withoutLocation(existingCourseCodesFromCsv.get(i));
                 System.out.println("  " + (i + 1) + ". " + code);
             }
             int remainingSlots = 4 - existingCourseCodesFromCsv.size();
@@ -529,18 +495,18 @@ public class MainInterface
         System.out.println("\nEnter course codes (e.g., 140, 181DV, 51) - 'CS' prefix will be added automatically.");
         System.out.println("Press Enter with empty line to finish.\n");
         
-        // Remove existing requests for this student from allRequests (we'll rebuild them)
-        allRequests.removeIf(req -> req.studentId.equals(student.getStudentId()));
+        // Remove existing requests for this student (we'll rebuild them)
+        removeRequestsForStudent(student.getStudentId());
         
         // Start with existing requests
         List<String> requestedCourseCodes = new ArrayList<>(existingCourseCodesFromCsv);
         int rank = existingCourseCodesFromCsv.size() + 1;
         
-        // Find course sections for existing requests and add them to allRequests
+        // Find course sections for existing requests and add them back
         for (int i = 0; i < existingCourseCodesFromCsv.size(); i++)
         {
             String courseCode = existingCourseCodesFromCsv.get(i);
-            String normalizedCode = normalizeCourseCodeInput(courseCode);
+            String normalizedCode = CourseCode.normalizeInput(courseCode);
             
             // Find matching course sections
             List<classes> matchingCourses = findCoursesByCode(normalizedCode);
@@ -550,7 +516,7 @@ public class MainInterface
                 classes selectedCourse = matchingCourses.get(0);
                 ClassRequest request = new ClassRequest(student.getStudentId(), 
                                                        selectedCourse.courseSectionId, i + 1);
-                allRequests.add(request);
+                addRequest(request);
             }
         }
         
@@ -566,9 +532,9 @@ public class MainInterface
             }
             
             // Normalize course code
-            String normalizedCode = normalizeCourseCodeInput(input);
+            String normalizedCode = CourseCode.normalizeInput(input);
             
-            if (!isValidCourseCode(normalizedCode))
+            if (!CourseCode.isValidInput(normalizedCode))
             {
                 System.out.println("Invalid course code. Please try again.");
                 continue;
@@ -645,7 +611,7 @@ public class MainInterface
             if (courseForValidation == null)
             {
                 // Create course object for validation if it doesn't exist
-                String courseCode = extractCourseCode(selectedCourse.courseSectionId);
+                String courseCode = CourseCode.of(selectedCourse.courseSectionId).getCode();
                 courseForValidation = new Course(selectedCourse.courseSectionId, courseCode, selectedCourse.capacity);
                 registrationSystem.addCourse(courseForValidation);
             }
@@ -667,15 +633,22 @@ public class MainInterface
             // Create request
             ClassRequest request = new ClassRequest(student.getStudentId(), 
                                                    selectedCourse.courseSectionId, rank);
-            allRequests.add(request);
+            
+            // Show live odds before adding the request
+            AdmissionEstimator estimator = getAdmissionEstimator(selectedCourse);
+            double chance = estimator.probabilityIfAdded(requestWeight(request));
+            System.out.println(String.format("Estimated chance of getting a seat: %.0f%% (%d other eligible request(s) for %d seat(s))",
+                chance * 100, estimator.getRequestCount(), estimator.getSeats()));
+            
+            addRequest(request);
             requestedCourseCodes.add(normalizedCode);
             
             System.out.println("Added: " + selectedCourse.courseSectionId + " (Preference rank: " + rank + ")");
             rank++;
         }
         
-        // Update CSV with merged list
-        updateRequestedClassesInCsv(student.getStudentId(), requestedCourseCodes);
+        // Record the merged list
+        saveRequestedClasses(student.getStudentId(), requestedCourseCodes);
         
         if (rank > existingCourseCodesFromCsv.size() + 1)
         {
@@ -696,112 +669,203 @@ public class MainInterface
         scanner.nextLine();
     }
 
+    // Live admission odds
+    
+    /**
+     * Add a request and count it in its section's live odds
+     */
+    private void addRequest(ClassRequest request)
+    {
+        requestIndex.add(request);
+        AdmissionEstimator estimator = admissionEstimators.get(request.courseId);
+        if (estimator != null)
+        {
+            estimator.add(requestWeight(request));
+        }
+    }
+    
+    /**
+     * Remove all requests of a student and take them out of the live odds
+     * Only the student's own requests and sections are touched
+     */
+    private void removeRequestsForStudent(String studentId)
+    {
+        List<ClassRequest> removed = requestIndex.removeStudent(studentId);
+        for (ClassRequest request : removed)
+        {
+            AdmissionEstimator estimator = admissionEstimators.get(request.courseId);
+            if (estimator != null)
+            {
+                estimator.remove(requestWeight(request));
+            }
+        }
+    }
+    
+    /**
+     * Get the live odds estimator for a section, building it from current requests on first use
+     */
+    private AdmissionEstimator getAdmissionEstimator(classes section)
+    {
+        AdmissionEstimator estimator = admissionEstimators.get(section.courseSectionId);
+        if (estimator == null)
+        {
+            estimator = new AdmissionEstimator(section.capacity - section.currentEnrollment);
+            for (ClassRequest request : requestIndex.getRequestsForSection(section.courseSectionId))
+            {
+                estimator.add(requestWeight(request));
+            }
+            admissionEstimators.put(section.courseSectionId, estimator);
+        }
+        return estimator;
+    }
+    
+    /**
+     * Lottery weight of a request (0 if the student or section is unknown or prerequisites are missing)
+     */
+    private int requestWeight(ClassRequest request)
+    {
+        Student student = registrationSystem.getStudent(request.studentId);
+        classes section = findCourseBySectionId(request.courseId);
+        if (student == null || section == null)
+        {
+            return 0;
+        }
+        return LotteryWeightCalculator.computeWeight(
+            toLotteryStudent(student, new ArrayList<>()), request, section);
+    }
+    
+    /**
+     * Find a loaded course section by its section ID
+     */
+    private classes findCourseBySectionId(String courseSectionId)
+    {
+        return coursesBySectionId.get(courseSectionId);
+    }
+    
+    /**
+     * Get the lottery's view of a registration Student (shares the student's record)
+     */
+    private students toLotteryStudent(Student s, List<String> requestedClasses)
+    {
+        return new students(s.getRecord(), requestedClasses, convertMajorStatus(s.getMajorStatus()));
+    }
+
     // Extract/update requested classes in CSV
     
     /**
      * Get requested classes from CSV for a specific student
+     * Answered from the copy kept when the CSV was loaded and updated as requests are saved,
+     * without rereading the file
      */
     private List<String> getRequestedClassesFromCsv(String studentId)
     {
-        List<String> requestedClasses = new ArrayList<>();
-        
-        try (BufferedReader br = new BufferedReader(new FileReader(studentCsvPath)))
+        return new ArrayList<>(requestedCodesByStudent.getOrDefault(studentId, Collections.emptyList()));
+    }
+    
+    /**
+     * Save a student's requested classes
+     * The change is appended to the request journal (O(1), fsynced in batches) instead of
+     * rewriting the CSV; the journal is folded into the CSV in the background once it is large,
+     * and again on exit
+     */
+    private void saveRequestedClasses(String studentId, List<String> requestedCourseCodes)
+    {
+        try
         {
-            String line = br.readLine(); // Skip header
-            
-            while ((line = br.readLine()) != null)
-            {
-                if (line.trim().isEmpty()) continue;
-                
-                int firstComma = line.indexOf(',');
-                if (firstComma == -1) continue;
-                
-                String csvStudentId = line.substring(0, firstComma).trim();
-                if (!csvStudentId.equals(studentId)) continue;
-                
-                int firstCloseBracket = line.indexOf(']');
-                int secondBracket = line.indexOf('[', firstCloseBracket + 1);
-                int secondCloseBracket = (secondBracket != -1) ? line.indexOf(']', secondBracket + 1) : -1;
-                
-                if (secondBracket != -1 && secondCloseBracket != -1)
-                {
-                    String requestedClassesStr = line.substring(secondBracket, secondCloseBracket + 1).trim();
-                    
-                    if (!requestedClassesStr.equals("") && !requestedClassesStr.equals("[]"))
-                    {
-                        String cleaned = requestedClassesStr.replace("[", "").replace("]", "");
-                        String[] courseCodes = cleaned.split(",");
-                        
-                        for (String courseCode : courseCodes)
-                        {
-                            courseCode = courseCode.trim();
-                            if (!courseCode.isEmpty())
-                            {
-                                requestedClasses.add(courseCode);
-                            }
-                        }
-                    }
-                }
-                break; // Found the student, no need to continue
-            }
+            requestJournal.append(studentId, requestedCourseCodes);
+            requestedCodesByStudent.put(studentId, new ArrayList<>(requestedCourseCodes));
         }
         catch (IOException e)
         {
-            // Silently fail
+            System.err.println("Error saving requested classes: " + e.getMessage());
+            return;
         }
         
-        return requestedClasses;
+        if (requestJournal.size() >= JOURNAL_COMPACT_BYTES)
+        {
+            startCompaction();
+        }
     }
     
     /**
-     * Update requested classes in CSV for a student
+     * Fold the journal into the CSV on the background thread, unless a compaction is already running
      */
-    private void updateRequestedClassesInCsv(String studentId, List<String> requestedCourseCodes)
+    private void startCompaction()
     {
-        try
+        if (compaction != null && !compaction.isDone())
         {
-            // Read all lines
-            List<String> lines = new ArrayList<>();
-            try (BufferedReader br = new BufferedReader(new FileReader(studentCsvPath)))
+            return;
+        }
+        compaction = compactor.submit(() ->
+        {
+            try
             {
-                String line;
-                while ((line = br.readLine()) != null)
-                {
-                    lines.add(line);
-                }
+                requestJournal.compact(this::exportRequestedClassesToCsv);
             }
-            
-            // Update the student's line
-            for (int i = 0; i < lines.size(); i++)
+            catch (IOException e)
             {
-                String line = lines.get(i);
-                if (i == 0) continue; // Skip header
-                
-                int firstComma = line.indexOf(',');
-                if (firstComma == -1) continue;
-                
-                String csvStudentId = line.substring(0, firstComma).trim();
-                if (!csvStudentId.equals(studentId)) continue;
-                
-                // Found the student - update the line
-                String updatedLine = updateStudentRequestedClasses(line, requestedCourseCodes);
-                lines.set(i, updatedLine);
-                break;
+                System.err.println("Error compacting request journal: " + e.getMessage());
             }
-            
-            // Write all lines back
-            try (FileWriter writer = new FileWriter(studentCsvPath))
+        });
+    }
+    
+    /**
+     * Wait for a background compaction to finish, if one is running
+     */
+    private void awaitCompaction()
+    {
+        if (compaction == null)
+        {
+            return;
+        }
+        try
+        {
+            compaction.get();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+        catch (java.util.concurrent.ExecutionException e)
+        {
+            System.err.println("Error compacting request journal: " + e.getCause().getMessage());
+        }
+    }
+    
+    /**
+     * Write requested classes for many students into the CSV in one pass
+     * The new file replaces the old one only once it is complete
+     * @param requestedCodesByStudent studentId -> requested course codes
+     */
+    private void exportRequestedClassesToCsv(Map<String, List<String>> requestedCodesByStudent) throws IOException
+    {
+        java.nio.file.Path csv = java.nio.file.Paths.get(studentCsvPath);
+        java.nio.file.Path temp = csv.resolveSibling(csv.getFileName() + ".tmp");
+        try (BufferedReader br = new BufferedReader(new FileReader(studentCsvPath));
+             FileWriter writer = new FileWriter(temp.toFile()))
+        {
+            String line = br.readLine();
+            if (line != null)
+            {
+                writer.write(line + "\n"); // header
+            }
+            while ((line = br.readLine()) != null)
             {
-                for (String line : lines)
+                int firstComma = line.indexOf(',');
+                if (firstComma != -1)
                 {
-                    writer.write(line + "\n");
+                    List<String> requested = requestedCodesByStudent.get(line.substring(0, firstComma).trim());
+                    if (requested != null)
+                    {
+                        line = updateStudentRequestedClasses(line, requested);
+                    }
                 }
+                writer.write(line + "\n");
             }
         }
-        catch (IOException e)
-        {
-            System.err.println("Error updating requested classes in CSV: " + e.getMessage());
-        }
+        java.nio.file.Files.move(temp, csv, java.nio.file.StandardCopyOption.REPLACE_EXISTING,
+                java.nio.file.StandardCopyOption.ATOMIC_MOVE);
+        studentCsvChanged = true;
     }
     
     /**
@@ -857,7 +921,7 @@ public class MainInterface
      {
         System.out.println("\n=== Lottery ===");
 
-        if (allRequests.isEmpty())
+        if (requestIndex.size() == 0)
             {
                 System.out.println("No course requests found. Please add requests first.");
                 System.out.println("Press Enter to continue...");
@@ -866,20 +930,9 @@ public class MainInterface
             }
             
             // Get unique courses that have requests
-            Map<String, String> courseCodeToSectionId = new LinkedHashMap<>(); // Preserves order
-            Set<String> seenCourseCodes = new HashSet<>();
+            List<String> courseCodesList = requestIndex.getCourseCodes();
             
-            for (ClassRequest req : allRequests)
-            {
-                String courseCode = removeLocationCode(extractCourseCode(req.courseId));
-                if (!seenCourseCodes.contains(courseCode))
-                {
-                    seenCourseCodes.add(courseCode);
-                    courseCodeToSectionId.put(courseCode, req.courseId);
-                }
-            }
-            
-            if (courseCodeToSectionId.isEmpty())
+            if (courseCodesList.isEmpty())
             {
                 System.out.println("No courses found with requests.");
                 System.out.println("Press Enter to continue...");
@@ -889,14 +942,10 @@ public class MainInterface
             
             // Display available courses
             System.out.println("\nAvailable Courses with Requests:");
-            List<String> courseCodesList = new ArrayList<>(courseCodeToSectionId.keySet());
             for (int i = 0; i < courseCodesList.size(); i++)
             {
                 String courseCode = courseCodesList.get(i);
-                // Count requests for this course
-                long requestCount = allRequests.stream()
-                    .filter(req -> removeLocationCode(extractCourseCode(req.courseId)).equals(courseCode))
-                    .count();
+                int requestCount = requestIndex.countRequests(courseCode);
                 System.out.println((i + 1) + ". " + courseCode + " (" + requestCount + " requests)");
             }
             System.out.println((courseCodesList.size() + 1) + ". All Courses");
@@ -914,15 +963,7 @@ public class MainInterface
                 selectedCourseCodes.addAll(courseCodesList);
                 for (String courseCode : courseCodesList)
                 {
-                    // Get all section IDs for this course code
-                    for (ClassRequest req : allRequests)
-                    {
-                        String code = removeLocationCode(extractCourseCode(req.courseId));
-                        if (code.equals(courseCode))
-                        {
-                            selectedCourseSectionIds.add(req.courseId);
-                        }
-                    }
+                    selectedCourseSectionIds.addAll(requestIndex.getSectionIds(courseCode));
                 }
             }
             else
@@ -941,15 +982,7 @@ public class MainInterface
                         {
                             String courseCode = courseCodesList.get(index);
                             selectedCourseCodes.add(courseCode);
-                            // Get all section IDs for this course code
-                            for (ClassRequest req : allRequests)
-                            {
-                                String code = removeLocationCode(extractCourseCode(req.courseId));
-                                if (code.equals(courseCode))
-                                {
-                                    selectedCourseSectionIds.add(req.courseId);
-                                }
-                            }
+                            selectedCourseSectionIds.addAll(requestIndex.getSectionIds(courseCode));
                         }
                         continue;
                     }
@@ -959,7 +992,7 @@ public class MainInterface
                     }
                     
                     // Try as course code
-                    String normalizedCode = normalizeCourseCodeInput(sel);
+                    String normalizedCode = CourseCode.normalizeInput(sel);
                     
                     // Check if this course code exists in the list
                     boolean found = false;
@@ -971,15 +1004,7 @@ public class MainInterface
                         {
                             selectedCourseCodes.add(courseCode);
                             found = true;
-                            // Get all section IDs for this course code
-                            for (ClassRequest req : allRequests)
-                            {
-                                String code = removeLocationCode(extractCourseCode(req.courseId));
-                                if (code.equals(courseCode))
-                                {
-                                    selectedCourseSectionIds.add(req.courseId);
-                                }
-                            }
+                            selectedCourseSectionIds.addAll(requestIndex.getSectionIds(courseCode));
                             break;
                         }
                     }
@@ -999,14 +1024,11 @@ public class MainInterface
                 return;
             }
             
-            // Filter requests to only include selected courses
+            // Collect the requests of the selected sections
             List<ClassRequest> filteredRequests = new ArrayList<>();
-            for (ClassRequest req : allRequests)
+            for (String sectionId : selectedCourseSectionIds)
             {
-                if (selectedCourseSectionIds.contains(req.courseId))
-                {
-                    filteredRequests.add(req);
-                }
+                filteredRequests.addAll(requestIndex.getRequestsForSection(sectionId));
             }
             
             // Filter courses to only include selected ones
@@ -1029,16 +1051,14 @@ public class MainInterface
         
         for (Student s : studentMap.values())
         {
-            students.MajorStatus majorStatus = convertMajorStatus(s.getMajorStatus());
-            List<String> pastClasses = new ArrayList<>(s.getPastClasses());
             List<String> requestedClasses = new ArrayList<>();
             
             // Get requested classes for this student (only from filtered requests)
-            for (ClassRequest req : filteredRequests)
+            for (ClassRequest req : requestIndex.getRequestsForStudent(s.getStudentId()))
             {
-                if (req.studentId.equals(s.getStudentId()))
+                if (selectedCourseSectionIds.contains(req.courseId))
                 {
-                    String courseCode = extractCourseCode(req.courseId);
+                    String courseCode = CourseCode.of(req.courseId).getCode();
                     if (!requestedClasses.contains(courseCode))
                     {
                         requestedClasses.add(courseCode);
@@ -1046,22 +1066,17 @@ public class MainInterface
                 }
             }
             
-            students lotteryStudent = new students(
-                s.getStudentId(),
-                s.getName(),
-                pastClasses,
-                requestedClasses,
-                s.getGradYear(),
-                majorStatus
-            );
-            studentList.add(lotteryStudent);
+            studentList.add(toLotteryStudent(s, requestedClasses));
         }
         
         // Run lottery with waitlist for selected courses only
-        LotteryEngine engine = new LotteryEngine();
+        LotteryEngine engine = new LotteryEngine(registrationSystem.getEligibilityMatrix());
         LotteryEngine.LotteryResult result = engine.runLotteryWithWaitlist(
             studentList, filteredCourses, filteredRequests);
         
+        // Seats changed, so live odds must be rebuilt
+        admissionEstimators.clear();
+        
         // Display results
         String courseCodeDisplay = String.join(", ", selectedCourseCodes);
         System.out.println("\n=== Lottery Results for " + courseCodeDisplay + " ===");
@@ -1100,7 +1115,7 @@ public class MainInterface
                 Student student = registrationSystem.getStudent(wr.studentId);
                 if (student != null)
                 {
-                    String courseCode = removeLocationCode(extractCourseCode(wr.courseId));
+                    String courseCode = CourseCode.of(wr.courseId).getBaseCode();
                     System.out.println("  - " + student.getName() + " (" + wr.studentId + ") - " + 
                                      courseCode + " - Weight: " + wr.studentWeight);
                 }
@@ -1141,6 +1156,7 @@ public class MainInterface
         System.out.println("Waitlisted: " + waitlisted.size());
         System.out.println("Rejected: " + rejected.size());
         System.out.println("Total Requests: " + filteredRequests.size());
+        System.out.println("Lottery Seed: " + result.masterSeed + " (keep this to replay a course later)");
         
         // Save results to file
         String resultsFile = saveLotteryResults(selectedCourseCodes, result, filteredRequests);
@@ -1154,29 +1170,119 @@ public class MainInterface
         {
             System.out.println("\n--- Options ---");
             System.out.println("1. Check Student Result");
-            System.out.println("2. Continue");
-            System.out.print("Enter your choice (1-2): ");
+            System.out.println("2. Replay Course Lottery");
+            System.out.println("3. Continue");
+            System.out.print("Enter your choice (1-3): ");
             
             String choice = scanner.nextLine().trim();
             
             switch (choice)
             {
                 case "1":
-                    checkStudentResult(result, filteredRequests, courseCodeDisplay);
+                    checkStudentResult(result, studentList, filteredCourses, filteredRequests, courseCodeDisplay);
                     break;
                 case "2":
+                    replayCourseLottery(result, studentList, filteredCourses, filteredRequests);
+                    break;
+                case "3":
                     return;
                 default:
-                    System.out.println("Invalid choice. Please enter 1 or 2.");
+                    System.out.println("Invalid choice. Please enter 1, 2, or 3.");
             }
         }
     }
 
+    /**
+     * Replay the lottery for one course section (e.g. for a student appeal)
+     * Only that section is recomputed, using the run's master seed or one entered by the user
+     */
+    private void replayCourseLottery(LotteryEngine.LotteryResult result, List<students> studentList,
+                                     List<classes> courses, List<ClassRequest> requests)
+    {
+        System.out.print("\nEnter course code or section ID to replay: ");
+        String input = scanner.nextLine().trim();
+        if (input.isEmpty())
+        {
+            System.out.println("Input cannot be empty.");
+            return;
+        }
+        
+        String normalizedCode = CourseCode.normalizeInput(input);
+        List<classes> sections = new ArrayList<>();
+        for (classes c : courses)
+        {
+            if (c.courseSectionId.equalsIgnoreCase(input) ||
+                CourseCode.of(c.courseSectionId).getBaseCode().equals(normalizedCode))
+            {
+                sections.add(c);
+            }
+        }
+        
+        if (sections.isEmpty())
+        {
+            System.out.println("Course not found in this lottery run: " + input);
+            return;
+        }
+        
+        System.out.print("Master seed (Enter for this run's seed " + result.masterSeed + "): ");
+        String seedInput = scanner.nextLine().trim();
+        long seed = result.masterSeed;
+        if (!seedInput.isEmpty())
+        {
+            try
+            {
+                seed = Long.parseLong(seedInput);
+            }
+            catch (NumberFormatException e)
+            {
+                System.out.println("Invalid seed.");
+                return;
+            }
+        }
+        
+        LotteryEngine engine = new LotteryEngine(registrationSystem.getEligibilityMatrix());
+        for (classes section : sections)
+        {
+            int enrollmentBeforeRun = result.getEnrollmentBeforeRun(section.courseSectionId);
+            if (enrollmentBeforeRun < 0)
+            {
+                enrollmentBeforeRun = section.currentEnrollment;
+            }
+            
+            long start = System.nanoTime();
+            List<students> winners = engine.replayCourse(studentList, section, enrollmentBeforeRun, requests, seed);
+            long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+            
+            System.out.println("\nReplay of " + section.courseSectionId + " (seed " + seed + ", " + elapsedMs + " ms):");
+            if (winners.isEmpty())
+            {
+                System.out.println("  (no students enrolled)");
+            }
+            for (int i = 0; i < winners.size(); i++)
+            {
+                students s = winners.get(i);
+                System.out.println("  " + (i + 1) + ". " + s.name + " (" + s.studentId + ")");
+            }
+            
+            if (seed == result.masterSeed)
+            {
+                List<students> original = result.enrolledByCourse.getOrDefault(section.courseSectionId, new ArrayList<>());
+                boolean matches = original.size() == winners.size();
+                for (int i = 0; matches && i < winners.size(); i++)
+                {
+                    matches = original.get(i).studentId.equals(winners.get(i).studentId);
+                }
+                System.out.println(matches ? "Replay matches the original draw." 
+                                           : "WARNING: Replay differs from the original draw.");
+            }
+        }
+    }
+    
     /**
      * Check result for a specific student
      */
-    private void checkStudentResult(LotteryEngine.LotteryResult result, 
-                                   List<ClassRequest> requests, String courseCodeDisplay)
+    private void checkStudentResult(LotteryEngine.LotteryResult result, List<students> studentList,
+                                   List<classes> courses, List<ClassRequest> requests, String courseCodeDisplay)
     {
         System.out.print("\nEnter student name or ID: ");
         String input = scanner.nextLine().trim();
@@ -1237,11 +1343,11 @@ public class MainInterface
         System.out.println("\n--- Lottery Results ---");
         for (WaitlistResult wr : studentResults)
         {
-            String courseCode = removeLocationCode(extractCourseCode(wr.courseId));
+            String courseCode = CourseCode.of(wr.courseId).getBaseCode();
             System.out.println("\nCourse: " + courseCode + " (" + wr.courseId + ")");
             System.out.println("Status: " + wr.status);
             
-            if (wr.status == WaitlistResult.Status.ENROLLED)
+            if (result.isEnrolled(wr.studentId, wr.courseId))
             {
                 System.out.println("Weight: " + wr.studentWeight);
                 System.out.println("Result: Successfully enrolled!");
@@ -1249,7 +1355,15 @@ public class MainInterface
             else if (wr.status == WaitlistResult.Status.WAITLISTED)
             {
                 System.out.println("Weight: " + wr.studentWeight);
-                System.out.println("Reason: " + wr.reason);
+                LotterySimulator.SimulationResult simulation = getAdmissionSimulation(result, studentList, courses, requests);
+                double chance = simulation.getProbability(wr.studentId, wr.courseId);
+                if (chance >= 0)
+                {
+                    double[] interval = simulation.getConfidenceInterval(wr.studentId, wr.courseId);
+                    System.out.println(String.format("Chance of admission: %.0f%% (95%% CI %.1f%%-%.1f%%, %d simulated lotteries)",
+                        chance * 100, interval[0] * 100, interval[1] * 100, simulation.replicas));
+                }
+                System.out.println("Reason: " + wr.getReason());
                 if (wr.enrolledDemographics != null)
                 {
                     System.out.println("\nEnrolled Class Demographics:");
@@ -1258,7 +1372,7 @@ public class MainInterface
             }
             else if (wr.status == WaitlistResult.Status.REJECTED)
             {
-                System.out.println("Reason: " + wr.reason);
+                System.out.println("Reason: " + wr.getReason());
             }
         }
         
@@ -1266,6 +1380,37 @@ public class MainInterface
         scanner.nextLine();
     }
     
+    /**
+     * Get the admission simulation for a lottery run, running it on first use
+     * Courses are simulated with their enrollment from before the run
+     */
+    private LotterySimulator.SimulationResult getAdmissionSimulation(LotteryEngine.LotteryResult result,
+                                                                     List<students> studentList,
+                                                                     List<classes> courses,
+                                                                     List<ClassRequest> requests)
+    {
+        if (simulatedRun != result)
+        {
+            List<classes> coursesBeforeRun = new ArrayList<>();
+            for (classes c : courses)
+            {
+                int enrollmentBeforeRun = result.getEnrollmentBeforeRun(c.courseSectionId);
+                if (enrollmentBeforeRun < 0)
+                {
+                    enrollmentBeforeRun = c.currentEnrollment;
+                }
+                coursesBeforeRun.add(new classes(c.courseSectionId, c.courseSectionNumber,
+                                                 c.capacity, enrollmentBeforeRun, c.creditHours));
+            }
+            
+            System.out.println("\nSimulating " + SIMULATION_REPLICAS + " lotteries to estimate admission chances...");
+            admissionSimulation = new LotterySimulator(registrationSystem.getEligibilityMatrix()).simulate(
+                studentList, coursesBeforeRun, requests, SIMULATION_REPLICAS, result.masterSeed);
+            simulatedRun = result;
+        }
+        return admissionSimulation;
+    }
+    
     /**
      * Save lottery results to a CSV file
      */
@@ -1291,10 +1436,10 @@ public class MainInterface
                 {
                     Student student = registrationSystem.getStudent(req.studentId);
                     String studentName = (student != null) ? student.getName() : "Unknown";
-                    String courseCode = removeLocationCode(extractCourseCode(req.courseId));
+                    String courseCode = CourseCode.of(req.courseId).getBaseCode();
                     
                     // Escape commas in reason field
-                    String reason = waitlistResult.reason.replace(",", ";").replace("\n", " ");
+                    String reason = waitlistResult.getReason().replace(",", ";").replace("\n", " ");
                     
                     writer.append(String.format("%s,%s,%s,%s,%s,%d,%s\n",
                         req.studentId,
@@ -1338,7 +1483,7 @@ public class MainInterface
             Set<String> courseCodes = new TreeSet<>();
             for (classes c : allCourses)
             {
-                String courseCode = removeLocationCode(extractCourseCode(c.courseSectionId));
+                String courseCode = CourseCode.of(c.courseSectionId).getBaseCode();
                 courseCodes.add(courseCode);
             }
             
@@ -1361,7 +1506,8 @@ public class MainInterface
                 courseCodes.add(courseCode);
             }
             
-            // Display courses with prerequisites
+            // Display courses with prerequisites, with how many students are eligible for each
+            EligibilityMatrix eligibility = registrationSystem.getEligibilityMatrix();
             System.out.println("Courses with prerequisites:");
             boolean hasAnyPrereqs = false;
             for (String courseCode : courseCodes)
@@ -1372,7 +1518,9 @@ public class MainInterface
                     hasAnyPrereqs = true;
                     List<String> prereqList = new ArrayList<>(prereqs);
                     Collections.sort(prereqList);
-                    System.out.println("  " + courseCode + " -> " + String.join(", ", prereqList));
+                    System.out.println("  " + courseCode + " -> " + String.join(", ", prereqList)
+                        + "  (eligible: " + eligibility.countEligible(courseCode)
+                        + " of " + eligibility.getStudentCount() + " students)");
                 }
             }
             
@@ -1413,7 +1561,10 @@ public class MainInterface
         }
     }
     /**
-     * Close Scanner
+     * Close Scanner, and fold the request journal into the CSV
+     * The GUI and RegistrationInterface read student.csv directly, so it must hold every saved change on exit.
+     * Rewriting the CSV makes the snapshot stale, so it is written again from the loaded state
+     * (which now matches the CSV) and the next start still skips the text files
      */
     public void close()
     {
@@ -1421,5 +1572,36 @@ public class MainInterface
         {
             scanner.close();
         }
+        awaitCompaction();
+        if (compactor != null)
+        {
+            compactor.shutdown();
+        }
+        if (requestJournal != null)
+        {
+            try
+            {
+                if (requestJournal.size() > 0)
+                {
+                    requestJournal.compact(this::exportRequestedClassesToCsv);
+                }
+            }
+            catch (IOException e)
+            {
+                System.err.println("Error compacting request journal: " + e.getMessage());
+            }
+            try
+            {
+                requestJournal.close();
+            }
+            catch (IOException e)
+            {
+                System.err.println("Error closing request journal: " + e.getMessage());
+            }
+        }
+        if (studentCsvChanged && new java.io.File(courseJsonPath).exists())
+        {
+            writeSnapshot();
+        }
     }
 }
@@ -16,7 +16,16 @@ public class RegistrationInterface
     
     public RegistrationInterface(String studentCsvPath)
     {
-        this.registrationSystem = new RegistrationSystem();
+        this(studentCsvPath, new RegistrationSystem());
+    }
+    
+    /**
+     * Share a registration system that already holds the students from the CSV,
+     * so new IDs come from its high-water mark instead of rereading the file
+     */
+    public RegistrationInterface(String studentCsvPath, RegistrationSystem registrationSystem)
+    {
+        this.registrationSystem = registrationSystem;
         this.scanner = new Scanner(System.in);
         this.studentCsvPath = studentCsvPath;
     }
@@ -76,128 +85,30 @@ public class RegistrationInterface
     }
     
     
-    /**
-     * Normalize course code input from user
-     * Students enter just the number/identifier (e.g., "101", "181DV")
-     * This method adds "CS" prefix automatically
-     * Also converts CSCI to CS (e.g., "CSCI51" -> "CS51")
-     */
-    private String normalizeCourseCodeInput(String courseCode)
-    {
-        if (courseCode == null) return "";
-        courseCode = courseCode.toUpperCase().replaceAll("\\s+", "");
-        
-        // Convert CSCI prefix to CS first (before handling CS)
-        // This ensures CSCI51 and CS51 both become CS51
-        if (courseCode.startsWith("CSCI"))
-        {
-            courseCode = courseCode.substring(4); // Remove "CSCI"
-            // Remove leading zeros
-            if (courseCode.matches("^0+\\d+.*"))
-            {
-                courseCode = courseCode.replaceFirst("^0+", "");
-            }
-        }
-        // If already starts with CS, remove it (we'll add it back)
-        else if (courseCode.startsWith("CS"))
-        {
-            courseCode = courseCode.substring(2); // Remove "CS"
-        }
-        
-        // Remove leading zeros from numbers (e.g., "051" -> "51", "004" -> "4")
-        if (courseCode.matches("^0+\\d+.*"))
-        {
-            courseCode = courseCode.replaceFirst("^0+", "");
-        }
-        
-        // Add CS prefix - ensures consistent format
-        return "CS" + courseCode;
-    }
-    
-    /**
-     * Validate that a course code is valid (after normalization)
-     * Since normalization always adds "CS" prefix, we just need to check:
-     * - Not empty
-     * - Has content after "CS" (e.g., "CS51", "CS181DV" are valid; "CS" alone is invalid)
-     */
-    private boolean isValidCourseCode(String courseCode)
-    {
-        if (courseCode == null || courseCode.isEmpty())
-        {
-            return false;
-        }
-        
-        // After normalization, it should always start with "CS" and have something after it
-        // Must have something after "CS" (not just "CS")
-        if (courseCode.length() <= 2)
-        {
-            return false;
-        }
-        
-        // After "CS", must have at least one character (digit or letter)
-        String afterCS = courseCode.substring(2);
-        if (afterCS.isEmpty() || afterCS.trim().isEmpty())
-        {
-            return false;
-        }
-        
-        return true;
-    }
-    
     /**
      * Get the next available student ID from CSV
+     * Uses the registration system's highest student number once students are loaded;
+     * otherwise scans the CSV for it (the scan materializes nothing but the IDs)
      */
     private String getNextAvailableStudentId()
     {
-        try
+        int maxId = registrationSystem.getHighestStudentNumber();
+        File file = new File(studentCsvPath);
+        if (maxId < 0 && file.exists())
         {
-            File file = new File(studentCsvPath);
-            if (!file.exists())
+            try
             {
-                return "S0000";
+                maxId = StudentCsvLoader.load(studentCsvPath, null);
             }
-            
-            int maxId = -1;
-            try (BufferedReader br = new BufferedReader(new FileReader(file)))
+            catch (IOException e)
             {
-                String line = br.readLine(); // Skip header
-                
-                while ((line = br.readLine()) != null)
-                {
-                    if (line.trim().isEmpty()) continue;
-                    
-                    int firstComma = line.indexOf(',');
-                    if (firstComma == -1) continue;
-                    
-                    String studentId = line.substring(0, firstComma).trim();
-                    
-                    // Extract number from ID (e.g., "S1499" -> 1499)
-                    if (studentId.startsWith("S") && studentId.length() > 1)
-                    {
-                        try
-                        {
-                            int idNum = Integer.parseInt(studentId.substring(1));
-                            if (idNum > maxId)
-                            {
-                                maxId = idNum;
-                            }
-                        }
-                        catch (NumberFormatException e)
-                        {
-                            // Skip invalid IDs
-                        }
-                    }
-                }
+                System.err.println("Error reading student CSV: " + e.getMessage());
+                return "S0000";
             }
-            
-            // Return next ID
-            return "S" + String.format("%04d", maxId + 1);
-        }
-        catch (IOException e)
-        {
-            System.err.println("Error reading student CSV: " + e.getMessage());
-            return "S0000";
         }
+        
+        // Return next ID
+        return "S" + String.format("%04d", maxId + 1);
     }
     
     /**
@@ -300,10 +211,10 @@ public class RegistrationInterface
             
             // Normalize: converts CSCI to CS, adds CS prefix, handles leading zeros
             // This ensures CS51 and CSCI51 both become CS51 and are detected as duplicates
-            String normalizedCourse = normalizeCourseCodeInput(course);
+            String normalizedCourse = CourseCode.normalizeInput(course);
             
             // Validate: must have valid format after normalization
-            if (!isValidCourseCode(normalizedCourse))
+            if (!CourseCode.isValidInput(normalizedCourse))
             {
                 System.out.println("Invalid course code. Please enter a valid course number/identifier (e.g., 101, 51, 181DV, 140).");
                 continue;
@@ -344,10 +255,10 @@ public class RegistrationInterface
             
             // Normalize: converts CSCI to CS, adds CS prefix, handles leading zeros
             // This ensures CS51 and CSCI51 both become CS51 and are detected as duplicates
-            String normalizedCourse = normalizeCourseCodeInput(course);
+            String normalizedCourse = CourseCode.normalizeInput(course);
             
             // Validate: must have valid format after normalization
-            if (!isValidCourseCode(normalizedCourse))
+            if (!CourseCode.isValidInput(normalizedCourse))
             {
                 System.out.println("Invalid course code. Please enter a valid course number/identifier (e.g., 101, 51, 181DV, 140).");
                 continue;
@@ -0,0 +1,284 @@
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Binary snapshot of the loaded registration state (sections, students, requested classes
+ * and requests), so a restart can skip reparsing student.csv and the course JSON.
+ *
+ * Layout (big-endian, version 2):
+ *   header       magic, version, then size and last-modified time of each source file
+ *   strings      count, then length-prefixed UTF-8; every ID, name and code is an index into this
+ *   transcripts  course code count and indexes; each student's past classes are a bitset over them
+ *   sections     id, number, capacity, currentEnrollment, creditHours
+ *   students     id, name, gradYear, major status, transcript words, requested class codes
+ *   requests     student, section, preference rank, in request order
+ *   checksum     CRC-32 of every byte before it
+ *
+ * The file is memory-mapped to read it. A snapshot is only used while every source file still
+ * has the size and modification time recorded in its header; otherwise (or if it is missing,
+ * from another version, or fails its checksum) read returns null and the caller loads the text sources.
+ */
+public class RegistrationSnapshot {
+
+    private static final int MAGIC = 0x52534E50; // "RSNP"
+    public static final int VERSION = 2;
+
+    public final List<classes> courses;
+    public final List<Student> students;
+    public final Map<String, List<String>> requestedCodesByStudent;
+    public final List<ClassRequest> requests;
+
+    private RegistrationSnapshot(List<classes> courses, List<Student> students,
+                                 Map<String, List<String>> requestedCodesByStudent, List<ClassRequest> requests) {
+        this.courses = courses;
+        this.students = students;
+        this.requestedCodesByStudent = requestedCodesByStudent;
+        this.requests = requests;
+    }
+
+    /**
+     * Write a snapshot, replacing any previous one only once the new file is complete
+     * @param snapshotPath Where to write the snapshot
+     * @param sourcePaths The text files the state was loaded from, checked again by read
+     * @param courses All sections, in load order
+     * @param students All students
+     * @param requestedCodesByStudent requested_classes per student, in preference order
+     * @param requests All requests, in order
+     */
+    public static void write(String snapshotPath, String[] sourcePaths, List<classes> courses,
+                             Collection<Student> students, Map<String, List<String>> requestedCodesByStudent,
+                             List<ClassRequest> requests) throws IOException {
+        StringTable strings = new StringTable();
+        StringTable codes = new StringTable();
+        for (Student s : students) {
+            for (String code : s.getPastClasses()) {
+                codes.indexOf(code);
+            }
+        }
+        int words = (codes.size() + 63) >>> 6;
+
+        Path target = Paths.get(snapshotPath);
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        CRC32 crc = new CRC32();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new CheckedOutputStream(new FileOutputStream(temp.toFile()), crc), 1 << 16))) {
+            // Sections, students and requests refer to strings by index, so they are written
+            // to a buffer first and the string table goes in front of them
+            java.io.ByteArrayOutputStream bodyBytes = new java.io.ByteArrayOutputStream();
+            DataOutputStream body = new DataOutputStream(bodyBytes);
+
+            body.writeInt(codes.size());
+            for (String code : codes.values) {
+                body.writeInt(strings.indexOf(code));
+            }
+
+            body.writeInt(courses.size());
+            for (classes c : courses) {
+                body.writeInt(strings.indexOf(c.courseSectionId));
+                body.writeInt(strings.indexOf(c.courseSectionNumber));
+                body.writeInt(c.capacity);
+                body.writeInt(c.currentEnrollment);
+                body.writeDouble(c.creditHours);
+            }
+
+            body.writeInt(students.size());
+            body.writeInt(words);
+            long[] transcript = new long[words];
+            for (Student s : students) {
+                body.writeInt(strings.indexOf(s.getStudentId()));
+                body.writeInt(strings.indexOf(s.getName()));
+                body.writeShort(s.getGradYear());
+                body.writeInt(strings.indexOf(s.getMajorStatus()));
+                java.util.Arrays.fill(transcript, 0L);
+                for (String code : s.getPastClasses()) {
+                    int id = codes.indexOf(code);
+                    transcript[id >>> 6] |= 1L << id;
+                }
+                for (long word : transcript) {
+                    body.writeLong(word);
+                }
+                List<String> requested = requestedCodesByStudent.getOrDefault(s.getStudentId(), List.of());
+                body.writeShort(requested.size());
+                for (String code : requested) {
+                    body.writeInt(strings.indexOf(code));
+                }
+            }
+
+            body.writeInt(requests.size());
+            for (ClassRequest r : requests) {
+                body.writeInt(strings.indexOf(r.studentId));
+                body.writeInt(strings.indexOf(r.courseId));
+                body.writeByte(r.preferenceRank);
+            }
+            body.flush();
+
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(sourcePaths.length);
+            for (String source : sourcePaths) {
+                File file = new File(source);
+                out.writeLong(file.length());
+                out.writeLong(file.lastModified());
+            }
+            out.writeInt(strings.size());
+            for (String value : strings.values) {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+            bodyBytes.writeTo(out);
+            out.flush();
+            out.writeInt((int) crc.getValue());
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Read a snapshot if it is still current
+     * @param snapshotPath The snapshot file
+     * @param sourcePaths The text files it must match, in the order given to write
+     * @return The snapshot, or null if it is missing, stale, from another version or damaged
+     */
+    public static RegistrationSnapshot read(String snapshotPath, String[] sourcePaths) {
+        Path path = Paths.get(snapshotPath);
+        if (!Files.exists(path)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            int end = in.limit() - 4;
+            if (end < 0) {
+                return null;
+            }
+            CRC32 crc = new CRC32();
+            crc.update(in.duplicate().limit(end));
+            if ((int) crc.getValue() != in.getInt(end)) {
+                System.err.println("Ignoring damaged snapshot " + snapshotPath + ": checksum mismatch");
+                return null;
+            }
+            in.limit(end);
+
+            if (in.getInt() != MAGIC || in.getInt() != VERSION || in.getInt() != sourcePaths.length) {
+                return null;
+            }
+            for (String source : sourcePaths) {
+                File file = new File(source);
+                if (in.getLong() != file.length() || in.getLong() != file.lastModified()) {
+                    return null; // the text source changed since the snapshot was written
+                }
+            }
+
+            String[] strings = new String[in.getInt()];
+            byte[] scratch = new byte[256];
+            for (int i = 0; i < strings.length; i++) {
+                int length = in.getInt();
+                if (length > scratch.length) {
+                    scratch = new byte[Math.max(length, scratch.length * 2)];
+                }
+                in.get(scratch, 0, length);
+                strings[i] = new String(scratch, 0, length, StandardCharsets.UTF_8);
+            }
+
+            String[] codes = new String[in.getInt()];
+            for (int i = 0; i < codes.length; i++) {
+                codes[i] = strings[in.getInt()];
+            }
+
+            int courseCount = in.getInt();
+            List<classes> courses = new ArrayList<>(courseCount);
+            for (int i = 0; i < courseCount; i++) {
+                String id = strings[in.getInt()];
+                String number = strings[in.getInt()];
+                int capacity = in.getInt();
+                int currentEnrollment = in.getInt();
+                double creditHours = in.getDouble();
+                courses.add(new classes(id, number, capacity, currentEnrollment, creditHours));
+            }
+
+            int studentCount = in.getInt();
+            int words = in.getInt();
+            List<Student> students = new ArrayList<>(studentCount);
+            Map<String, List<String>> requestedCodesByStudent = new HashMap<>();
+            for (int i = 0; i < studentCount; i++) {
+                String id = strings[in.getInt()];
+                String name = strings[in.getInt()];
+                int gradYear = in.getShort();
+                String majorStatus = strings[in.getInt()];
+                List<String> pastClasses = new ArrayList<>();
+                for (int w = 0; w < words; w++) {
+                    long word = in.getLong();
+                    while (word != 0) {
+                        pastClasses.add(codes[(w << 6) + Long.numberOfTrailingZeros(word)]);
+                        word &= word - 1;
+                    }
+                }
+                Student student = new Student(new StudentRecord(id, name, gradYear, majorStatus, pastClasses));
+                int requestedCount = in.getShort() & 0xFFFF;
+                if (requestedCount > 0) {
+                    List<String> requested = new ArrayList<>(requestedCount);
+                    for (int r = 0; r < requestedCount; r++) {
+                        requested.add(strings[in.getInt()]);
+                    }
+                    requestedCodesByStudent.put(id, requested);
+                }
+                students.add(student);
+            }
+
+            int requestCount = in.getInt();
+            List<ClassRequest> requests = new ArrayList<>(requestCount);
+            for (int i = 0; i < requestCount; i++) {
+                String studentId = strings[in.getInt()];
+                String courseId = strings[in.getInt()];
+                requests.add(new ClassRequest(studentId, courseId, in.get()));
+            }
+            if (in.hasRemaining()) {
+                return null;
+            }
+            return new RegistrationSnapshot(courses, students, requestedCodesByStudent, requests);
+        } catch (IOException | BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            System.err.println("Ignoring unreadable snapshot " + snapshotPath + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Strings in first-seen order, each with a dense index.
+     */
+    private static final class StringTable {
+        final List<String> values = new ArrayList<>();
+        private final Map<String, Integer> indexByValue = new HashMap<>();
+
+        int indexOf(String value) {
+            Integer index = indexByValue.get(value);
+            if (index == null) {
+                index = values.size();
+                values.add(value);
+                indexByValue.put(value, index);
+            }
+            return index;
+        }
+
+        int size() {
+            return values.size();
+        }
+    }
+}
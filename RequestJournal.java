@@ -0,0 +1,276 @@
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of requested-class changes, so saving one student's requests does not
+ * rewrite student.csv. The CSV stays the import/export format: compact() hands the latest
+ * entry of every student to an exporter that writes them into the CSV, then drops them from
+ * the log.
+ *
+ * Each record is [payload length][CRC32][student ID, course codes]. An in-memory index maps
+ * each student to the offset of their latest record. Appends are one positional write; a
+ * daemon thread forces the file to disk at most every FLUSH_INTERVAL_MS, so a burst of
+ * changes shares one fsync. When the log is opened, a record cut short by a crash (bad length
+ * or checksum) ends the log and is truncated away.
+ */
+public class RequestJournal implements AutoCloseable {
+
+    private static final long FLUSH_INTERVAL_MS = 50;
+    private static final int HEADER_BYTES = 8;
+
+    /**
+     * Receives the latest requested classes per student during compaction.
+     */
+    public interface Exporter {
+        void export(Map<String, List<String>> requestedCodesByStudent) throws IOException;
+    }
+
+    private final Path path;
+    private FileChannel channel;
+    private long size;
+    private final Map<String, Long> offsetByStudent = new LinkedHashMap<>();
+    private boolean dirty; // written but not yet forced to disk
+    private boolean closed;
+    private final Thread flusher;
+
+    private RequestJournal(Path path) throws IOException {
+        this.path = path;
+        openAndReplay();
+        flusher = new Thread(this::flushLoop, "request-journal-flush");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * Open the journal, creating it if needed and replaying it to rebuild the index
+     * @param filepath Path to the journal file
+     */
+    public static RequestJournal open(String filepath) throws IOException {
+        return new RequestJournal(Paths.get(filepath));
+    }
+
+    /**
+     * Record a student's full list of requested classes, replacing any earlier entry
+     * Time Complexity: O(size of the entry); the write reaches disk with the next batched fsync
+     * @param studentId The student ID
+     * @param requestedCodes Requested course codes in preference order
+     */
+    public synchronized void append(String studentId, List<String> requestedCodes) throws IOException {
+        if (closed) {
+            throw new IOException("request journal is closed");
+        }
+        ByteBuffer record = encode(studentId, requestedCodes);
+        long offset = size;
+        while (record.hasRemaining()) {
+            size += channel.write(record, size);
+        }
+        offsetByStudent.put(studentId, offset);
+        dirty = true;
+    }
+
+    /**
+     * Get the latest entry for every student in the journal, in first-change order
+     * Reads one record per student through the offset index
+     */
+    public synchronized Map<String, List<String>> latest() throws IOException {
+        Map<String, List<String>> latest = new LinkedHashMap<>();
+        for (Map.Entry<String, Long> entry : offsetByStudent.entrySet()) {
+            latest.put(entry.getKey(), readCodes(entry.getValue()));
+        }
+        return latest;
+    }
+
+    /**
+     * @return Number of bytes in the journal
+     */
+    public synchronized long size() {
+        return size;
+    }
+
+    /**
+     * Force everything appended so far to disk now instead of waiting for the flusher
+     */
+    public synchronized void sync() throws IOException {
+        if (dirty && !closed) {
+            channel.force(false);
+            dirty = false;
+        }
+    }
+
+    /**
+     * Export the latest entries and start a fresh journal with only the records appended
+     * while the export ran. Appends may continue during the export; if it fails, the journal
+     * is left as it was.
+     * @param exporter Writes the entries into the CSV (or wherever the durable copy lives)
+     */
+    public void compact(Exporter exporter) throws IOException {
+        Map<String, List<String>> exported;
+        long cut;
+        synchronized (this) {
+            sync();
+            exported = latest();
+            cut = size;
+        }
+
+        exporter.export(exported);
+
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+            try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                                   StandardOpenOption.TRUNCATE_EXISTING)) {
+                long position = cut;
+                while (position < size) {
+                    position += channel.transferTo(position, size - position, out);
+                }
+                out.force(false);
+            }
+            channel.close();
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            openAndReplay();
+        }
+    }
+
+    /**
+     * Force pending writes to disk and stop the flusher
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            sync();
+            closed = true;
+            channel.close();
+        }
+        flusher.interrupt();
+    }
+
+    private void flushLoop() {
+        while (true) {
+            try {
+                Thread.sleep(FLUSH_INTERVAL_MS);
+                synchronized (this) {
+                    if (closed) {
+                        return;
+                    }
+                    sync();
+                }
+            } catch (InterruptedException e) {
+                return;
+            } catch (IOException e) {
+                System.err.println("Error flushing request journal: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Open the file and rebuild the index, truncating a torn record at the end
+     */
+    private void openAndReplay() throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        offsetByStudent.clear();
+        long fileSize = channel.size();
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        long offset = 0;
+        while (offset + HEADER_BYTES <= fileSize) {
+            header.clear();
+            readFully(header, offset);
+            int length = header.getInt(0);
+            if (length < 0 || offset + HEADER_BYTES + length > fileSize) {
+                break;
+            }
+            ByteBuffer payload = ByteBuffer.allocate(length);
+            readFully(payload, offset + HEADER_BYTES);
+            CRC32 crc = new CRC32();
+            crc.update(payload.array());
+            if ((int) crc.getValue() != header.getInt(4)) {
+                break;
+            }
+            offsetByStudent.put(decodeStudentId(payload), offset);
+            offset += HEADER_BYTES + length;
+        }
+        if (offset < fileSize) {
+            System.err.println("Request journal: dropping " + (fileSize - offset) + " damaged bytes at offset " + offset);
+            channel.truncate(offset);
+            channel.force(false);
+        }
+        size = offset;
+        dirty = false;
+    }
+
+    private List<String> readCodes(long offset) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        readFully(header, offset);
+        ByteBuffer payload = ByteBuffer.allocate(header.getInt(0));
+        readFully(payload, offset + HEADER_BYTES);
+        decodeStudentId(payload);
+        int count = payload.getShort() & 0xFFFF;
+        List<String> codes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            codes.add(decodeString(payload));
+        }
+        return codes;
+    }
+
+    private void readFully(ByteBuffer target, long offset) throws IOException {
+        while (target.hasRemaining()) {
+            if (channel.read(target, offset + target.position()) < 0) {
+                throw new IOException("unexpected end of request journal");
+            }
+        }
+        target.flip();
+    }
+
+    private static ByteBuffer encode(String studentId, List<String> requestedCodes) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(0); // length, filled in below
+        out.writeInt(0); // CRC32 of the payload
+        out.writeUTF(studentId);
+        out.writeShort(requestedCodes.size());
+        for (String code : requestedCodes) {
+            out.writeUTF(code);
+        }
+        ByteBuffer record = ByteBuffer.wrap(bytes.toByteArray());
+        int length = record.capacity() - HEADER_BYTES;
+        CRC32 crc = new CRC32();
+        crc.update(record.array(), HEADER_BYTES, length);
+        record.putInt(0, length);
+        record.putInt(4, (int) crc.getValue());
+        return record;
+    }
+
+    /**
+     * Decode the student ID at the start of a payload, leaving the buffer just past it
+     */
+    private static String decodeStudentId(ByteBuffer payload) {
+        payload.position(0);
+        return decodeString(payload);
+    }
+
+    private static String decodeString(ByteBuffer payload) {
+        int length = payload.getShort() & 0xFFFF;
+        byte[] utf = new byte[length];
+        payload.get(utf);
+        // writeUTF's modified UTF-8 matches standard UTF-8 for everything but NUL and supplementary characters
+        return new String(utf, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,142 @@
+/**
+ * Live estimate of admission odds for one course section, kept up to date as
+ * requests are added and removed, without running any simulation.
+ *
+ * Eligible requests are kept as a histogram of weights (lottery weights fall in a
+ * small integer range), so adding or removing a request is O(1). Probabilities use
+ * the standard approximation for weighted sampling without replacement: find t with
+ * sum over requests of (1 - e^(-w t)) = seats, then a request of weight w gets in with
+ * probability 1 - e^(-w t). Solving for t only walks the distinct weights, so a query
+ * takes microseconds; t is cached until the next change.
+ */
+public class AdmissionEstimator {
+
+    private static final int MAX_NEWTON_STEPS = 50;
+
+    private final int seats;
+    private int[] countByWeight = new int[32];
+    private int maxWeight;
+    private int requestCount;
+    private long totalWeight;
+
+    private boolean solved;
+    private double rate; // the t above, valid while solved is true
+
+    /**
+     * @param seats seats the lottery will fill (capacity - currentEnrollment)
+     */
+    public AdmissionEstimator(int seats) {
+        this.seats = Math.max(seats, 0);
+    }
+
+    /**
+     * Adds an eligible request. Requests with weight <= 0 are not in the lottery and are ignored.
+     */
+    public void add(int weight) {
+        if (weight <= 0) return;
+        if (weight >= countByWeight.length) {
+            countByWeight = java.util.Arrays.copyOf(countByWeight, Math.max(weight + 1, countByWeight.length * 2));
+        }
+        countByWeight[weight]++;
+        maxWeight = Math.max(maxWeight, weight);
+        requestCount++;
+        totalWeight += weight;
+        solved = false;
+    }
+
+    /**
+     * Removes a request previously added with the same weight.
+     */
+    public void remove(int weight) {
+        if (weight <= 0 || weight >= countByWeight.length || countByWeight[weight] == 0) return;
+        countByWeight[weight]--;
+        requestCount--;
+        totalWeight -= weight;
+        solved = false;
+    }
+
+    /**
+     * @return number of eligible requests currently counted
+     */
+    public int getRequestCount() {
+        return requestCount;
+    }
+
+    /**
+     * @return seats the lottery will fill
+     */
+    public int getSeats() {
+        return seats;
+    }
+
+    /**
+     * @return average weight of the eligible requests, or 0 if there are none
+     */
+    public double getAverageWeight() {
+        return (requestCount == 0) ? 0.0 : totalWeight / (double) requestCount;
+    }
+
+    /**
+     * Approximate probability that a request of this weight, already counted, is admitted.
+     *
+     * @param weight the request's lottery weight
+     * @return probability in [0, 1]
+     */
+    public double probabilityFor(int weight) {
+        if (weight <= 0 || seats == 0) return 0.0;
+        if (requestCount <= seats) return 1.0;
+        if (!solved) {
+            rate = solveRate(0);
+            solved = true;
+        }
+        return 1.0 - Math.exp(-weight * rate);
+    }
+
+    /**
+     * Approximate probability for a request that is not counted yet, as if it were added.
+     * The extra request is only counted while solving, so the estimator and its cached t
+     * are left unchanged.
+     *
+     * @param weight the would-be request's lottery weight
+     * @return probability in [0, 1]
+     */
+    public double probabilityIfAdded(int weight) {
+        if (weight <= 0 || seats == 0) return 0.0;
+        if (requestCount + 1 <= seats) return 1.0;
+        return 1.0 - Math.exp(-weight * solveRate(weight));
+    }
+
+    /**
+     * Finds t with f(t) = sum(count_w * (1 - e^(-w t))) - seats = 0 by Newton's method.
+     * f is increasing and concave, so steps started from t = 0 climb toward the root
+     * without overshooting it.
+     *
+     * @param extraWeight weight of one more request to count, or 0 for none
+     */
+    private double solveRate(int extraWeight) {
+        double t = 0.0;
+        for (int step = 0; step < MAX_NEWTON_STEPS; step++) {
+            double value = -seats;
+            double slope = 0.0;
+            if (extraWeight > 0) {
+                double stay = Math.exp(-extraWeight * t);
+                value += 1.0 - stay;
+                slope += extraWeight * stay;
+            }
+            for (int w = 1; w <= maxWeight; w++) {
+                int count = countByWeight[w];
+                if (count != 0) {
+                    double stay = Math.exp(-w * t);
+                    value += count * (1.0 - stay);
+                    slope += count * w * stay;
+                }
+            }
+            double next = t - value / slope;
+            if (next - t <= 1e-12 * next) {
+                return next;
+            }
+            t = next;
+        }
+        return t;
+    }
+}
@@ -0,0 +1,162 @@
+import java.util.random.RandomGenerator;
+
+/**
+ * Weighted sampler for a small set of distinct weights.
+ *
+ * Slots are grouped into one bucket per distinct weight. A draw takes one random
+ * ticket in [0, totalWeight), walks the buckets to find the one holding that ticket,
+ * and maps the ticket to a member of the bucket, which is uniform because all members
+ * weigh the same. The member is then swapped to the end of its bucket's live range,
+ * which removes it; {@link #reset} undoes the swaps in reverse, so the members are back in
+ * their original order and a reset sampler draws exactly like a new one. With at most
+ * {@link WeightedSampler#MAX_BUCKETS} buckets each draw is effectively O(1).
+ */
+public class BucketSampler implements WeightedSampler {
+
+    private final int[] bucketWeight; // weight shared by every member of the bucket
+    private final int[] bucketStart;  // first index of the bucket in members
+    private final int[] bucketSize;   // live members left in the bucket
+    private final int[] members;      // slot indexes, grouped by bucket
+    private final int[] drawnPos;     // position in members of each draw since the last reset
+    private final int[] drawnBucket;  // bucket of each draw since the last reset
+    private int drawnCount;
+    private final long fullWeight;
+    private final int fullCount;
+    private long totalWeight;
+    private int remaining;
+
+    /**
+     * @param weights per-slot weights (not modified; non-positive slots are skipped)
+     * @param count   number of slots to use
+     * @throws IllegalArgumentException if the weights have more than MAX_BUCKETS distinct values
+     */
+    public BucketSampler(int[] weights, int count) {
+        if (count < 0 || count > weights.length)
+            throw new IllegalArgumentException("count must be between 0 and weights.length");
+
+        int[] distinct = new int[MAX_BUCKETS];
+        int[] sizes = new int[MAX_BUCKETS];
+        int buckets = 0;
+
+        // First pass: find the distinct weights and how many slots have each
+        for (int i = 0; i < count; i++) {
+            int w = weights[i];
+            if (w <= 0) continue;
+            int b = indexOf(distinct, buckets, w);
+            if (b < 0) {
+                if (buckets == MAX_BUCKETS)
+                    throw new IllegalArgumentException("more than " + MAX_BUCKETS + " distinct weights");
+                b = buckets++;
+                distinct[b] = w;
+            }
+            sizes[b]++;
+        }
+
+        this.bucketWeight = distinct;
+        this.bucketSize = new int[buckets];
+        this.bucketStart = new int[buckets];
+
+        int offset = 0;
+        for (int b = 0; b < buckets; b++) {
+            bucketStart[b] = offset;
+            offset += sizes[b];
+            totalWeight += (long) distinct[b] * sizes[b];
+        }
+        this.remaining = offset;
+        this.fullWeight = totalWeight;
+        this.fullCount = offset;
+        this.members = new int[offset];
+        this.drawnPos = new int[offset];
+        this.drawnBucket = new int[offset];
+
+        // Second pass: place slots in their bucket, keeping slot order inside a bucket
+        for (int i = 0; i < count; i++) {
+            int w = weights[i];
+            if (w <= 0) continue;
+            int b = indexOf(distinct, buckets, w);
+            members[bucketStart[b] + bucketSize[b]++] = i;
+        }
+    }
+
+    private static int indexOf(int[] values, int length, int value) {
+        for (int i = 0; i < length; i++) {
+            if (values[i] == value) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Counts distinct positive weights, stopping as soon as the count passes {@code limit}.
+     *
+     * @return the number of distinct weights, or limit + 1 if there are more than limit
+     */
+    public static int countDistinctWeights(int[] weights, int count, int limit) {
+        int[] seen = new int[limit];
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            int w = weights[i];
+            if (w <= 0 || indexOf(seen, distinct, w) >= 0) continue;
+            if (distinct == limit) return limit + 1;
+            seen[distinct++] = w;
+        }
+        return distinct;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return remaining == 0;
+    }
+
+    @Override
+    public long totalWeight() {
+        return totalWeight;
+    }
+
+    @Override
+    public int draw(RandomGenerator rand) {
+        if (remaining == 0) {
+            return -1;
+        }
+        long ticket = (totalWeight <= Integer.MAX_VALUE)
+                ? rand.nextInt((int) totalWeight)
+                : rand.nextLong(totalWeight);
+
+        int b = 0;
+        long bucketTotal = (long) bucketWeight[0] * bucketSize[0];
+        while (ticket >= bucketTotal) {
+            ticket -= bucketTotal;
+            b++;
+            bucketTotal = (long) bucketWeight[b] * bucketSize[b];
+        }
+
+        // All members weigh the same, so ticket / weight is a uniform member
+        int pos = bucketStart[b] + (int) (ticket / bucketWeight[b]);
+        int last = bucketStart[b] + bucketSize[b] - 1;
+        int slot = members[pos];
+        members[pos] = members[last];
+        members[last] = slot;
+        bucketSize[b]--;
+        drawnPos[drawnCount] = pos;
+        drawnBucket[drawnCount++] = b;
+
+        totalWeight -= bucketWeight[b];
+        remaining--;
+        return slot;
+    }
+
+    @Override
+    public void reset() {
+        // Drawn members sit just past each bucket's live range; growing the ranges back
+        // one draw at a time and swapping each member back restores the original order
+        while (drawnCount > 0) {
+            int b = drawnBucket[--drawnCount];
+            int pos = drawnPos[drawnCount];
+            int last = bucketStart[b] + bucketSize[b]++;
+            int slot = members[last];
+            members[last] = members[pos];
+            members[pos] = slot;
+        }
+        totalWeight = fullWeight;
+        remaining = fullCount;
+    }
+}
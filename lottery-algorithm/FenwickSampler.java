@@ -0,0 +1,125 @@
+import java.util.random.RandomGenerator;
+
+/**
+ * Weighted sampler without replacement backed by a Fenwick (binary indexed) tree.
+ * Slot i is drawn with probability weight[i] / totalWeight, and a drawn slot is
+ * removed from the pool. Both the draw and the removal are O(log n), and each
+ * candidate only takes up one slot no matter how large its weight is.
+ */
+public class FenwickSampler implements WeightedSampler {
+
+    private final long[] tree;     // 1-based partial sums
+    private final int[] weights;   // weight per slot (kept after a draw so reset can restore it)
+    private final int size;
+    private final int topStep;     // highest power of two <= size
+    private final int[] drawn;     // slots drawn since the last reset, in draw order
+    private int drawnCount;
+    private long totalWeight;
+    private int remaining;
+
+    /**
+     * Builds a sampler over the first {@code count} entries of {@code weights}.
+     * Non-positive weights are treated as empty slots that can never be drawn.
+     *
+     * @param weights per-slot weights (not modified)
+     * @param count   number of slots to use
+     */
+    public FenwickSampler(int[] weights, int count) {
+        if (count < 0 || count > weights.length)
+            throw new IllegalArgumentException("count must be between 0 and weights.length");
+
+        this.size = count;
+        this.tree = new long[count + 1];
+        this.weights = new int[count];
+
+        // O(n) build: push each partial sum up to its parent once
+        for (int i = 0; i < count; i++) {
+            int w = Math.max(weights[i], 0);
+            this.weights[i] = w;
+            if (w > 0) remaining++;
+            totalWeight += w;
+            tree[i + 1] += w;
+            int parent = (i + 1) + ((i + 1) & -(i + 1));
+            if (parent <= count) {
+                tree[parent] += tree[i + 1];
+            }
+        }
+
+        this.topStep = (count == 0) ? 0 : Integer.highestOneBit(count);
+        this.drawn = new int[count];
+    }
+
+    public FenwickSampler(int[] weights) {
+        this(weights, weights.length);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return remaining == 0;
+    }
+
+    @Override
+    public long totalWeight() {
+        return totalWeight;
+    }
+
+    /**
+     * Draws one slot with probability proportional to its weight and removes it.
+     * The random number is taken exactly like a draw from an expanded ticket list
+     * of the same total size, so a pool laid out in slot order gives the same pick.
+     *
+     * @param rand random source
+     * @return the drawn slot index, or -1 if the pool is empty
+     */
+    @Override
+    public int draw(RandomGenerator rand) {
+        if (remaining == 0) {
+            return -1;
+        }
+        long ticket = (totalWeight <= Integer.MAX_VALUE)
+                ? rand.nextInt((int) totalWeight)
+                : rand.nextLong(totalWeight);
+        int slot = find(ticket);
+        drawn[drawnCount++] = slot;
+        add(slot, -weights[slot]);
+        return slot;
+    }
+
+    @Override
+    public void reset() {
+        // weights[] keeps each slot's weight, so undoing a draw is one tree update
+        while (drawnCount > 0) {
+            int slot = drawn[--drawnCount];
+            add(slot, weights[slot]);
+        }
+    }
+
+    /**
+     * Finds the slot whose ticket range contains {@code ticket}, i.e. the smallest
+     * index whose prefix sum is greater than {@code ticket}.
+     */
+    private int find(long ticket) {
+        int pos = 0;
+        long rest = ticket;
+        for (int step = topStep; step > 0; step >>= 1) {
+            int next = pos + step;
+            if (next <= size && tree[next] <= rest) {
+                pos = next;
+                rest -= tree[next];
+            }
+        }
+        return pos; // 0-based slot = 1-based pos + 1 - 1
+    }
+
+    /**
+     * Adds {@code delta} to a slot's live weight: -weight removes it, +weight puts it back.
+     */
+    private void add(int slot, int delta) {
+        if (delta == 0) return;
+        totalWeight += delta;
+        remaining += (delta > 0) ? 1 : -1;
+        for (int i = slot + 1; i <= size; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+}
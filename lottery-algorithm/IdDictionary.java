@@ -0,0 +1,57 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Assigns dense int IDs (0, 1, 2, ...) to string IDs such as student IDs or section IDs,
+ * in the order they are first added, so per-ID data can live in arrays and pairs of IDs
+ * can be packed into one long key.
+ */
+public class IdDictionary {
+
+    private final Map<String, Integer> idByName = new HashMap<>();
+    private final List<String> nameById = new ArrayList<>();
+
+    /**
+     * Returns the ID for a name, assigning the next free ID if it is new.
+     */
+    public int add(String name) {
+        Integer id = idByName.get(name);
+        if (id == null) {
+            id = nameById.size();
+            idByName.put(name, id);
+            nameById.add(name);
+        }
+        return id;
+    }
+
+    /**
+     * @return the ID for a name, or -1 if it was never added
+     */
+    public int idOf(String name) {
+        Integer id = idByName.get(name);
+        return (id != null) ? id : -1;
+    }
+
+    /**
+     * @return the name for an ID
+     */
+    public String nameOf(int id) {
+        return nameById.get(id);
+    }
+
+    /**
+     * @return number of IDs assigned
+     */
+    public int size() {
+        return nameById.size();
+    }
+
+    /**
+     * Packs two dense IDs into one long key (first ID in the high 32 bits).
+     */
+    public static long pack(int first, int second) {
+        return ((long) first << 32) | (second & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,86 @@
+/**
+ * Map from long keys to non-negative int values, stored in two primitive arrays with
+ * open addressing (linear probing). Lookups do not box or allocate. Used with keys
+ * packed by IdDictionary.pack, e.g. (student, section) -> request index.
+ */
+public class LongIntHashMap {
+
+    private static final int MISSING = -1;
+
+    private long[] keys;
+    private int[] values;   // MISSING marks an empty slot
+    private int size;
+
+    /**
+     * @param expectedSize number of entries to size the table for
+     */
+    public LongIntHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize) * 2 - 1) << 1; // load <= 1/2
+        keys = new long[capacity];
+        values = new int[capacity];
+        java.util.Arrays.fill(values, MISSING);
+    }
+
+    /**
+     * Sets the value for a key, replacing any earlier value.
+     * @param value a value >= 0
+     */
+    public void put(long key, int value) {
+        if (value < 0)
+            throw new IllegalArgumentException("value must be non-negative");
+        if ((size + 1) * 2 > keys.length) {
+            grow();
+        }
+        int mask = keys.length - 1;
+        for (int i = slot(key, mask); ; i = (i + 1) & mask) {
+            if (values[i] == MISSING) {
+                keys[i] = key;
+                values[i] = value;
+                size++;
+                return;
+            }
+            if (keys[i] == key) {
+                values[i] = value;
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return the value for a key, or -1 if the key is not in the map
+     */
+    public int get(long key) {
+        int mask = keys.length - 1;
+        for (int i = slot(key, mask); ; i = (i + 1) & mask) {
+            int value = values[i];
+            if (value == MISSING) return MISSING;
+            if (keys[i] == key) return value;
+        }
+    }
+
+    /**
+     * @return number of keys in the map
+     */
+    public int size() {
+        return size;
+    }
+
+    private static int slot(long key, int mask) {
+        long h = key * 0x9E3779B97F4A7C15L; // Fibonacci hashing, top bits are well mixed
+        return (int) (h >>> 32) & mask;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new long[oldKeys.length * 2];
+        values = new int[oldValues.length * 2];
+        java.util.Arrays.fill(values, MISSING);
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != MISSING) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+}
@@ -1,13 +1,32 @@
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Random;
-import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+import java.util.stream.IntStream;
 
 public class LotteryEngine {
 
+    // Full-term runs with at least this many courses draw the courses in parallel
+    static final int PARALLEL_MIN_COURSES = 16;
+
+    // Shared eligibility matrix for request tables, or null to build one per run
+    private final EligibilityMatrix eligibility;
+
+    public LotteryEngine() {
+        this(null);
+    }
+
+    /**
+     * @param eligibility  eligibility matrix kept by the caller (e.g.
+     *                     RegistrationSystem.getEligibilityMatrix()), reused by every run
+     *                     instead of rebuilding one; null builds one per run
+     */
+    public LotteryEngine(EligibilityMatrix eligibility) {
+        this.eligibility = eligibility;
+    }
+
     /**
      * Runs the lottery for all courses.
      *
@@ -19,33 +38,85 @@ public class LotteryEngine {
     public Map<String, List<students>> runLottery(List<students> studentList,
                                                   List<classes> courseList,
                                                   List<ClassRequest> requestList) {
+        return runLottery(studentList, courseList, requestList, newMasterSeed());
+    }
 
-        // Fast lookup by studentId
-        Map<String, students> studentsById = new HashMap<>();
-        for (students s : studentList) {
-            studentsById.put(s.studentId, s);
-        }
+    /**
+     * Runs the lottery for all courses with reproducible randomness.
+     * Each course draws from its own stream seeded from hash(masterSeed, courseSectionId)
+     * (see {@link #courseStream}), so a course's draws depend only on the master seed,
+     * the course and its own requests. Running a subset of courses gives exactly the
+     * same draws for those courses as a full run.
+     *
+     * @param studentList  list of all students
+     * @param courseList   list of all classes (courses), each section listed once
+     * @param requestList  list of all class requests
+     * @param masterSeed   seed for the per-course random streams
+     * @return map from courseSectionId -> list of enrolled students
+     */
+    public Map<String, List<students>> runLottery(List<students> studentList,
+                                                  List<classes> courseList,
+                                                  List<ClassRequest> requestList,
+                                                  long masterSeed) {
+        return runSeededLottery(studentList, courseList, requestList, masterSeed, false);
+    }
 
-        // Group requests by courseId
-        Map<String, List<ClassRequest>> requestsByCourse = new HashMap<>();
-        for (ClassRequest req : requestList) {
-            requestsByCourse
-                    .computeIfAbsent(req.courseId, k -> new ArrayList<>())
-                    .add(req);
-        }
+    /**
+     * Same as {@link #runLottery(List, List, List, long)}, but the per-course lotteries
+     * run in parallel on the common ForkJoinPool. Courses are independent once requests
+     * are grouped and every course has its own random stream, so the result is
+     * identical to a sequential run with the same seed.
+     *
+     * @param studentList  list of all students
+     * @param courseList   list of all classes (courses), each section listed once
+     * @param requestList  list of all class requests
+     * @param masterSeed   seed for the per-course random streams
+     * @return map from courseSectionId -> list of enrolled students
+     */
+    public Map<String, List<students>> runLotteryParallel(List<students> studentList,
+                                                          List<classes> courseList,
+                                                          List<ClassRequest> requestList,
+                                                          long masterSeed) {
+        return runSeededLottery(studentList, courseList, requestList, masterSeed, true);
+    }
 
-        Map<String, List<students>> enrolledByCourse = new HashMap<>();
-        Random rand = new Random();
+    private Map<String, List<students>> runSeededLottery(List<students> studentList,
+                                                         List<classes> courseList,
+                                                         List<ClassRequest> requestList,
+                                                         long masterSeed,
+                                                         boolean parallel) {
+        int currentYear = java.time.Year.now().getValue();
+        RequestTable requests = RequestTable.build(studentList, courseList, requestList, currentYear, eligibility);
+        return runLottery(requests, courseList, masterSeed, parallel);
+    }
 
-        // Run lottery per course
-        for (classes course : courseList) {
-            List<ClassRequest> courseRequests =
-                    requestsByCourse.getOrDefault(course.courseSectionId, new ArrayList<>());
+    /**
+     * Runs the seeded lottery over a request table that was already built for this run.
+     * Each course reads its own contiguous range of rows.
+     */
+    private Map<String, List<students>> runLottery(RequestTable requests,
+                                                   List<classes> courseList,
+                                                   long masterSeed,
+                                                   boolean parallel) {
+        int courseCount = courseList.size();
+        // Presized; each course only sets its own index
+        List<List<students>> winnersByCourse = new ArrayList<>(java.util.Collections.nCopies(courseCount, null));
+        IntStream courseIndexes = IntStream.range(0, courseCount);
+        if (parallel) {
+            courseIndexes = courseIndexes.parallel();
+        }
+        courseIndexes.forEach(i -> {
+            classes course = courseList.get(i);
+            winnersByCourse.set(i, runCourseLottery(course, requests,
+                    courseStream(masterSeed, course.courseSectionId)));
+        });
 
-            List<students> winners = runCourseLottery(course, courseRequests, studentsById, rand);
+        // Merge in course order and update enrollment counts on this thread
+        Map<String, List<students>> enrolledByCourse = new HashMap<>();
+        for (int i = 0; i < courseCount; i++) {
+            classes course = courseList.get(i);
+            List<students> winners = winnersByCourse.get(i);
             enrolledByCourse.put(course.courseSectionId, winners);
-
-            // update enrollment count for that course
             course.currentEnrollment += winners.size();
         }
 
@@ -53,12 +124,77 @@ public class LotteryEngine {
     }
 
     /**
-     * Runs the lottery for a single course.
+     * Recomputes the lottery for one course without rerunning the rest of the term,
+     * e.g. when a student appeals. Gives the same winners as the original run as long as
+     * the master seed, the course's requests and its pre-run enrollment are the same.
+     * The course itself is not modified.
+     *
+     * @param studentList          list of all students
+     * @param course               the course to replay
+     * @param enrollmentBeforeRun  the course's currentEnrollment before the original run
+     *                             (see {@link LotteryResult#getEnrollmentBeforeRun})
+     * @param requestList          class requests (requests for other courses are skipped)
+     * @param masterSeed           master seed of the original run
+     * @return enrolled students, in draw order
+     */
+    public List<students> replayCourse(List<students> studentList,
+                                       classes course,
+                                       int enrollmentBeforeRun,
+                                       List<ClassRequest> requestList,
+                                       long masterSeed) {
+        List<ClassRequest> courseRequests = new ArrayList<>();
+        for (ClassRequest req : requestList) {
+            if (req.courseId.equals(course.courseSectionId)) {
+                courseRequests.add(req);
+            }
+        }
+
+        classes original = new classes(course.courseSectionId, course.courseSectionNumber,
+                course.capacity, enrollmentBeforeRun, course.creditHours);
+        int currentYear = java.time.Year.now().getValue();
+        RequestTable requests = RequestTable.build(
+                studentList, java.util.Collections.singletonList(original), courseRequests, currentYear, eligibility);
+        return runCourseLottery(original, requests, courseStream(masterSeed, course.courseSectionId));
+    }
+
+    /**
+     * Derives the random stream for one course from the master seed and the course's
+     * section ID, so the stream does not depend on which other courses are in the run
+     * or in what order.
+     *
+     * @param masterSeed       seed of the whole run
+     * @param courseSectionId  the course's section ID
+     * @return a fresh generator for that course
+     */
+    public static SplittableRandom courseStream(long masterSeed, String courseSectionId) {
+        // 64-bit FNV-1a over the section ID, then a SplitMix64 finalizer over both
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < courseSectionId.length(); i++) {
+            hash ^= courseSectionId.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return new SplittableRandom(mix64(masterSeed ^ mix64(hash)));
+    }
+
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * @return a fresh master seed for runs that were not given one
+     */
+    private static long newMasterSeed() {
+        return new SplittableRandom().nextLong();
+    }
+
+    /**
+     * Runs the lottery for a single course over its rows in the request table.
      */
     private List<students> runCourseLottery(classes course,
-                                            List<ClassRequest> requests,
-                                            Map<String, students> studentsById,
-                                            Random rand) {
+                                            RequestTable requests,
+                                            RandomGenerator rand) {
 
         List<students> enrolled = new ArrayList<>();
 
@@ -68,44 +204,117 @@ public class LotteryEngine {
             return enrolled;
         }
 
-        // Build ticket pool: each student appears 'weight' times
-        List<students> ticketPool = new ArrayList<>();
+        int section = requests.sectionOf(course.courseSectionId);
+        if (section < 0) {
+            return enrolled; // no requests
+        }
+        int start = requests.sectionStart(section);
+        int end = requests.sectionEnd(section);
 
-        for (ClassRequest req : requests) {
-            students s = studentsById.get(req.studentId);
-            if (s == null) continue; // bad student id in data
+        // One sampler slot per student, holding the sum of that student's weights.
+        // Drawing a slot is the same as drawing one ticket from a pool where each
+        // student appears 'weight' times and then removing all of their tickets.
+        // Rows are sorted by student, so a student's repeated requests are adjacent.
+        List<students> candidates = new ArrayList<>();
+        int[] slotWeights = new int[end - start];
+        int lastStudent = -1;
 
-            int weight = LotteryWeightCalculator.computeWeight(s, req, course);
-            if (weight <= 0) continue;
+        for (int row = start; row < end; row++) {
+            int weight = requests.getWeight(row);
+            if (weight <= 0) continue; // unknown student or missing prerequisites
 
-            for (int i = 0; i < weight; i++) {
-                ticketPool.add(s);
+            int student = requests.getStudentIndex(row);
+            if (student != lastStudent) {
+                candidates.add(requests.getStudent(row));
+                lastStudent = student;
             }
+            slotWeights[candidates.size() - 1] += weight;
         }
 
-        if (ticketPool.isEmpty()) {
+        if (candidates.isEmpty()) {
             return enrolled; // no valid requests
         }
 
-        Set<String> alreadyChosen = new HashSet<>();
+        WeightedSampler sampler = WeightedSampler.create(slotWeights, candidates.size());
 
-        while (seatsLeft > 0 && !ticketPool.isEmpty()) {
-            int idx = rand.nextInt(ticketPool.size());
-            students chosen = ticketPool.get(idx);
+        while (seatsLeft > 0 && !sampler.isEmpty()) {
+            enrolled.add(candidates.get(sampler.draw(rand)));
+            seatsLeft--;
+        }
 
-            // avoid giving the same student 2 seats in the same course
-            if (!alreadyChosen.contains(chosen.studentId)) {
-                enrolled.add(chosen);
-                alreadyChosen.add(chosen.studentId);
-                seatsLeft--;
-            }
+        return enrolled;
+    }
 
-            // remove all tickets for chosen student
-            String idToRemove = chosen.studentId;
-            ticketPool.removeIf(s -> s.studentId.equals(idToRemove));
+    /**
+     * Runs the lottery for all courses in a single pass over the requests.
+     * Requests are read one at a time and never grouped into per-course lists;
+     * each course only keeps its best {@code seats + waitlistDepth} entries
+     * (see StreamingCourseLottery). Useful for very large intro sections.
+     *
+     * @param studentList    list of all students
+     * @param courseList     list of all classes (courses)
+     * @param requests       class requests, in any order (e.g. {@code stream::iterator})
+     * @param waitlistDepth  ranked waitlist spots to keep per course
+     *                       (Integer.MAX_VALUE keeps a complete waitlist)
+     * @return map from courseSectionId -> finished lottery for that course
+     */
+    public Map<String, StreamingCourseLottery> runStreamingLottery(List<students> studentList,
+                                                                   List<classes> courseList,
+                                                                   Iterable<ClassRequest> requests,
+                                                                   int waitlistDepth) {
+        return runStreamingLottery(studentList, courseList, requests, waitlistDepth, newMasterSeed());
+    }
+
+    /**
+     * Same as {@link #runStreamingLottery(List, List, Iterable, int)} with reproducible
+     * randomness: each course draws its keys from {@link #courseStream}, so a course's
+     * result depends only on the master seed and the order of its own requests.
+     *
+     * @param studentList    list of all students
+     * @param courseList     list of all classes (courses), each section listed once
+     * @param requests       class requests, in any order (e.g. {@code stream::iterator})
+     * @param waitlistDepth  ranked waitlist spots to keep per course
+     *                       (Integer.MAX_VALUE keeps a complete waitlist)
+     * @param masterSeed     seed for the per-course random streams
+     * @return map from courseSectionId -> finished lottery for that course
+     */
+    public Map<String, StreamingCourseLottery> runStreamingLottery(List<students> studentList,
+                                                                   List<classes> courseList,
+                                                                   Iterable<ClassRequest> requests,
+                                                                   int waitlistDepth,
+                                                                   long masterSeed) {
+        int currentYear = java.time.Year.now().getValue();
+
+        Map<String, students> studentsById = new HashMap<>();
+        for (students s : studentList) {
+            studentsById.put(s.studentId, s);
         }
 
-        return enrolled;
+        Map<String, classes> coursesById = new HashMap<>();
+        Map<String, StreamingCourseLottery> lotteries = new HashMap<>();
+        Map<String, SplittableRandom> streams = new HashMap<>();
+        for (classes course : courseList) {
+            coursesById.put(course.courseSectionId, course);
+            lotteries.put(course.courseSectionId, new StreamingCourseLottery(
+                    course.capacity - course.currentEnrollment, waitlistDepth));
+            streams.put(course.courseSectionId, courseStream(masterSeed, course.courseSectionId));
+        }
+
+        for (ClassRequest req : requests) {
+            StreamingCourseLottery lottery = lotteries.get(req.courseId);
+            students s = studentsById.get(req.studentId);
+            if (lottery == null || s == null) continue; // unknown course or student
+
+            int weight = LotteryWeightCalculator.computeWeight(s, req, coursesById.get(req.courseId), currentYear);
+            lottery.offer(s, weight, streams.get(req.courseId));
+        }
+
+        // update enrollment count for each course
+        for (classes course : courseList) {
+            course.currentEnrollment += lotteries.get(course.courseSectionId).getEnrolled().size();
+        }
+
+        return lotteries;
     }
 
     /**
@@ -120,41 +329,46 @@ public class LotteryEngine {
     public LotteryResult runLotteryWithWaitlist(List<students> studentList,
                                                 List<classes> courseList,
                                                 List<ClassRequest> requestList) {
+        return runLotteryWithWaitlist(studentList, courseList, requestList, newMasterSeed());
+    }
+
+    /**
+     * Runs the lottery with waitlist analysis using a fixed master seed.
+     * The seed is kept in the result so any single course can be replayed later
+     * with {@link #replayCourse}.
+     *
+     * @param studentList  list of all students
+     * @param courseList   list of all classes (courses)
+     * @param requestList  list of all class requests
+     * @param masterSeed   seed for the per-course random streams
+     * @return LotteryResult containing enrolled students and waitlist results
+     */
+    public LotteryResult runLotteryWithWaitlist(List<students> studentList,
+                                                List<classes> courseList,
+                                                List<ClassRequest> requestList,
+                                                long masterSeed) {
         int currentYear = java.time.Year.now().getValue();
         
-        // First, calculate weights for all requests (before running lottery)
-        Map<String, Integer> requestWeights = new HashMap<>();
-        Map<String, classes> coursesById = new HashMap<>();
-        Map<String, students> studentsById = new HashMap<>();
+        // Build the request table once; the lottery and the analyzer both read it
+        RequestTable requests = RequestTable.build(studentList, courseList, requestList, currentYear, eligibility);
         
+        // Remember pre-run enrollment so courses can be replayed later
+        Map<String, Integer> enrollmentBeforeRun = new HashMap<>();
         for (classes c : courseList) {
-            coursesById.put(c.courseSectionId, c);
-        }
-        for (students s : studentList) {
-            studentsById.put(s.studentId, s);
-        }
-        
-        // Calculate weights for all requests
-        for (ClassRequest req : requestList) {
-            String key = req.studentId + ":" + req.courseId;
-            students student = studentsById.get(req.studentId);
-            classes course = coursesById.get(req.courseId);
-            
-            if (student != null && course != null) {
-                int weight = LotteryWeightCalculator.computeWeight(student, req, course, currentYear);
-                requestWeights.put(key, weight);
-            }
+            enrollmentBeforeRun.put(c.courseSectionId, c.currentEnrollment);
         }
+
+        // Run the lottery; a full term has enough courses to run them in parallel
+        Map<String, List<students>> enrolledByCourse = runLottery(requests, courseList, masterSeed,
+                courseList.size() >= PARALLEL_MIN_COURSES);
         
-        // Run the lottery
-        Map<String, List<students>> enrolledByCourse = runLottery(studentList, courseList, requestList);
+        RosterIndex roster = new RosterIndex(studentList, enrolledByCourse);
         
         // Analyze waitlist results
         WaitlistAnalyzer analyzer = new WaitlistAnalyzer();
-        Map<String, WaitlistResult> waitlistResults = analyzer.analyzeWaitlist(
-                enrolledByCourse, requestList, studentList, courseList, requestWeights, currentYear);
+        WaitlistResult[] waitlistResults = analyzer.analyzeWaitlist(enrolledByCourse, roster, requests);
         
-        return new LotteryResult(enrolledByCourse, waitlistResults);
+        return new LotteryResult(enrolledByCourse, roster, requests, waitlistResults, masterSeed, enrollmentBeforeRun);
     }
 
     /**
@@ -162,12 +376,50 @@ public class LotteryEngine {
      */
     public static class LotteryResult {
         public final Map<String, List<students>> enrolledByCourse;
-        private final Map<String, WaitlistResult> waitlistResults;
+        private final RosterIndex roster;
+        private final RequestTable requests;
+        private final WaitlistResult[] waitlistResults; // indexed by request table row
+        public final long masterSeed;
+        private final Map<String, Integer> enrollmentBeforeRun;
 
         public LotteryResult(Map<String, List<students>> enrolledByCourse,
-                           Map<String, WaitlistResult> waitlistResults) {
+                           RosterIndex roster,
+                           RequestTable requests,
+                           WaitlistResult[] waitlistResults,
+                           long masterSeed,
+                           Map<String, Integer> enrollmentBeforeRun) {
             this.enrolledByCourse = enrolledByCourse;
+            this.roster = roster;
+            this.requests = requests;
             this.waitlistResults = waitlistResults;
+            this.masterSeed = masterSeed;
+            this.enrollmentBeforeRun = enrollmentBeforeRun;
+        }
+
+        /**
+         * Gets a course's enrollment from before this run, for replaying it.
+         * @param courseId The course ID
+         * @return enrollment before the run, or -1 if the course was not in the run
+         */
+        public int getEnrollmentBeforeRun(String courseId) {
+            return enrollmentBeforeRun.getOrDefault(courseId, -1);
+        }
+
+        /**
+         * Checks whether a student won a seat in a course in this run, in constant time.
+         * @param studentId The student ID
+         * @param courseId The course ID
+         * @return true if the student is on the course's roster
+         */
+        public boolean isEnrolled(String studentId, String courseId) {
+            return roster.isEnrolled(studentId, courseId);
+        }
+
+        /**
+         * @return the roster index for this run
+         */
+        public RosterIndex getRoster() {
+            return roster;
         }
 
         /**
@@ -177,8 +429,23 @@ public class LotteryEngine {
          * @return WaitlistResult or null if not found
          */
         public WaitlistResult getResult(String studentId, String courseId) {
-            String key = studentId + ":" + courseId;
-            return waitlistResults.get(key);
+            int index = requests.indexOf(studentId, courseId);
+            return (index >= 0) ? waitlistResults[index] : null;
+        }
+
+        /**
+         * Gets the waitlist result for a row of the run's request table.
+         * @return WaitlistResult or null if the request's student or course was unknown
+         */
+        public WaitlistResult getResult(int row) {
+            return waitlistResults[row];
+        }
+
+        /**
+         * @return the run's request table (rows grouped by section)
+         */
+        public RequestTable getRequests() {
+            return requests;
         }
     }
 }
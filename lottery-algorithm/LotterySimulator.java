@@ -0,0 +1,258 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.IntStream;
+
+/**
+ * Monte Carlo simulation of the course lottery.
+ *
+ * Runs the lottery many times and counts how often each request is admitted, giving an
+ * admission probability (with a confidence interval) for every ClassRequest. Weights and
+ * sampler slots are set up once; each replica only resets the samplers and bumps primitive
+ * counters, so replicas allocate nothing. Courses with no more eligible students than seats
+ * are never sampled, since every eligible request there is always admitted.
+ */
+public class LotterySimulator {
+
+    // Replicas per random stream; streams are split in block order and a reset sampler
+    // draws exactly like a new one, so results do not depend on how many threads run the blocks
+    private static final int BLOCK_SIZE = 64;
+
+    private static final int NEVER_ADMITTED = -1;
+    private static final int ALWAYS_ADMITTED = -2;
+
+    // Shared eligibility matrix for the request table, or null to build one per simulation
+    private final EligibilityMatrix eligibility;
+
+    public LotterySimulator() {
+        this(null);
+    }
+
+    /**
+     * @param eligibility  eligibility matrix kept by the caller (e.g.
+     *                     RegistrationSystem.getEligibilityMatrix()); null builds one per simulation
+     */
+    public LotterySimulator(EligibilityMatrix eligibility) {
+        this.eligibility = eligibility;
+    }
+
+    /**
+     * A course with more eligible students than seats.
+     */
+    private static final class ContestedCourse {
+        final int[] slotWeights;
+        final int slotCount;
+        final int seats;
+        final int firstSlot; // offset of this course's slots in the shared counter array
+
+        ContestedCourse(int[] slotWeights, int slotCount, int seats, int firstSlot) {
+            this.slotWeights = slotWeights;
+            this.slotCount = slotCount;
+            this.seats = seats;
+            this.firstSlot = firstSlot;
+        }
+    }
+
+    /**
+     * Simulates the lottery {@code replicas} times in parallel.
+     * Courses are not modified; seats are taken from capacity - currentEnrollment.
+     *
+     * @param studentList  list of all students
+     * @param courseList   list of all classes (courses), each section listed once
+     * @param requestList  list of all class requests
+     * @param replicas     number of lottery runs to simulate
+     * @param seed         seed for the simulation, so results are reproducible
+     * @return admission counts and probabilities for every request
+     */
+    public SimulationResult simulate(List<students> studentList,
+                                     List<classes> courseList,
+                                     List<ClassRequest> requestList,
+                                     int replicas,
+                                     long seed) {
+        if (replicas <= 0)
+            throw new IllegalArgumentException("replicas must be positive");
+
+        int currentYear = java.time.Year.now().getValue();
+        RequestTable requests = RequestTable.build(studentList, courseList, requestList, currentYear, eligibility);
+
+        // Map every request row to a sampler slot (one slot per student per contested course)
+        int[] slotOfRow = new int[requests.size()];
+        java.util.Arrays.fill(slotOfRow, NEVER_ADMITTED);
+        List<ContestedCourse> contested = new ArrayList<>();
+        int totalSlots = 0;
+
+        for (classes course : courseList) {
+            int section = requests.sectionOf(course.courseSectionId);
+            int seats = course.capacity - course.currentEnrollment;
+            if (section < 0 || seats <= 0) continue;
+            int start = requests.sectionStart(section);
+            int end = requests.sectionEnd(section);
+
+            // Rows are sorted by student, so a student's requests share the slot just opened
+            int[] slotWeights = new int[end - start];
+            int slotCount = 0;
+            int lastStudent = -1;
+            for (int row = start; row < end; row++) {
+                int weight = requests.getWeight(row);
+                if (weight <= 0) continue;
+
+                int student = requests.getStudentIndex(row);
+                if (student != lastStudent) {
+                    slotCount++;
+                    lastStudent = student;
+                }
+                slotWeights[slotCount - 1] += weight;
+                slotOfRow[row] = slotCount - 1; // local for now, made global below
+            }
+
+            boolean isContested = slotCount > seats;
+            for (int row = start; row < end; row++) {
+                if (slotOfRow[row] < 0) continue;
+                slotOfRow[row] = isContested ? totalSlots + slotOfRow[row] : ALWAYS_ADMITTED;
+            }
+            if (isContested) {
+                contested.add(new ContestedCourse(slotWeights, slotCount, seats, totalSlots));
+                totalSlots += slotCount;
+            }
+        }
+
+        int[] slotAdmissions = runReplicas(contested, totalSlots, replicas, seed);
+
+        int[] admissions = new int[requests.size()];
+        for (int i = 0; i < admissions.length; i++) {
+            int slot = slotOfRow[i];
+            admissions[i] = (slot == ALWAYS_ADMITTED) ? replicas
+                          : (slot == NEVER_ADMITTED) ? 0
+                          : slotAdmissions[slot];
+        }
+
+        return new SimulationResult(requests, admissions, replicas);
+    }
+
+    /**
+     * Runs all replicas and returns how many times each slot was admitted.
+     * Each worker builds its samplers and counters once and sums them at the end.
+     */
+    private int[] runReplicas(List<ContestedCourse> contested, int totalSlots, int replicas, long seed) {
+        int blocks = (replicas + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        SplittableRandom master = new SplittableRandom(seed);
+        SplittableRandom[] blockStreams = new SplittableRandom[blocks];
+        for (int b = 0; b < blocks; b++) {
+            blockStreams[b] = master.split();
+        }
+
+        // Parallel streams run in the caller's pool when called from one, else in the common pool
+        ForkJoinPool pool = ForkJoinTask.inForkJoinPool() ? ForkJoinTask.getPool() : ForkJoinPool.commonPool();
+        int workers = Math.max(1, Math.min(blocks, pool.getParallelism()));
+        int[][] partialCounts = new int[workers][];
+
+        IntStream.range(0, workers).parallel().forEach(w -> {
+            WeightedSampler[] samplers = new WeightedSampler[contested.size()];
+            for (int c = 0; c < samplers.length; c++) {
+                ContestedCourse course = contested.get(c);
+                samplers[c] = WeightedSampler.create(course.slotWeights, course.slotCount);
+            }
+            int[] counts = new int[totalSlots];
+
+            for (int b = w; b < blocks; b += workers) {
+                SplittableRandom rand = blockStreams[b];
+                int blockEnd = Math.min(replicas, (b + 1) * BLOCK_SIZE);
+                for (int r = b * BLOCK_SIZE; r < blockEnd; r++) {
+                    for (int c = 0; c < samplers.length; c++) {
+                        ContestedCourse course = contested.get(c);
+                        WeightedSampler sampler = samplers[c];
+                        sampler.reset();
+                        for (int seat = 0; seat < course.seats; seat++) {
+                            counts[course.firstSlot + sampler.draw(rand)]++;
+                        }
+                    }
+                }
+            }
+            partialCounts[w] = counts;
+        });
+
+        int[] total = new int[totalSlots];
+        for (int[] counts : partialCounts) {
+            for (int i = 0; i < totalSlots; i++) {
+                total[i] += counts[i];
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Admission counts from a simulation, one per request (indexed by request table row).
+     */
+    public static class SimulationResult {
+        private final RequestTable requests;
+        private final int[] admissions;
+        public final int replicas;
+
+        public SimulationResult(RequestTable requests, int[] admissions, int replicas) {
+            this.requests = requests;
+            this.admissions = admissions;
+            this.replicas = replicas;
+        }
+
+        /**
+         * @param requestIndex row of the request in the simulated request table
+         * @return number of replicas in which the request was admitted
+         */
+        public int getAdmissions(int requestIndex) {
+            return admissions[requestIndex];
+        }
+
+        /**
+         * @param requestIndex row of the request in the simulated request table
+         * @return estimated probability that the request is admitted
+         */
+        public double getProbability(int requestIndex) {
+            return admissions[requestIndex] / (double) replicas;
+        }
+
+        /**
+         * Gets the admission probability for a specific student and course.
+         * @param studentId The student ID
+         * @param courseId The course ID
+         * @return estimated probability, or -1 if the request was not simulated
+         */
+        public double getProbability(String studentId, String courseId) {
+            int index = requests.indexOf(studentId, courseId);
+            return (index >= 0) ? getProbability(index) : -1.0;
+        }
+
+        /**
+         * Wilson score interval for a request's admission probability.
+         *
+         * @param requestIndex row of the request in the simulated request table
+         * @param z            normal quantile (1.96 for 95%)
+         * @return {lower, upper}
+         */
+        public double[] getConfidenceInterval(int requestIndex, double z) {
+            double n = replicas;
+            double p = getProbability(requestIndex);
+            double z2 = z * z;
+            double center = (p + z2 / (2 * n)) / (1 + z2 / n);
+            double margin = (z / (1 + z2 / n)) * Math.sqrt(p * (1 - p) / n + z2 / (4 * n * n));
+            return new double[] { Math.max(0.0, center - margin), Math.min(1.0, center + margin) };
+        }
+
+        /**
+         * Gets the 95% confidence interval for a specific student and course.
+         * @return {lower, upper}, or null if the request was not simulated
+         */
+        public double[] getConfidenceInterval(String studentId, String courseId) {
+            int index = requests.indexOf(studentId, courseId);
+            return (index >= 0) ? getConfidenceInterval(index, 1.96) : null;
+        }
+
+        /**
+         * @return the simulated requests; the index-based getters take its row numbers
+         */
+        public RequestTable getRequests() {
+            return requests;
+        }
+    }
+}
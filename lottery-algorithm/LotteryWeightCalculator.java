@@ -35,6 +35,19 @@ public class LotteryWeightCalculator {
             return 0;
         }
 
+        return computeEligibleWeight(s, req, currentYear);
+    }
+
+    /**
+     * Computes the lottery weight for a request whose prerequisites are already known to be met.
+     * Used when eligibility has been checked once up front (see RequestTable).
+     *
+     * @param s            The student requesting the course (cannot be null)
+     * @param req          The class request (contains preference rank)
+     * @param currentYear  The academic year used to determine student standing
+     * @return             The computed weight (minimum value of 1)
+     */
+    public static int computeEligibleWeight(students s, ClassRequest req, int currentYear) {
         int weight = 10; // Base weight
         
         // Preference rank bonus
@@ -91,34 +104,27 @@ public class LotteryWeightCalculator {
      * @return PrerequisiteValidationResult with eligibility status and missing prerequisites
      */
     public static PrerequisiteValidationResult validatePrerequisites(students student, classes course) {
-        String courseCode = extractCourseCode(course.courseSectionId);
+        String courseCode = CourseCode.of(course.courseSectionId).getCode();
         if (courseCode.isEmpty()) {
             return new PrerequisiteValidationResult(true, new HashSet<>(), "No course code to validate");
         }
 
         try {
             PrerequisiteGraph graph = PrerequisiteChecker.getPrerequisiteGraph();
-            Set<String> allPrerequisites = graph.getAllPrerequisites(courseCode);
 
             // If no prerequisites, student is eligible
-            if (allPrerequisites.isEmpty()) {
+            if (!graph.hasPrerequisites(courseCode)) {
                 return new PrerequisiteValidationResult(true, new HashSet<>(), "No prerequisites required");
             }
 
-            // Find missing prerequisites
-            Set<String> missing = new HashSet<>();
-            for (String prereq : allPrerequisites) {
-                if (!student.hasTaken(prereq)) {
-                    missing.add(prereq);
-                }
-            }
-
-            if (missing.isEmpty()) {
+            // Find missing prerequisites: closure & ~transcript
+            long[] transcript = student.getTranscriptBits(graph);
+            if (graph.meetsPrerequisites(courseCode, transcript)) {
                 return new PrerequisiteValidationResult(true, new HashSet<>(), "All prerequisites met");
-            } else {
-                String message = "Missing prerequisites: " + String.join(", ", missing);
-                return new PrerequisiteValidationResult(false, missing, message);
             }
+            Set<String> missing = graph.getMissingPrerequisites(courseCode, transcript);
+            String message = "Missing prerequisites: " + String.join(", ", missing);
+            return new PrerequisiteValidationResult(false, missing, message);
         } catch (Exception e) {
             // Log error and fail closed for prerequisite checking (safer)
             System.err.println("Error checking prerequisites for courseCode='" + courseCode + 
@@ -143,48 +149,4 @@ public class LotteryWeightCalculator {
         PrerequisiteValidationResult result = validatePrerequisites(student, course);
         return result.isEligible();
     }
-
-    /**
-     * Extracts the course code from a course section ID.
-     * Handles formats like "CSCI140  HM-01 SP2025" or "CS62-01"
-     * Converts CSCI prefix to CS and normalizes the code.
-     * @param courseSectionId The full course section ID
-     * @return The course code (e.g., "CS140" or "CS62")
-     */
-    private static String extractCourseCode(String courseSectionId) {
-        if (courseSectionId == null || courseSectionId.isEmpty()) {
-            return "";
-        }
-        
-        // Find the dash or space that separates course code from section
-        int dashIndex = courseSectionId.indexOf('-');
-        int spaceIndex = courseSectionId.indexOf(' ');
-        
-        String courseCode;
-        if (dashIndex > 0 && (spaceIndex == -1 || dashIndex < spaceIndex)) {
-            // Dash comes first (e.g., "CS62-01")
-            courseCode = courseSectionId.substring(0, dashIndex).trim();
-        } else if (spaceIndex > 0) {
-            // Space comes first (e.g., "CSCI140  HM-01 SP2025")
-            courseCode = courseSectionId.substring(0, spaceIndex).trim();
-        } else {
-            courseCode = courseSectionId.trim();
-        }
-        
-        // Convert CSCI prefix to CS (e.g., "CSCI140" -> "CS140")
-        if (courseCode.startsWith("CSCI")) {
-            courseCode = "CS" + courseCode.substring(4);
-        }
-        
-        // Remove leading zeros from numbers (e.g., "CS004" -> "CS4")
-        if (courseCode.length() > 2 && courseCode.startsWith("CS")) {
-            String numberPart = courseCode.substring(2);
-            if (numberPart.matches("^0+\\d+.*")) {
-                numberPart = numberPart.replaceFirst("^0+", "");
-                courseCode = "CS" + numberPart;
-            }
-        }
-        
-        return courseCode;
-    }
 }
@@ -0,0 +1,152 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The current requests of a session grouped by course code, section and student, kept up
+ * to date as requests are added and removed, so the lottery menu can list courses, count
+ * their requests and collect their sections without rescanning every request.
+ *
+ * Course codes are the codes without a location (CourseCode.getBaseCode()), listed in the
+ * order their first request was added. A code keeps its place while it has any request left;
+ * once its last request is removed it is dropped, and a later request adds it at the end.
+ * Each section's and each student's requests stay in the order they were added. Removing a
+ * student touches only that student's requests and the sections they were in.
+ */
+public class RequestIndex {
+
+    private final Map<String, Set<String>> sectionsByCourseCode = new LinkedHashMap<>();
+    private final Map<String, List<ClassRequest>> requestsBySection = new HashMap<>();
+    // In the order each student's first current request was added
+    private final Map<String, List<ClassRequest>> requestsByStudent = new LinkedHashMap<>();
+    private int size;
+
+    /**
+     * Adds a request.
+     * Time Complexity: O(1) expected
+     */
+    public void add(ClassRequest request) {
+        List<ClassRequest> section = requestsBySection.get(request.courseId);
+        if (section == null) {
+            section = new ArrayList<>(4);
+            requestsBySection.put(request.courseId, section);
+            sectionsByCourseCode.computeIfAbsent(CourseCode.of(request.courseId).getBaseCode(),
+                                                 code -> new LinkedHashSet<>()).add(request.courseId);
+        }
+        section.add(request);
+        requestsByStudent.computeIfAbsent(request.studentId, id -> new ArrayList<>(4)).add(request);
+        size++;
+    }
+
+    /**
+     * Removes every request of a student.
+     * Time Complexity: O(requests in the student's sections)
+     * @return the removed requests, in the order they were added
+     */
+    public List<ClassRequest> removeStudent(String studentId) {
+        List<ClassRequest> removed = requestsByStudent.remove(studentId);
+        if (removed == null) {
+            return Collections.emptyList();
+        }
+        for (ClassRequest request : removed) {
+            List<ClassRequest> section = requestsBySection.get(request.courseId);
+            for (int i = 0; i < section.size(); i++) {
+                if (section.get(i) == request) {
+                    section.remove(i);
+                    break;
+                }
+            }
+            if (section.isEmpty()) {
+                requestsBySection.remove(request.courseId);
+                String courseCode = CourseCode.of(request.courseId).getBaseCode();
+                Set<String> sections = sectionsByCourseCode.get(courseCode);
+                sections.remove(request.courseId);
+                if (sections.isEmpty()) {
+                    sectionsByCourseCode.remove(courseCode);
+                }
+            }
+        }
+        size -= removed.size();
+        return removed;
+    }
+
+    /**
+     * Removes all requests.
+     */
+    public void clear() {
+        sectionsByCourseCode.clear();
+        requestsBySection.clear();
+        requestsByStudent.clear();
+        size = 0;
+    }
+
+    /**
+     * @return course codes with at least one request, in the order their first request was added
+     */
+    public List<String> getCourseCodes() {
+        return new ArrayList<>(sectionsByCourseCode.keySet());
+    }
+
+    /**
+     * @param courseCode course code without a location (e.g., "CS181DV")
+     * @return the requested sections of the course, in the order they were first requested
+     */
+    public Set<String> getSectionIds(String courseCode) {
+        Set<String> sections = sectionsByCourseCode.get(courseCode);
+        return sections == null ? Collections.emptySet() : Collections.unmodifiableSet(sections);
+    }
+
+    /**
+     * @param courseCode course code without a location
+     * @return number of requests across the course's sections
+     */
+    public int countRequests(String courseCode) {
+        int count = 0;
+        for (String sectionId : getSectionIds(courseCode)) {
+            count += requestsBySection.get(sectionId).size();
+        }
+        return count;
+    }
+
+    /**
+     * @return the requests for a section, in the order they were added
+     */
+    public List<ClassRequest> getRequestsForSection(String sectionId) {
+        List<ClassRequest> section = requestsBySection.get(sectionId);
+        return section == null ? Collections.emptyList() : Collections.unmodifiableList(section);
+    }
+
+    /**
+     * @return a student's requests, in the order they were added
+     */
+    public List<ClassRequest> getRequestsForStudent(String studentId) {
+        List<ClassRequest> requests = requestsByStudent.get(studentId);
+        return requests == null ? Collections.emptyList() : Collections.unmodifiableList(requests);
+    }
+
+    /**
+     * Lists every request, grouped by student: students in the order their first current
+     * request was added, each student's requests in the order they were added.
+     * Time Complexity: O(n) for n requests
+     * @return a new list of all requests
+     */
+    public List<ClassRequest> getRequests() {
+        List<ClassRequest> requests = new ArrayList<>(size);
+        for (List<ClassRequest> studentRequests : requestsByStudent.values()) {
+            requests.addAll(studentRequests);
+        }
+        return requests;
+    }
+
+    /**
+     * @return number of requests in the index
+     */
+    public int size() {
+        return size;
+    }
+}
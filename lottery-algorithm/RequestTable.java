@@ -0,0 +1,327 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * All requests of one run in columns (struct of arrays), with lottery weight and
+ * eligibility computed once.
+ *
+ * Students and sections get dense int IDs, and each request is a row of
+ * {@code studentIdx}, {@code sectionIdx}, {@code rank} and {@code weight}. Rows are sorted
+ * by section and then by student, with per-section offsets, so a course's requests are
+ * one contiguous range and a student's duplicate requests for a course sit next to each
+ * other. The engine, the waitlist analyzer, the simulator, the GUI and the exporters all
+ * scan these arrays instead of lists of ClassRequest objects and string-keyed maps.
+ *
+ * Weights are computed in parallel when the table is built, with eligibility read from an
+ * EligibilityMatrix: the registration system's matrix when the caller passes it in (only
+ * changed students are recomputed), otherwise one built over the run's students.
+ */
+public class RequestTable {
+
+    public final int currentYear;
+
+    // Dense IDs; students from the student list come first, in list order
+    private final IdDictionary studentIds = new IdDictionary();
+    private final IdDictionary sectionIds = new IdDictionary();
+    private students[] studentByIdx;  // null if a requested student ID is unknown
+    private classes[] sectionByIdx;   // null if a requested section ID is unknown
+
+    // One entry per row
+    private final int[] studentIdx;
+    private final int[] sectionIdx;
+    private final byte[] rank;
+    private final int[] weight;                                  // 0 = not in the lottery
+    private final PrerequisiteValidationResult[] failedChecks;   // set only when prerequisites are missing
+
+    // Rows of section s are sectionStart[s] .. sectionStart[s + 1] - 1
+    private int[] sectionStart;
+
+    // (student, section) -> row
+    private final LongIntHashMap rowByKey;
+
+    private RequestTable(int rows, int currentYear) {
+        this.currentYear = currentYear;
+        this.studentIdx = new int[rows];
+        this.sectionIdx = new int[rows];
+        this.rank = new byte[rows];
+        this.weight = new int[rows];
+        this.failedChecks = new PrerequisiteValidationResult[rows];
+        this.rowByKey = new LongIntHashMap(rows);
+    }
+
+    /**
+     * Builds the table and computes the weight of every request, in parallel.
+     * Prerequisites are checked once per request; the result is kept for rejected requests.
+     *
+     * @param studentList  list of all students
+     * @param courseList   list of all classes (courses)
+     * @param requestList  list of all class requests
+     * @param currentYear  academic year used to determine student standing
+     * @return the filled table
+     */
+    public static RequestTable build(List<students> studentList,
+                                     List<classes> courseList,
+                                     List<ClassRequest> requestList,
+                                     int currentYear) {
+        return build(studentList, courseList, requestList, currentYear, null);
+    }
+
+    /**
+     * Builds the table, reading eligibility from an existing matrix.
+     * The run's students are brought up to date with {@link EligibilityMatrix#updateStudent},
+     * which is a no-op for students whose transcript has not changed.
+     *
+     * @param studentList  list of all students
+     * @param courseList   list of all classes (courses)
+     * @param requestList  list of all class requests
+     * @param currentYear  academic year used to determine student standing
+     * @param eligibility  shared matrix (e.g. RegistrationSystem.getEligibilityMatrix()),
+     *                     or null to build one over the run's students
+     * @return the filled table
+     */
+    public static RequestTable build(List<students> studentList,
+                                     List<classes> courseList,
+                                     List<ClassRequest> requestList,
+                                     int currentYear,
+                                     EligibilityMatrix eligibility) {
+        int n = requestList.size();
+        RequestTable table = new RequestTable(n, currentYear);
+
+        List<students> knownStudents = new ArrayList<>();
+        for (students s : studentList) {
+            if (table.studentIds.add(s.studentId) == knownStudents.size()) {
+                knownStudents.add(s);
+            }
+        }
+        List<classes> knownSections = new ArrayList<>();
+        for (classes c : courseList) {
+            if (table.sectionIds.add(c.courseSectionId) == knownSections.size()) {
+                knownSections.add(c);
+            }
+        }
+
+        // Dense IDs per request, in request order
+        int[] studentOfRequest = new int[n];
+        int[] sectionOfRequest = new int[n];
+        for (int i = 0; i < n; i++) {
+            ClassRequest req = requestList.get(i);
+            studentOfRequest[i] = table.studentIds.add(req.studentId);
+            sectionOfRequest[i] = table.sectionIds.add(req.courseId);
+        }
+        table.studentByIdx = knownStudents.toArray(new students[table.studentIds.size()]);
+        table.sectionByIdx = knownSections.toArray(new classes[table.sectionIds.size()]);
+
+        // Counting sort by section, then sort each section's rows by (student, request order)
+        int sections = table.sectionIds.size();
+        int[] start = new int[sections + 1];
+        for (int i = 0; i < n; i++) {
+            start[sectionOfRequest[i] + 1]++;
+        }
+        for (int s = 0; s < sections; s++) {
+            start[s + 1] += start[s];
+        }
+        int[] requestOfRow = new int[n];
+        int[] next = java.util.Arrays.copyOf(start, sections);
+        for (int i = 0; i < n; i++) {
+            requestOfRow[next[sectionOfRequest[i]]++] = i;
+        }
+        for (int s = 0; s < sections; s++) {
+            long[] keys = new long[start[s + 1] - start[s]];
+            for (int k = 0; k < keys.length; k++) {
+                int request = requestOfRow[start[s] + k];
+                keys[k] = IdDictionary.pack(studentOfRequest[request], request);
+            }
+            java.util.Arrays.sort(keys);
+            for (int k = 0; k < keys.length; k++) {
+                requestOfRow[start[s] + k] = (int) keys[k];
+            }
+        }
+        table.sectionStart = start;
+
+        for (int row = 0; row < n; row++) {
+            int request = requestOfRow[row];
+            table.studentIdx[row] = studentOfRequest[request];
+            table.sectionIdx[row] = sectionOfRequest[request];
+            table.rank[row] = (byte) requestList.get(request).preferenceRank;
+            // Rows run in request order within a (student, section) pair, so a repeated request ends on the last one
+            table.rowByKey.put(IdDictionary.pack(studentOfRequest[request], sectionOfRequest[request]), row);
+        }
+
+        // One eligibility bit per (student, course with prerequisites); the matrix is only
+        // updated here, on this thread, and read by the parallel weight pass below
+        PrerequisiteGraph graph = PrerequisiteChecker.getPrerequisiteGraph();
+        EligibilityMatrix matrix;
+        if (eligibility != null) {
+            for (students s : knownStudents) {
+                eligibility.updateStudent(s.studentId, s.getTranscriptBits(graph));
+            }
+            matrix = eligibility;
+        } else {
+            List<String> eligibilityIds = new ArrayList<>(knownStudents.size());
+            List<long[]> transcripts = new ArrayList<>(knownStudents.size());
+            for (students s : knownStudents) {
+                eligibilityIds.add(s.studentId);
+                transcripts.add(s.getTranscriptBits(graph));
+            }
+            matrix = EligibilityMatrix.build(graph, eligibilityIds, transcripts);
+        }
+
+        // Matrix rows and columns are looked up once per student and section, so the weight
+        // pass is a bit test per request; a result object is only built for rejected requests
+        int[] matrixRow = new int[table.studentByIdx.length];
+        for (int i = 0; i < matrixRow.length; i++) {
+            matrixRow[i] = (table.studentByIdx[i] != null) ? matrix.rowOf(table.studentByIdx[i].studentId) : -1;
+        }
+        int[] matrixColumn = new int[sections];
+        for (int i = 0; i < sections; i++) {
+            matrixColumn[i] = (table.sectionByIdx[i] != null)
+                    ? matrix.columnOf(CourseCode.of(table.sectionByIdx[i].courseSectionId).getCode()) : -1;
+        }
+
+        IntStream.range(0, n).parallel().forEach(row -> {
+            students s = table.studentByIdx[table.studentIdx[row]];
+            classes course = table.sectionByIdx[table.sectionIdx[row]];
+            if (s == null || course == null) return;
+
+            int student = matrixRow[table.studentIdx[row]];
+            int column = matrixColumn[table.sectionIdx[row]];
+            boolean eligible = column < 0 || (student >= 0 && matrix.isEligible(student, column));
+            if (!eligible) {
+                // Work out what is missing (or confirm eligibility for a student not in the matrix)
+                PrerequisiteValidationResult check = LotteryWeightCalculator.validatePrerequisites(s, course);
+                eligible = check.isEligible();
+                if (!eligible) {
+                    table.failedChecks[row] = check;
+                }
+            }
+            if (eligible) {
+                table.weight[row] = LotteryWeightCalculator.computeEligibleWeight(
+                        s, requestList.get(requestOfRow[row]), currentYear);
+            }
+        });
+
+        return table;
+    }
+
+    /**
+     * @return number of rows (requests) in the table
+     */
+    public int size() {
+        return weight.length;
+    }
+
+    /**
+     * @return number of distinct students (known or requested); student indexes run from 0 to this - 1
+     */
+    public int studentCount() {
+        return studentIds.size();
+    }
+
+    /**
+     * @return the dense index of a section, or -1 if it is not in the table
+     */
+    public int sectionOf(String courseId) {
+        return sectionIds.idOf(courseId);
+    }
+
+    /**
+     * @return first row of a section's requests
+     */
+    public int sectionStart(int section) {
+        return sectionStart[section];
+    }
+
+    /**
+     * @return one past the last row of a section's requests
+     */
+    public int sectionEnd(int section) {
+        return sectionStart[section + 1];
+    }
+
+    /**
+     * @return dense student index of a row
+     */
+    public int getStudentIndex(int row) {
+        return studentIdx[row];
+    }
+
+    /**
+     * @return dense section index of a row
+     */
+    public int getSectionIndex(int row) {
+        return sectionIdx[row];
+    }
+
+    /**
+     * @return preference rank of a row (1-4)
+     */
+    public int getRank(int row) {
+        return rank[row];
+    }
+
+    /**
+     * @return lottery weight of a row (0 if it is not in the lottery)
+     */
+    public int getWeight(int row) {
+        return weight[row];
+    }
+
+    /**
+     * @return the requesting student's ID
+     */
+    public String getStudentId(int row) {
+        return studentIds.nameOf(studentIdx[row]);
+    }
+
+    /**
+     * @return the requested section's ID
+     */
+    public String getCourseId(int row) {
+        return sectionIds.nameOf(sectionIdx[row]);
+    }
+
+    /**
+     * @return the requesting student, or null if the student ID is unknown
+     */
+    public students getStudent(int row) {
+        return studentByIdx[studentIdx[row]];
+    }
+
+    /**
+     * @return the requested course, or null if the course ID is unknown
+     */
+    public classes getCourse(int row) {
+        return sectionByIdx[sectionIdx[row]];
+    }
+
+    /**
+     * @return the prerequisite check for a request that failed it, or null if it passed or was not checked
+     */
+    public PrerequisiteValidationResult getFailedCheck(int row) {
+        return failedChecks[row];
+    }
+
+    /**
+     * Finds a specific student's request for a course, without allocating.
+     * If the same request appears more than once, the last one is found.
+     * @return the row, or -1 if there is no such request
+     */
+    public int indexOf(String studentId, String courseId) {
+        int student = studentIds.idOf(studentId);
+        int section = sectionIds.idOf(courseId);
+        if (student < 0 || section < 0) {
+            return -1;
+        }
+        return rowByKey.get(IdDictionary.pack(student, section));
+    }
+
+    /**
+     * Gets the weight of a specific student's request for a course.
+     * @return the weight, or 0 if there is no such request or it is not in the lottery
+     */
+    public int getWeight(String studentId, String courseId) {
+        int row = indexOf(studentId, courseId);
+        return (row >= 0) ? weight[row] : 0;
+    }
+}
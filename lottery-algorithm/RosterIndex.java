@@ -0,0 +1,82 @@
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Constant-time "is this student enrolled in this course?" lookups for one lottery run.
+ *
+ * Students get dense int IDs, and each course roster is kept as a small open-addressing
+ * set of those IDs (linear probing, table at most half full), so a lookup is two hash map
+ * gets and a probe or two instead of a scan of the roster. Memory grows with the number
+ * of enrollments, not with courses x students.
+ */
+public class RosterIndex {
+
+    private static final int EMPTY = -1;
+
+    private final IdDictionary studentIds = new IdDictionary();
+    private final Map<String, int[]> rosterByCourse = new HashMap<>();
+
+    /**
+     * Indexes the rosters produced by a lottery run.
+     *
+     * @param studentList       students in the run (their order fixes the dense IDs)
+     * @param enrolledByCourse  courseId -> enrolled students
+     */
+    public RosterIndex(List<students> studentList, Map<String, List<students>> enrolledByCourse) {
+        for (students s : studentList) {
+            studentIds.add(s.studentId);
+        }
+        for (Map.Entry<String, List<students>> entry : enrolledByCourse.entrySet()) {
+            List<students> roster = entry.getValue();
+            int[] table = new int[tableSize(roster.size())];
+            java.util.Arrays.fill(table, EMPTY);
+            for (students s : roster) {
+                insert(table, studentIds.add(s.studentId));
+            }
+            rosterByCourse.put(entry.getKey(), table);
+        }
+    }
+
+    /**
+     * @param studentId The student ID
+     * @param courseId  The course ID
+     * @return true if the student won a seat in the course in this run
+     */
+    public boolean isEnrolled(String studentId, String courseId) {
+        int id = studentIds.idOf(studentId);
+        int[] table = rosterByCourse.get(courseId);
+        return id >= 0 && table != null && contains(table, id);
+    }
+
+    private static int tableSize(int rosterSize) {
+        return Math.max(2, Integer.highestOneBit(Math.max(1, rosterSize)) << 2);
+    }
+
+    private static int slot(int id, int mask) {
+        // Fibonacci hashing: the top bits of id * 2^32/phi spread consecutive IDs evenly
+        return (id * 0x9E3779B9) >>> Integer.numberOfLeadingZeros(mask);
+    }
+
+    private static void insert(int[] table, int id) {
+        int mask = table.length - 1;
+        for (int i = slot(id, mask); ; i = (i + 1) & mask) {
+            if (table[i] == EMPTY) {
+                table[i] = id;
+                return;
+            }
+            if (table[i] == id) {
+                return;
+            }
+        }
+    }
+
+    private static boolean contains(int[] table, int id) {
+        int mask = table.length - 1;
+        for (int i = slot(id, mask); ; i = (i + 1) & mask) {
+            int value = table[i];
+            if (value == id) return true;
+            if (value == EMPTY) return false;
+        }
+    }
+}
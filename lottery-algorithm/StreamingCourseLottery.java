@@ -0,0 +1,125 @@
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.random.RandomGenerator;
+
+/**
+ * One-pass weighted lottery for a single course (Efraimidis–Spirakis sampling).
+ *
+ * Every eligible request gets the key u^(1/weight) for a uniform u in (0, 1], and the
+ * requests with the largest keys win. Taking the top k keys gives exactly the same
+ * distribution as drawing k winners one at a time, proportional to weight, without
+ * replacement. Only the best {@code seats + waitlistDepth} keys are kept, so requests
+ * can be fed in one at a time as they are read, without building a per-course list first.
+ *
+ * Keys are stored as log(u) / weight, which sorts the same way and does not underflow.
+ */
+public class StreamingCourseLottery {
+
+    private static final class Entry {
+        final students student;
+        final double key;
+
+        Entry(students student, double key) {
+            this.student = student;
+            this.key = key;
+        }
+    }
+
+    private final int seats;
+    private final int keep;
+    private final PriorityQueue<Entry> heap; // min-heap on key: weakest entry on top
+    private final Map<String, Entry> entryByStudent = new HashMap<>();
+    private int offered;
+
+    /**
+     * @param seats          number of seats to fill (negative counts as 0)
+     * @param waitlistDepth  number of ranked waitlist spots to keep after the seats
+     *                       (Integer.MAX_VALUE keeps a complete waitlist)
+     */
+    public StreamingCourseLottery(int seats, int waitlistDepth) {
+        this.seats = Math.max(seats, 0);
+        long total = (long) this.seats + Math.max(waitlistDepth, 0);
+        this.keep = (int) Math.min(total, Integer.MAX_VALUE);
+        this.heap = new PriorityQueue<>(Math.max(1, Math.min(keep, 1024)),
+                Comparator.comparingDouble((Entry e) -> e.key));
+    }
+
+    /**
+     * Offers one eligible request to the lottery.
+     * A student offered more than once keeps their best key, which is the same as
+     * entering once with the sum of their weights.
+     *
+     * @param student the requesting student
+     * @param weight  the request's lottery weight (requests with weight <= 0 are ignored)
+     * @param rand    random source
+     */
+    public void offer(students student, int weight, RandomGenerator rand) {
+        if (student == null || weight <= 0 || keep == 0) {
+            return;
+        }
+        offered++;
+
+        double u = 1.0 - rand.nextDouble(); // (0, 1], so log(u) is finite
+        double key = Math.log(u) / weight;
+
+        Entry existing = entryByStudent.get(student.studentId);
+        if (existing != null) {
+            if (key <= existing.key) return;
+            heap.remove(existing);
+            entryByStudent.remove(student.studentId);
+        }
+
+        if (heap.size() < keep) {
+            push(new Entry(student, key));
+        } else if (key > heap.peek().key) {
+            Entry evicted = heap.poll();
+            entryByStudent.remove(evicted.student.studentId);
+            push(new Entry(student, key));
+        }
+    }
+
+    private void push(Entry entry) {
+        heap.add(entry);
+        entryByStudent.put(entry.student.studentId, entry);
+    }
+
+    /**
+     * @return number of eligible requests offered so far
+     */
+    public int getOfferedCount() {
+        return offered;
+    }
+
+    /**
+     * @return winning students, best key first
+     */
+    public List<students> getEnrolled() {
+        List<students> ranked = ranked();
+        return new ArrayList<>(ranked.subList(0, Math.min(seats, ranked.size())));
+    }
+
+    /**
+     * @return kept students who did not get a seat, in waitlist order
+     */
+    public List<students> getWaitlist() {
+        List<students> ranked = ranked();
+        if (ranked.size() <= seats) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(ranked.subList(seats, ranked.size()));
+    }
+
+    private List<students> ranked() {
+        List<Entry> entries = new ArrayList<>(heap);
+        entries.sort(Comparator.comparingDouble((Entry e) -> e.key).reversed());
+        List<students> ranked = new ArrayList<>(entries.size());
+        for (Entry e : entries) {
+            ranked.add(e.student);
+        }
+        return ranked;
+    }
+}
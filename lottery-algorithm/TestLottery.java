@@ -136,6 +136,950 @@ public class TestLottery {
                 System.out.println();
             }
         }
+
+        testSamplerMatchesTicketPool();
+        testBucketSamplerDistribution();
+        testSeededSubsetAndReplay();
+        testRosterIndex();
+        testLongIntHashMap();
+        testStreamingLottery();
+        testParallelMatchesSequential();
+        testLotterySimulator();
+        testAdmissionEstimator();
+        testSharedEligibilityMatrix();
+        testCourseJsonLoader();
+        testCourseJsonLoaderChunks();
+        testRequestIndex();
+        testSimulatorThreadCount();
+        testRequestTableWeights();
+        testRegistrationSnapshot();
+        testRequestJournal();
+    }
+
+    /**
+     * Checks that FenwickSampler picks the same students, in the same order,
+     * as drawing from an expanded ticket pool with the same random seed.
+     */
+    private static void testSamplerMatchesTicketPool() {
+        int[] weights = {14, 22, 11, 18, 15, 20, 13, 17};
+        long seed = 42L;
+
+        // Reference: expanded ticket pool, remove all tickets of the chosen slot
+        List<Integer> ticketPool = new ArrayList<>();
+        for (int slot = 0; slot < weights.length; slot++) {
+            for (int i = 0; i < weights[slot]; i++) {
+                ticketPool.add(slot);
+            }
+        }
+        java.util.Random poolRand = new java.util.Random(seed);
+        List<Integer> expected = new ArrayList<>();
+        while (!ticketPool.isEmpty()) {
+            Integer chosen = ticketPool.get(poolRand.nextInt(ticketPool.size()));
+            expected.add(chosen);
+            ticketPool.removeIf(t -> t.equals(chosen));
+        }
+
+        FenwickSampler sampler = new FenwickSampler(weights);
+        java.util.Random samplerRand = new java.util.Random(seed);
+        List<Integer> actual = new ArrayList<>();
+        while (!sampler.isEmpty()) {
+            actual.add(sampler.draw(samplerRand));
+        }
+
+        System.out.println("=== SAMPLER CHECK ===");
+        System.out.println("Ticket pool order:  " + expected);
+        System.out.println("Fenwick order:      " + actual);
+        System.out.println(expected.equals(actual) ? "Sampler matches ticket pool" : "ERROR: sampler mismatch");
     }
-    
+
+    /**
+     * Checks that BucketSampler's first draw follows weight / totalWeight,
+     * and that WeightedSampler.create falls back to the tree for wide weight domains.
+     */
+    private static void testBucketSamplerDistribution() {
+        int[] weights = {11, 22, 11, 14, 22, 17, 0, 13};
+        int trials = 200000;
+        java.util.Random rand = new java.util.Random(7L);
+
+        long total = 0;
+        for (int w : weights) total += w;
+
+        int[] firstDraws = new int[weights.length];
+        for (int t = 0; t < trials; t++) {
+            firstDraws[new BucketSampler(weights, weights.length).draw(rand)]++;
+        }
+
+        System.out.println("=== BUCKET SAMPLER CHECK ===");
+        boolean ok = true;
+        for (int i = 0; i < weights.length; i++) {
+            double expected = weights[i] / (double) total;
+            double actual = firstDraws[i] / (double) trials;
+            System.out.printf("  slot %d (weight %d): expected %.4f, got %.4f%n", i, weights[i], expected, actual);
+            if (Math.abs(expected - actual) > 0.01) ok = false;
+        }
+        System.out.println(ok ? "Bucket sampler distribution OK" : "ERROR: bucket sampler distribution off");
+
+        int[] wide = new int[WeightedSampler.MAX_BUCKETS + 1];
+        for (int i = 0; i < wide.length; i++) wide[i] = 10 + i;
+        WeightedSampler sampler = WeightedSampler.create(wide, wide.length);
+        System.out.println("Sampler for " + wide.length + " distinct weights: " + sampler.getClass().getSimpleName());
+    }
+
+    /**
+     * Checks that a seeded run over a subset of courses, and a single-course replay,
+     * draw the same winners as a full run with the same master seed.
+     */
+    private static void testSeededSubsetAndReplay() {
+        long seed = 20250101L;
+        List<String> prereqs = new ArrayList<>(Arrays.asList("CS51", "CS54", "CS62"));
+        List<students> studentList = new ArrayList<>();
+        List<ClassRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            String id = "S" + i;
+            studentList.add(new students(id, "Student " + i, prereqs, new ArrayList<>(),
+                    2025 + (i % 4), students.MajorStatus.values()[i % 3]));
+            requests.add(new ClassRequest(id, "CS101-01", 1 + (i % 4)));
+            requests.add(new ClassRequest(id, "CS105-01", 1 + ((i + 1) % 4)));
+        }
+
+        LotteryEngine engine = new LotteryEngine();
+        Map<String, List<students>> full = engine.runLottery(studentList,
+                Arrays.asList(new classes("CS101-01", "01", 5, 0, 1.0), new classes("CS105-01", "01", 5, 0, 1.0)),
+                requests, seed);
+        Map<String, List<students>> subset = engine.runLottery(studentList,
+                Arrays.asList(new classes("CS105-01", "01", 5, 0, 1.0)), requests, seed);
+        List<students> replay = engine.replayCourse(studentList,
+                new classes("CS105-01", "01", 5, 0, 1.0), 0, requests, seed);
+
+        System.out.println("=== SEEDED RUN CHECK ===");
+        System.out.println("Full run CS105-01:   " + ids(full.get("CS105-01")));
+        System.out.println("Subset run CS105-01: " + ids(subset.get("CS105-01")));
+        System.out.println("Replay CS105-01:     " + ids(replay));
+        boolean ok = ids(full.get("CS105-01")).equals(ids(subset.get("CS105-01")))
+                && ids(full.get("CS105-01")).equals(ids(replay));
+        System.out.println(ok ? "Seeded runs are reproducible" : "ERROR: seeded runs differ");
+    }
+
+    /**
+     * Checks RosterIndex against the roster lists for every student and course.
+     */
+    private static void testRosterIndex() {
+        List<students> studentList = new ArrayList<>();
+        Map<String, List<students>> enrolledByCourse = new java.util.HashMap<>();
+        for (int i = 0; i < 500; i++) {
+            studentList.add(new students("S" + i, "Student " + i, null, null, 2026, null));
+        }
+        for (int c = 0; c < 5; c++) {
+            List<students> roster = new ArrayList<>();
+            for (int i = c; i < studentList.size(); i += c + 2) {
+                roster.add(studentList.get(i));
+            }
+            enrolledByCourse.put("C" + c, roster);
+        }
+        enrolledByCourse.put("EMPTY", new ArrayList<>());
+
+        RosterIndex index = new RosterIndex(studentList, enrolledByCourse);
+        boolean ok = !index.isEnrolled("S0", "NONE") && !index.isEnrolled("NOBODY", "C0");
+        for (Map.Entry<String, List<students>> entry : enrolledByCourse.entrySet()) {
+            for (students s : studentList) {
+                ok &= index.isEnrolled(s.studentId, entry.getKey()) == entry.getValue().contains(s);
+            }
+        }
+        System.out.println("=== ROSTER INDEX CHECK ===");
+        System.out.println(ok ? "Roster index matches rosters" : "ERROR: roster index mismatch");
+    }
+
+    /**
+     * Checks LongIntHashMap against a HashMap, through several resizes.
+     */
+    private static void testLongIntHashMap() {
+        LongIntHashMap map = new LongIntHashMap(4);
+        Map<Long, Integer> expected = new java.util.HashMap<>();
+        java.util.Random rand = new java.util.Random(3L);
+        for (int i = 0; i < 5000; i++) {
+            long key = IdDictionary.pack(rand.nextInt(300), rand.nextInt(300));
+            map.put(key, i);
+            expected.put(key, i);
+        }
+        boolean ok = map.size() == expected.size() && map.get(IdDictionary.pack(-1, 7)) == -1;
+        for (Map.Entry<Long, Integer> entry : expected.entrySet()) {
+            ok &= map.get(entry.getKey()) == entry.getValue();
+        }
+        System.out.println("=== LONG KEY MAP CHECK ===");
+        System.out.println(ok ? "Long key map matches HashMap" : "ERROR: long key map mismatch");
+    }
+
+    /**
+     * Checks that the streaming lottery seats students with the same probabilities as
+     * the Fenwick sampler, that a student offered twice behaves like one entry with the
+     * summed weight, and that a seeded streaming run is reproducible.
+     */
+    private static void testStreamingLottery() {
+        int[] weights = {1, 2, 3, 4, 6};
+        int seats = 2;
+        int trials = 100000;
+        List<students> pool = new ArrayList<>();
+        for (int i = 0; i < weights.length; i++) {
+            pool.add(new students("S" + i, "Student " + i, null, null, 2026, null));
+        }
+
+        int[] fenwickSeats = new int[weights.length];
+        int[] streamingSeats = new int[weights.length];
+        java.util.Random rand = new java.util.Random(11L);
+        for (int t = 0; t < trials; t++) {
+            FenwickSampler sampler = new FenwickSampler(weights);
+            for (int k = 0; k < seats; k++) {
+                fenwickSeats[sampler.draw(rand)]++;
+            }
+            StreamingCourseLottery lottery = new StreamingCourseLottery(seats, 0);
+            java.util.SplittableRandom stream = LotteryEngine.courseStream(t, "CS101-01");
+            for (int i = 0; i < weights.length; i++) {
+                lottery.offer(pool.get(i), weights[i], stream);
+            }
+            for (students s : lottery.getEnrolled()) {
+                streamingSeats[pool.indexOf(s)]++;
+            }
+        }
+
+        System.out.println("=== STREAMING LOTTERY CHECK ===");
+        boolean ok = true;
+        for (int i = 0; i < weights.length; i++) {
+            double expected = fenwickSeats[i] / (double) trials;
+            double actual = streamingSeats[i] / (double) trials;
+            System.out.printf("  weight %d: Fenwick %.4f, streaming %.4f%n", weights[i], expected, actual);
+            if (Math.abs(expected - actual) > 0.01) ok = false;
+        }
+        System.out.println(ok ? "Streaming lottery matches Fenwick sampler" : "ERROR: streaming lottery distribution off");
+
+        // One seat: a student offered weights 1 and 2 against one offered weight 3 wins half the time
+        students twice = pool.get(0);
+        students once = pool.get(1);
+        int twiceWins = 0;
+        for (int t = 0; t < trials; t++) {
+            StreamingCourseLottery lottery = new StreamingCourseLottery(1, 0);
+            java.util.SplittableRandom stream = LotteryEngine.courseStream(t, "CS105-01");
+            lottery.offer(twice, 1, stream);
+            lottery.offer(once, 3, stream);
+            lottery.offer(twice, 2, stream);
+            if (lottery.getEnrolled().get(0) == twice) twiceWins++;
+        }
+        double twiceRate = twiceWins / (double) trials;
+        System.out.printf("  duplicate requests (1 + 2 vs 3): %.4f%n", twiceRate);
+        System.out.println(Math.abs(twiceRate - 0.5) <= 0.01
+                ? "Duplicate requests count as summed weight" : "ERROR: duplicate requests mis-weighted");
+
+        // Same seed, same request order: same winners and waitlist
+        List<String> prereqs = new ArrayList<>(Arrays.asList("CS51", "CS54", "CS62"));
+        List<students> studentList = new ArrayList<>();
+        List<ClassRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            String id = "S" + i;
+            studentList.add(new students(id, "Student " + i, prereqs, new ArrayList<>(),
+                    2025 + (i % 4), students.MajorStatus.values()[i % 3]));
+            requests.add(new ClassRequest(id, "CS101-01", 1 + (i % 4)));
+            requests.add(new ClassRequest(id, "CS105-01", 1 + ((i + 1) % 4)));
+        }
+        LotteryEngine engine = new LotteryEngine();
+        Map<String, StreamingCourseLottery> first = engine.runStreamingLottery(studentList,
+                Arrays.asList(new classes("CS101-01", "01", 5, 0, 1.0), new classes("CS105-01", "01", 5, 0, 1.0)),
+                requests, 10, 99L);
+        Map<String, StreamingCourseLottery> second = engine.runStreamingLottery(studentList,
+                Arrays.asList(new classes("CS101-01", "01", 5, 0, 1.0), new classes("CS105-01", "01", 5, 0, 1.0)),
+                requests, 10, 99L);
+        boolean same = true;
+        for (String courseId : Arrays.asList("CS101-01", "CS105-01")) {
+            same &= ids(first.get(courseId).getEnrolled()).equals(ids(second.get(courseId).getEnrolled()))
+                    && ids(first.get(courseId).getWaitlist()).equals(ids(second.get(courseId).getWaitlist()))
+                    && first.get(courseId).getEnrolled().size() == 5;
+        }
+        System.out.println(same ? "Seeded streaming runs are reproducible" : "ERROR: seeded streaming runs differ");
+    }
+
+    /**
+     * Checks that a parallel run, a sequential run and a full-term run with waitlist
+     * analysis draw the same winners for every section with the same master seed.
+     */
+    private static void testParallelMatchesSequential() {
+        long seed = 314159L;
+        int sections = 200;
+        List<String> prereqs = new ArrayList<>(Arrays.asList("CS51", "CS54", "CS62"));
+        List<students> studentList = new ArrayList<>();
+        List<ClassRequest> requests = new ArrayList<>();
+        java.util.Random rand = new java.util.Random(5L);
+        for (int i = 0; i < 2000; i++) {
+            String id = "S" + i;
+            studentList.add(new students(id, "Student " + i, prereqs, new ArrayList<>(),
+                    2025 + (i % 4), students.MajorStatus.values()[i % 3]));
+            for (int r = 0; r < 4; r++) {
+                requests.add(new ClassRequest(id, "CS" + (100 + rand.nextInt(sections)) + "-01", 1 + r));
+            }
+        }
+
+        LotteryEngine engine = new LotteryEngine();
+        Map<String, List<students>> sequential = engine.runLottery(studentList, sectionList(sections), requests, seed);
+        Map<String, List<students>> parallel = engine.runLotteryParallel(studentList, sectionList(sections), requests, seed);
+        LotteryEngine.LotteryResult fullTerm = engine.runLotteryWithWaitlist(studentList, sectionList(sections), requests, seed);
+
+        boolean ok = sequential.size() == sections && parallel.size() == sections
+                && fullTerm.enrolledByCourse.size() == sections;
+        for (Map.Entry<String, List<students>> entry : sequential.entrySet()) {
+            ok &= ids(entry.getValue()).equals(ids(parallel.get(entry.getKey())))
+                    && ids(entry.getValue()).equals(ids(fullTerm.enrolledByCourse.get(entry.getKey())));
+        }
+        System.out.println("=== PARALLEL LOTTERY CHECK ===");
+        System.out.println(ok ? "Parallel and sequential runs match over " + sections + " sections"
+                : "ERROR: parallel run differs from sequential run");
+    }
+
+    /**
+     * Checks LotterySimulator: uncontested seats are certain, one seat is shared in
+     * proportion to weight, the Wilson interval contains the estimate, and a fixed
+     * seed gives the same counts.
+     */
+    private static void testLotterySimulator() {
+        List<String> prereqs = new ArrayList<>(Arrays.asList("CS51", "CS54", "CS62"));
+        int gradYear = java.time.Year.now().getValue() + 4; // same year, major and rank: equal weights
+        students a = new students("A", "Ann", prereqs, new ArrayList<>(), gradYear, students.MajorStatus.NON_MAJOR);
+        students b = new students("B", "Ben", prereqs, new ArrayList<>(), gradYear, students.MajorStatus.NON_MAJOR);
+        students c = new students("C", "Cal", prereqs, new ArrayList<>(), gradYear, students.MajorStatus.NON_MAJOR);
+        List<students> studentList = Arrays.asList(a, b, c);
+        LotterySimulator simulator = new LotterySimulator();
+        int replicas = 40000;
+
+        // Five seats for three students: everyone is admitted in every replica
+        List<ClassRequest> open = Arrays.asList(new ClassRequest("A", "CS101-01", 4),
+                new ClassRequest("B", "CS101-01", 4), new ClassRequest("C", "CS101-01", 4));
+        LotterySimulator.SimulationResult uncontested = simulator.simulate(studentList,
+                Arrays.asList(new classes("CS101-01", "01", 5, 0, 1.0)), open, replicas, 1L);
+        boolean certain = true;
+        for (String id : Arrays.asList("A", "B", "C")) {
+            certain &= uncontested.getProbability(id, "CS101-01") == 1.0;
+        }
+
+        // One seat; B's three equal requests add up to three times A's weight
+        List<ClassRequest> contested = Arrays.asList(new ClassRequest("A", "CS105-01", 4),
+                new ClassRequest("B", "CS105-01", 4), new ClassRequest("B", "CS105-01", 4),
+                new ClassRequest("B", "CS105-01", 4));
+        List<classes> oneSeat = Arrays.asList(new classes("CS105-01", "01", 1, 0, 1.0));
+        LotterySimulator.SimulationResult first = simulator.simulate(studentList, oneSeat, contested, replicas, 2L);
+        LotterySimulator.SimulationResult second = simulator.simulate(studentList, oneSeat, contested, replicas, 2L);
+        double pA = first.getProbability("A", "CS105-01");
+        double pB = first.getProbability("B", "CS105-01");
+        boolean proportional = Math.abs(pA - 0.25) <= 0.01 && Math.abs(pB - 0.75) <= 0.01;
+
+        boolean inInterval = true;
+        boolean reproducible = true;
+        for (int row = 0; row < first.getRequests().size(); row++) {
+            double[] ci = first.getConfidenceInterval(row, 1.96);
+            double p = first.getProbability(row);
+            inInterval &= ci[0] <= p && p <= ci[1] && ci[0] < ci[1];
+            reproducible &= first.getAdmissions(row) == second.getAdmissions(row);
+        }
+
+        System.out.println("=== LOTTERY SIMULATOR CHECK ===");
+        System.out.printf("  one seat, weights 1:3 -> %.4f / %.4f%n", pA, pB);
+        System.out.println(certain ? "Uncontested requests are always admitted" : "ERROR: uncontested request below 1");
+        System.out.println(proportional ? "One seat is shared by weight" : "ERROR: simulated probabilities off");
+        System.out.println(inInterval ? "Wilson interval contains the estimate" : "ERROR: estimate outside interval");
+        System.out.println(reproducible ? "Seeded simulations are reproducible" : "ERROR: seeded simulations differ");
+    }
+
+    /**
+     * Checks AdmissionEstimator: no more requests than seats is certain, equal weights
+     * give seats / n, and probabilityIfAdded matches really adding the request while
+     * leaving the estimator unchanged.
+     */
+    private static void testAdmissionEstimator() {
+        AdmissionEstimator open = new AdmissionEstimator(5);
+        for (int i = 0; i < 4; i++) open.add(15);
+        boolean certain = open.probabilityFor(15) == 1.0 && open.probabilityIfAdded(12) == 1.0;
+
+        AdmissionEstimator equal = new AdmissionEstimator(10);
+        for (int i = 0; i < 40; i++) equal.add(16);
+        boolean proportional = Math.abs(equal.probabilityFor(16) - 10 / 40.0) < 1e-6
+                && Math.abs(equal.probabilityIfAdded(16) - 10 / 41.0) < 1e-6;
+
+        AdmissionEstimator mixed = new AdmissionEstimator(8);
+        AdmissionEstimator added = new AdmissionEstimator(8);
+        for (int i = 0; i < 30; i++) {
+            mixed.add(12 + (i % 9));
+            added.add(12 + (i % 9));
+        }
+        added.add(40); // wider than the histogram so far
+        double before = mixed.probabilityFor(14);
+        int countBefore = mixed.getRequestCount();
+        double averageBefore = mixed.getAverageWeight();
+        double ifAdded = mixed.probabilityIfAdded(40);
+        boolean unchanged = mixed.getRequestCount() == countBefore
+                && mixed.getAverageWeight() == averageBefore
+                && mixed.probabilityFor(14) == before;
+        boolean matches = Math.abs(ifAdded - added.probabilityFor(40)) < 1e-9;
+
+        System.out.println("=== ADMISSION ESTIMATOR CHECK ===");
+        System.out.println(certain ? "Uncontested sections give 1.0" : "ERROR: uncontested section below 1.0");
+        System.out.println(proportional ? "Equal weights give seats / n" : "ERROR: equal weights not seats / n");
+        System.out.println(unchanged && matches ? "probabilityIfAdded leaves the estimator unchanged"
+                : "ERROR: probabilityIfAdded changed the estimator or disagrees with add");
+    }
+
+    /**
+     * Checks that a request table built from a shared eligibility matrix gives the same
+     * weights as one that builds its own, and picks up a transcript that changed after
+     * the matrix was built.
+     */
+    private static void testSharedEligibilityMatrix() {
+        List<students> studentList = new ArrayList<>();
+        List<ClassRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            List<String> past = new ArrayList<>();
+            if (i % 2 == 0) past.add("CS51");
+            if (i % 3 == 0) past.add("CS54");
+            studentList.add(new students("S" + i, "Student " + i, past, new ArrayList<>(),
+                    2025 + (i % 4), students.MajorStatus.values()[i % 3]));
+            requests.add(new ClassRequest("S" + i, "CS62-01", 1 + (i % 4)));
+            requests.add(new ClassRequest("S" + i, "CS101-01", 1 + ((i + 2) % 4)));
+        }
+        List<classes> courseList = Arrays.asList(new classes("CS62-01", "01", 10, 0, 1.0),
+                new classes("CS101-01", "01", 10, 0, 1.0));
+        int currentYear = java.time.Year.now().getValue();
+
+        PrerequisiteGraph graph = PrerequisiteChecker.getPrerequisiteGraph();
+        List<String> ids = new ArrayList<>();
+        List<long[]> transcripts = new ArrayList<>();
+        for (students s : studentList) {
+            ids.add(s.studentId);
+            transcripts.add(s.getTranscriptBits(graph));
+        }
+        EligibilityMatrix shared = EligibilityMatrix.build(graph, ids, transcripts);
+
+        // S1 has no CS51 yet; it completes it after the matrix was built
+        boolean wasIneligible = Boolean.FALSE.equals(shared.isEligible("S1", "CS62"));
+        studentList.get(1).pastClasses.add("CS51");
+
+        RequestTable own = RequestTable.build(studentList, courseList, requests, currentYear);
+        RequestTable reused = RequestTable.build(studentList, courseList, requests, currentYear, shared);
+        boolean ok = wasIneligible && own.size() == reused.size();
+        for (int row = 0; ok && row < own.size(); row++) {
+            ok &= own.getWeight(row) == reused.getWeight(row);
+        }
+        int row = reused.indexOf("S1", "CS62-01");
+        ok &= reused.getWeight(row) > 0 && Boolean.TRUE.equals(shared.isEligible("S1", "CS62"));
+
+        System.out.println("=== SHARED ELIGIBILITY CHECK ===");
+        System.out.println(ok ? "Shared eligibility matrix gives the same weights"
+                : "ERROR: shared eligibility matrix gives different weights");
+    }
+
+    /**
+     * Checks CourseJsonLoader on a file with a syntax error, a missing courseSectionId,
+     * bare and quoted numbers and escaped strings: the good records are loaded and the
+     * bad ones are reported with their byte offsets.
+     */
+    private static void testCourseJsonLoader() {
+        String good1 = "{\"courseSectionId\": \"CS51-01\", \"courseSectionNumber\": \"01\", "
+                + "\"capacity\": 30, \"currentEnrollment\": \"12\", \"creditHours\": 1.0}";
+        String good2 = "{\"courseSectionId\" : \"CS62-01\", \"courseSectionNumber\" : \"02\", "
+                + "\"capacity\" : \"25\", \"currentEnrollment\" : 5, \"status\" : {\"note\": [1, \"}\"]}, "
+                + "\"creditHours\" : \"1.5\"}";
+        String syntaxError = "{\"courseSectionId\": \"CS105-01\" \"courseSectionNumber\": \"01\"}";
+        String missingId = "{\"courseSectionNumber\": \"01\", \"capacity\": 10}";
+        String escaped = "{\"courseSectionId\": \"CS181\\\"DV\\u0041-01\", \"courseSectionNumber\": \"0\\\\1\", "
+                + "\"capacity\": 5, \"creditHours\": 0.5}";
+        String json = "[\n  " + good1 + ",\n  " + good2 + ",\n  " + syntaxError + ",\n  "
+                + missingId + ",\n  " + escaped + "\n]\n";
+
+        java.nio.file.Path file = null;
+        List<classes> courses = new ArrayList<>();
+        List<String> problems = new ArrayList<>();
+        try {
+            file = java.nio.file.Files.createTempFile("courses", ".json");
+            java.nio.file.Files.write(file, json.getBytes(java.nio.charset.StandardCharsets.UTF_8));
+            courses = CourseJsonLoader.loadCoursesFromJson(file.toString(), problems);
+        } catch (java.io.IOException e) {
+            System.out.println("ERROR: could not write course JSON: " + e.getMessage());
+        } finally {
+            if (file != null) file.toFile().delete();
+        }
+
+        int syntaxAt = json.indexOf(syntaxError) + syntaxError.indexOf("\"courseSectionNumber\"");
+        List<String> expectedProblems = Arrays.asList(
+                "at offset " + syntaxAt + ": expected ',' or '}' but found '\"'",
+                "at offset " + json.indexOf(missingId) + ": missing courseSectionId");
+        boolean ok = courses.size() == 3 && problems.equals(expectedProblems);
+        if (courses.size() == 3) {
+            classes c0 = courses.get(0);
+            classes c1 = courses.get(1);
+            classes c2 = courses.get(2);
+            ok &= c0.courseSectionId.equals("CS51-01") && c0.capacity == 30 && c0.currentEnrollment == 12
+                    && c0.creditHours == 1.0
+                    && c1.courseSectionId.equals("CS62-01") && c1.courseSectionNumber.equals("02")
+                    && c1.capacity == 25 && c1.currentEnrollment == 5 && c1.creditHours == 1.5
+                    && c2.courseSectionId.equals("CS181\"DVA-01") && c2.courseSectionNumber.equals("0\\1")
+                    && c2.capacity == 5 && c2.currentEnrollment == 0 && c2.creditHours == 0.5;
+        }
+        System.out.println("=== COURSE JSON LOADER CHECK ===");
+        System.out.println("Problems: " + problems);
+        System.out.println(ok ? "Course JSON loader reads good records and reports bad ones"
+                : "ERROR: course JSON loader returned " + courses.size() + " courses, problems " + problems);
+    }
+
+    /**
+     * Checks that parallel JSON loading matches sequential loading on a file of more than two
+     * chunks whose strings and nested values contain "},{" and escaped quotes.
+     */
+    private static void testCourseJsonLoaderChunks() {
+        // Long notes full of "},{" so the chunk boundaries fall inside strings
+        StringBuilder note = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            note.append("ends },{ and }, {\\\"},{\\\" ");
+        }
+        StringBuilder json = new StringBuilder("[\n");
+        int records = 0;
+        while (json.length() < 2 * CourseJsonLoader.CHUNK_SIZE + 4096) {
+            if (records > 0) {
+                json.append(",\n");
+            }
+            json.append("  {\"note\": \"").append(note).append("\", ")
+                    .append("\"status\": {\"history\": [{\"term\": \"FA24\"}, {\"term\": \"}\"}]}, ")
+                    .append("\"courseSectionId\": \"CS").append(records).append("-01\", ")
+                    .append("\"courseSectionNumber\": \"01\", \"capacity\": ").append(1 + records % 40)
+                    .append(", \"currentEnrollment\": 0, \"creditHours\": 1.0}");
+            records++;
+        }
+        json.append("\n]\n");
+
+        java.nio.file.Path file = null;
+        List<classes> sequential = new ArrayList<>();
+        List<classes> parallel = new ArrayList<>();
+        List<String> sequentialProblems = new ArrayList<>();
+        List<String> parallelProblems = new ArrayList<>();
+        try {
+            file = java.nio.file.Files.createTempFile("courses", ".json");
+            java.nio.file.Files.write(file, json.toString().getBytes(java.nio.charset.StandardCharsets.UTF_8));
+            sequential = CourseJsonLoader.loadCoursesFromJson(file.toString(), sequentialProblems, false);
+            parallel = CourseJsonLoader.loadCoursesFromJson(file.toString(), parallelProblems, true);
+        } catch (java.io.IOException e) {
+            System.out.println("ERROR: could not write course JSON: " + e.getMessage());
+        } finally {
+            if (file != null) file.toFile().delete();
+        }
+
+        boolean ok = sequential.size() == records && parallel.size() == records
+                && sequentialProblems.isEmpty() && parallelProblems.isEmpty();
+        for (int i = 0; ok && i < records; i++) {
+            classes a = sequential.get(i);
+            classes b = parallel.get(i);
+            ok = a.courseSectionId.equals(b.courseSectionId) && a.courseSectionNumber.equals(b.courseSectionNumber)
+                    && a.capacity == b.capacity && a.currentEnrollment == b.currentEnrollment
+                    && a.creditHours == b.creditHours;
+        }
+        System.out.println("=== COURSE JSON CHUNK CHECK ===");
+        System.out.println(ok ? "Parallel JSON load matches sequential for " + records + " records"
+                : "ERROR: parallel JSON load differs from sequential (" + parallel.size() + " vs "
+                        + sequential.size() + " records, problems " + parallelProblems.size() + ")");
+    }
+
+    /**
+     * Checks RequestIndex, including its course code order, against a plain scan of the same
+     * requests, through random sequences of adds and student removals.
+     */
+    private static void testRequestIndex() {
+        String[] sections = {"CSCI181DVPO-01 SP2025", "CSCI062 LPO-01 SP2025", "CSCI062  PO-01 SP2025",
+                "CSCI140  HM-01 SP2025", "CSCI140  PO-01 SP2025", "CSCI051ALPO-03 SP2025", "CSCI005  HM-02 SP2025"};
+        java.util.Random rand = new java.util.Random(3L);
+        RequestIndex index = new RequestIndex();
+        List<ClassRequest> all = new ArrayList<>();
+        List<String> codeOrder = new ArrayList<>(); // a code goes to the end when its count goes from 0 to 1
+        boolean ok = true;
+
+        for (int step = 0; step < 5000 && ok; step++) {
+            if (rand.nextInt(4) == 0) {
+                String studentId = "S" + rand.nextInt(100);
+                List<ClassRequest> expected = new ArrayList<>();
+                for (ClassRequest req : all) {
+                    if (req.studentId.equals(studentId)) expected.add(req);
+                }
+                all.removeAll(expected);
+                ok &= index.removeStudent(studentId).equals(expected);
+                java.util.Set<String> remaining = new java.util.HashSet<>();
+                for (ClassRequest req : all) {
+                    remaining.add(CourseCode.of(req.courseId).getBaseCode());
+                }
+                codeOrder.retainAll(remaining);
+            } else {
+                ClassRequest req = new ClassRequest("S" + rand.nextInt(100),
+                        sections[rand.nextInt(sections.length)], 1 + rand.nextInt(4));
+                all.add(req);
+                index.add(req);
+                String code = CourseCode.of(req.courseId).getBaseCode();
+                if (!codeOrder.contains(code)) codeOrder.add(code);
+            }
+            if (step % 50 != 0) continue;
+
+            // Naive scan: course code -> sections and request count
+            Map<String, java.util.Set<String>> sectionsByCode = new java.util.LinkedHashMap<>();
+            Map<String, Integer> countByCode = new HashMap<>();
+            for (ClassRequest req : all) {
+                String code = CourseCode.of(req.courseId).getBaseCode();
+                sectionsByCode.computeIfAbsent(code, k -> new java.util.LinkedHashSet<>()).add(req.courseId);
+                countByCode.merge(code, 1, Integer::sum);
+            }
+            List<String> codes = index.getCourseCodes();
+            ok &= index.size() == all.size() && codes.equals(codeOrder)
+                    && new java.util.HashSet<>(codes).equals(sectionsByCode.keySet());
+            for (Map.Entry<String, java.util.Set<String>> entry : sectionsByCode.entrySet()) {
+                ok &= index.getSectionIds(entry.getKey()).equals(entry.getValue())
+                        && index.countRequests(entry.getKey()) == countByCode.get(entry.getKey());
+            }
+            for (String sectionId : sections) {
+                List<ClassRequest> expected = new ArrayList<>();
+                for (ClassRequest req : all) {
+                    if (req.courseId.equals(sectionId)) expected.add(req);
+                }
+                ok &= index.getRequestsForSection(sectionId).equals(expected);
+            }
+            for (int i = 0; i < 100; i++) {
+                List<ClassRequest> expected = new ArrayList<>();
+                for (ClassRequest req : all) {
+                    if (req.studentId.equals("S" + i)) expected.add(req);
+                }
+                ok &= index.getRequestsForStudent("S" + i).equals(expected);
+            }
+
+            // All requests, grouped by student in the order of each student's first remaining request
+            Map<String, List<ClassRequest>> byStudent = new java.util.LinkedHashMap<>();
+            for (ClassRequest req : all) {
+                byStudent.computeIfAbsent(req.studentId, k -> new ArrayList<>()).add(req);
+            }
+            List<ClassRequest> grouped = new ArrayList<>();
+            for (List<ClassRequest> studentRequests : byStudent.values()) {
+                grouped.addAll(studentRequests);
+            }
+            ok &= index.getRequests().equals(grouped);
+        }
+        index.clear();
+        ok &= index.size() == 0 && index.getCourseCodes().isEmpty() && index.countRequests("CS62") == 0
+                && index.getRequestsForStudent("S1").isEmpty() && index.getRequests().isEmpty();
+
+        System.out.println("=== REQUEST INDEX CHECK ===");
+        System.out.println(ok ? "Request index matches a scan of the requests" : "ERROR: request index mismatch");
+    }
+
+    /**
+     * Checks that a seeded simulation gives the same counts whatever the pool size,
+     * with enough replicas that each worker reuses its samplers across several blocks.
+     */
+    private static void testSimulatorThreadCount() {
+        List<String> prereqs = new ArrayList<>(Arrays.asList("CS51", "CS54", "CS62"));
+        int currentYear = java.time.Year.now().getValue();
+        List<students> studentList = new ArrayList<>();
+        List<ClassRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            studentList.add(new students("S" + i, "Student " + i, prereqs, new ArrayList<>(),
+                    currentYear + (i % 4), students.MajorStatus.values()[i % 3]));
+            requests.add(new ClassRequest("S" + i, "CS101-01", 1 + (i % 4)));
+        }
+        List<classes> courseList = Arrays.asList(new classes("CS101-01", "01", 3, 0, 1.0));
+
+        List<List<Integer>> countsByPool = new ArrayList<>();
+        for (int parallelism : new int[] {1, 2, 4}) {
+            java.util.concurrent.ForkJoinPool pool = new java.util.concurrent.ForkJoinPool(parallelism);
+            try {
+                LotterySimulator.SimulationResult result = pool.submit(() -> new LotterySimulator()
+                        .simulate(studentList, courseList, requests, 640, 7L)).get();
+                List<Integer> counts = new ArrayList<>();
+                for (int row = 0; row < result.getRequests().size(); row++) {
+                    counts.add(result.getAdmissions(row));
+                }
+                countsByPool.add(counts);
+            } catch (InterruptedException | java.util.concurrent.ExecutionException e) {
+                System.out.println("ERROR: simulation failed: " + e);
+            } finally {
+                pool.shutdown();
+            }
+        }
+
+        boolean ok = countsByPool.size() == 3;
+        for (List<Integer> counts : countsByPool) {
+            ok &= counts.equals(countsByPool.get(0));
+        }
+        System.out.println("=== SIMULATOR THREAD COUNT CHECK ===");
+        System.out.println(ok ? "Seeded simulation is the same on 1, 2 and 4 threads"
+                : "ERROR: seeded simulation depends on the thread count: " + countsByPool);
+    }
+
+    /**
+     * Checks that every weight in the shared request table matches computeWeight for the
+     * same request, including missing prerequisites and unknown students and sections.
+     */
+    private static void testRequestTableWeights() {
+        int currentYear = java.time.Year.now().getValue();
+        String[] transcripts = {"", "CS51", "CS51,CS54", "CS51,CS54,CS62", "CS51,CS54,CS62,CS101,CS105"};
+        String[] sections = {"CS62-01", "CS101-01", "CS105-02", "CS140-01", "CS35-01"};
+        List<students> studentList = new ArrayList<>();
+        List<classes> courseList = new ArrayList<>();
+        for (String id : sections) {
+            courseList.add(new classes(id, "01", 10, 0, 1.0));
+        }
+        List<ClassRequest> requests = new ArrayList<>();
+        java.util.Random rand = new java.util.Random(8L);
+        for (int i = 0; i < 300; i++) {
+            String past = transcripts[i % transcripts.length];
+            studentList.add(new students("S" + i, "Student " + i,
+                    past.isEmpty() ? new ArrayList<>() : new ArrayList<>(Arrays.asList(past.split(","))),
+                    new ArrayList<>(), currentYear - 1 + (i % 6), students.MajorStatus.values()[i % 3]));
+            for (int r = 0; r < 3; r++) {
+                requests.add(new ClassRequest("S" + i, sections[rand.nextInt(sections.length)], 1 + rand.nextInt(4)));
+            }
+        }
+        requests.add(new ClassRequest("NOBODY", "CS62-01", 1));
+        requests.add(new ClassRequest("S1", "NOWHERE-01", 1));
+
+        RequestTable table = RequestTable.build(studentList, courseList, requests, currentYear);
+        Map<String, Integer> remaining = new HashMap<>(); // rows not yet matched, per (student, section, rank)
+        for (ClassRequest req : requests) {
+            remaining.merge(req.studentId + "|" + req.courseId + "|" + req.preferenceRank, 1, Integer::sum);
+        }
+
+        boolean ok = table.size() == requests.size();
+        for (int row = 0; row < table.size(); row++) {
+            students s = table.getStudent(row);
+            classes course = table.getCourse(row);
+            ClassRequest req = new ClassRequest(table.getStudentId(row), table.getCourseId(row), table.getRank(row));
+            int expected = (s == null || course == null) ? 0
+                    : LotteryWeightCalculator.computeWeight(s, req, course, currentYear);
+            ok &= table.getWeight(row) == expected;
+            ok &= (table.getFailedCheck(row) != null) == (expected == 0 && s != null && course != null);
+            ok &= remaining.merge(req.studentId + "|" + req.courseId + "|" + req.preferenceRank, -1, Integer::sum) >= 0;
+        }
+        System.out.println("=== REQUEST TABLE WEIGHT CHECK ===");
+        System.out.println(ok ? "Request table weights match computeWeight for " + table.size() + " requests"
+                : "ERROR: request table weights differ from computeWeight");
+    }
+
+    /**
+     * Checks a RegistrationSnapshot round trip, and that read rejects a snapshot whose
+     * sources changed or whose bytes were truncated or corrupted.
+     */
+    private static void testRegistrationSnapshot() {
+        java.nio.file.Path dir = null;
+        boolean ok = false, staleSize = false, staleTime = false, truncated = false, corrupt = false, restored = false;
+        try {
+            dir = java.nio.file.Files.createTempDirectory("snapshot");
+            java.nio.file.Path csv = dir.resolve("student.csv");
+            java.nio.file.Path json = dir.resolve("courses.json");
+            java.nio.file.Files.write(csv, "student_id,name\n".getBytes(java.nio.charset.StandardCharsets.UTF_8));
+            java.nio.file.Files.write(json, "[]\n".getBytes(java.nio.charset.StandardCharsets.UTF_8));
+            String[] sources = {csv.toString(), json.toString()};
+            String snapshotPath = dir.resolve("registration.snapshot").toString();
+
+            List<classes> courses = Arrays.asList(
+                    new classes("CSCI051 PO-01 SP2025", "01", 30, 12, 1.0),
+                    new classes("CSCI062 PO-02 SP2025", "02", 25, 25, 0.5));
+            List<Student> studentList = new ArrayList<>();
+            Map<String, List<String>> requestedCodes = new HashMap<>();
+            List<ClassRequest> requests = new ArrayList<>();
+            for (int i = 0; i < 70; i++) {
+                List<String> past = new ArrayList<>();
+                for (int c = 0; c < i % 5; c++) {
+                    past.add("CS" + (50 + c * 7 + i)); // more than 64 distinct codes
+                }
+                String id = String.format("S%04d", i);
+                studentList.add(new Student(new StudentRecord(id, "Student " + i, 2025 + i % 4,
+                        (i % 2 == 0) ? "CS Major" : "Non-Major", past)));
+                if (i % 3 != 0) {
+                    requestedCodes.put(id, Arrays.asList("CS51", "CS62"));
+                    requests.add(new ClassRequest(id, courses.get(0).courseSectionId, 1));
+                    requests.add(new ClassRequest(id, courses.get(1).courseSectionId, 2));
+                }
+            }
+
+            RegistrationSnapshot.write(snapshotPath, sources, courses, studentList, requestedCodes, requests);
+            RegistrationSnapshot snapshot = RegistrationSnapshot.read(snapshotPath, sources);
+            ok = snapshot != null && snapshot.courses.size() == courses.size()
+                    && snapshot.students.size() == studentList.size()
+                    && snapshot.requestedCodesByStudent.equals(requestedCodes)
+                    && snapshot.requests.size() == requests.size();
+            for (int i = 0; ok && i < courses.size(); i++) {
+                classes a = courses.get(i);
+                classes b = snapshot.courses.get(i);
+                ok = a.courseSectionId.equals(b.courseSectionId) && a.courseSectionNumber.equals(b.courseSectionNumber)
+                        && a.capacity == b.capacity && a.currentEnrollment == b.currentEnrollment
+                        && a.creditHours == b.creditHours;
+            }
+            for (int i = 0; ok && i < studentList.size(); i++) {
+                Student a = studentList.get(i);
+                Student b = snapshot.students.get(i);
+                ok = a.getStudentId().equals(b.getStudentId()) && a.getName().equals(b.getName())
+                        && a.getGradYear() == b.getGradYear() && a.getMajorStatus().equals(b.getMajorStatus())
+                        && a.getPastClasses().equals(b.getPastClasses());
+            }
+            for (int i = 0; ok && i < requests.size(); i++) {
+                ClassRequest a = requests.get(i);
+                ClassRequest b = snapshot.requests.get(i);
+                ok = a.studentId.equals(b.studentId) && a.courseId.equals(b.courseId)
+                        && a.preferenceRank == b.preferenceRank;
+            }
+
+            // A source file changed size
+            java.nio.file.Files.write(csv, "student_id,name,more\n".getBytes(java.nio.charset.StandardCharsets.UTF_8));
+            staleSize = RegistrationSnapshot.read(snapshotPath, sources) == null;
+
+            // A source file was touched without changing size
+            RegistrationSnapshot.write(snapshotPath, sources, courses, studentList, requestedCodes, requests);
+            csv.toFile().setLastModified(csv.toFile().lastModified() - 60000);
+            staleTime = RegistrationSnapshot.read(snapshotPath, sources) == null;
+
+            // Truncated and corrupted snapshots
+            RegistrationSnapshot.write(snapshotPath, sources, courses, studentList, requestedCodes, requests);
+            java.nio.file.Path snapshotFile = java.nio.file.Paths.get(snapshotPath);
+            byte[] bytes = java.nio.file.Files.readAllBytes(snapshotFile);
+            java.nio.file.Files.write(snapshotFile, Arrays.copyOf(bytes, bytes.length - 9));
+            truncated = RegistrationSnapshot.read(snapshotPath, sources) == null;
+            byte[] corrupted = bytes.clone();
+            corrupted[corrupted.length / 2] ^= 0x10;
+            java.nio.file.Files.write(snapshotFile, corrupted);
+            corrupt = RegistrationSnapshot.read(snapshotPath, sources) == null;
+            java.nio.file.Files.write(snapshotFile, bytes);
+            restored = RegistrationSnapshot.read(snapshotPath, sources) != null;
+        } catch (java.io.IOException e) {
+            System.out.println("ERROR: RegistrationSnapshot test failed: " + e.getMessage());
+        } finally {
+            if (dir != null) {
+                for (String name : new String[] {"student.csv", "courses.json", "registration.snapshot"}) {
+                    dir.resolve(name).toFile().delete();
+                }
+                dir.toFile().delete();
+            }
+        }
+        System.out.println("=== REGISTRATION SNAPSHOT CHECK ===");
+        System.out.println("Round trip: " + ok + ", rejects changed size: " + staleSize + ", changed time: "
+                + staleTime + ", truncated: " + truncated + ", corrupted: " + corrupt);
+        System.out.println(ok && staleSize && staleTime && truncated && corrupt && restored
+                ? "Snapshot round trip matches and stale or damaged snapshots are rejected"
+                : "ERROR: RegistrationSnapshot round trip or staleness check failed");
+    }
+
+    /**
+     * Checks RequestJournal replay, a torn record at the end, and compaction: after a torn
+     * tail, with an append arriving while the export runs, and with a failing export.
+     */
+    private static void testRequestJournal() {
+        java.nio.file.Path file = null;
+        boolean ok = false, tornOk = false, compactOk = false, failOk = false;
+        try {
+            file = java.nio.file.Files.createTempFile("requests", ".journal");
+            RequestJournal journal = RequestJournal.open(file.toString());
+            journal.append("S0001", Arrays.asList("CS51"));
+            journal.append("S0002", Arrays.asList("CS62", "CS105"));
+            journal.append("S0001", Arrays.asList("CS105", "CS101"));
+            Map<String, List<String>> expected = new java.util.LinkedHashMap<>();
+            expected.put("S0001", Arrays.asList("CS105", "CS101"));
+            expected.put("S0002", Arrays.asList("CS62", "CS105"));
+            ok = journal.latest().equals(expected);
+            long size = journal.size();
+            journal.close();
+
+            // Replay after reopening
+            journal = RequestJournal.open(file.toString());
+            ok &= journal.latest().equals(expected) && journal.size() == size;
+            journal.close();
+
+            // A record cut short by a crash, then one with a bad checksum
+            byte[] clean = java.nio.file.Files.readAllBytes(file);
+            byte[] torn = Arrays.copyOf(clean, clean.length + 11);
+            torn[clean.length + 3] = 40; // claims 40 payload bytes, only 3 follow
+            java.nio.file.Files.write(file, torn);
+            journal = RequestJournal.open(file.toString());
+            tornOk = journal.latest().equals(expected) && journal.size() == size
+                    && java.nio.file.Files.size(file) == size;
+            journal.close();
+            byte[] badChecksum = Arrays.copyOf(clean, clean.length + clean.length);
+            System.arraycopy(clean, 0, badChecksum, clean.length, clean.length);
+            badChecksum[badChecksum.length - 1] ^= 0x01; // damages the copy's last record
+            java.nio.file.Files.write(file, badChecksum);
+            journal = RequestJournal.open(file.toString());
+            Map<String, List<String>> latest = journal.latest();
+            tornOk &= latest.keySet().equals(expected.keySet()) && journal.size() < badChecksum.length;
+            journal.close();
+
+            // Compacting a journal opened with a torn tail exports only the whole records
+            java.nio.file.Files.write(file, torn);
+            journal = RequestJournal.open(file.toString());
+            Map<String, List<String>> exportedAfterTear = new HashMap<>();
+            journal.compact(exportedAfterTear::putAll);
+            tornOk &= exportedAfterTear.equals(expected) && journal.size() == 0
+                    && journal.latest().isEmpty() && java.nio.file.Files.size(file) == 0;
+            journal.close();
+            java.nio.file.Files.write(file, clean);
+
+            // A failing export leaves the journal and its file as they were, and it can still be appended to
+            journal = RequestJournal.open(file.toString());
+            try {
+                journal.compact(entries -> {
+                    throw new java.io.IOException("disk full");
+                });
+            } catch (java.io.IOException e) {
+                failOk = e.getMessage().equals("disk full");
+            }
+            failOk &= journal.latest().equals(expected) && journal.size() == size
+                    && Arrays.equals(java.nio.file.Files.readAllBytes(file), clean);
+            journal.append("S0003", Arrays.asList("CS35"));
+            journal.close();
+            journal = RequestJournal.open(file.toString());
+            Map<String, List<String>> afterFailure = new java.util.LinkedHashMap<>(expected);
+            afterFailure.put("S0003", Arrays.asList("CS35"));
+            failOk &= journal.latest().equals(afterFailure);
+            journal.close();
+            java.nio.file.Files.write(file, clean);
+
+            // Compaction: the export sees the old entries, and an append made during the export survives
+            RequestJournal compacting = RequestJournal.open(file.toString());
+            Map<String, List<String>> exported = new HashMap<>();
+            compacting.compact(entries -> {
+                exported.putAll(entries);
+                compacting.append("S0003", Arrays.asList("CS35"));
+            });
+            Map<String, List<String>> remaining = new HashMap<>();
+            remaining.put("S0003", Arrays.asList("CS35"));
+            compactOk = exported.equals(expected) && compacting.latest().equals(remaining)
+                    && compacting.size() < size;
+            compacting.append("S0002", Arrays.asList("CS140"));
+            compacting.close();
+            journal = RequestJournal.open(file.toString());
+            remaining.put("S0002", Arrays.asList("CS140"));
+            compactOk &= journal.latest().equals(remaining);
+            journal.close();
+        } catch (java.io.IOException e) {
+            System.out.println("ERROR: RequestJournal test failed: " + e.getMessage());
+        } finally {
+            if (file != null) {
+                file.toFile().delete();
+                file.resolveSibling(file.getFileName() + ".tmp").toFile().delete();
+            }
+        }
+        System.out.println("=== REQUEST JOURNAL CHECK ===");
+        System.out.println("Append and replay: " + ok + ", torn record dropped: " + tornOk
+                + ", compaction keeps concurrent append: " + compactOk + ", journal kept when export throws: " + failOk);
+        System.out.println(ok && tornOk && compactOk && failOk
+                ? "Request journal replays, truncates and compacts correctly"
+                : "ERROR: RequestJournal replay, truncation or compaction failed");
+    }
+
+    private static List<classes> sectionList(int sections) {
+        List<classes> courseList = new ArrayList<>();
+        for (int c = 0; c < sections; c++) {
+            courseList.add(new classes("CS" + (100 + c) + "-01", "01", 1 + (c % 30), 0, 1.0));
+        }
+        return courseList;
+    }
+
+    private static List<String> ids(List<students> list) {
+        List<String> ids = new ArrayList<>();
+        for (students s : list) {
+            ids.add(s.studentId);
+        }
+        return ids;
+    }
+
 }
@@ -0,0 +1,53 @@
+import java.util.random.RandomGenerator;
+
+/**
+ * Weighted sampling without replacement over a fixed set of slots.
+ * A draw picks slot i with probability weight[i] / totalWeight and removes it.
+ */
+public interface WeightedSampler {
+
+    /**
+     * Most distinct weights the bucketed sampler will take before
+     * {@link #create} falls back to the tree-based sampler.
+     * LotteryWeightCalculator only produces 11..22, which is 12 values.
+     */
+    int MAX_BUCKETS = 12;
+
+    /**
+     * @return true if every slot with positive weight has been drawn
+     */
+    boolean isEmpty();
+
+    /**
+     * @return sum of the weights still in the pool
+     */
+    long totalWeight();
+
+    /**
+     * Draws one slot with probability proportional to its weight and removes it.
+     *
+     * @param rand random source
+     * @return the drawn slot index, or -1 if the pool is empty
+     */
+    int draw(RandomGenerator rand);
+
+    /**
+     * Puts every drawn slot back into the pool, so the same sampler can run the
+     * draw again without allocating. Costs about as much as the draws being undone.
+     */
+    void reset();
+
+    /**
+     * Picks the cheapest sampler for the given weights: a BucketSampler when the
+     * weights take at most {@link #MAX_BUCKETS} distinct values, otherwise a FenwickSampler.
+     *
+     * @param weights per-slot weights (not modified; non-positive slots are never drawn)
+     * @param count   number of slots to use
+     */
+    static WeightedSampler create(int[] weights, int count) {
+        if (BucketSampler.countDistinctWeights(weights, count, MAX_BUCKETS) <= MAX_BUCKETS) {
+            return new BucketSampler(weights, count);
+        }
+        return new FenwickSampler(weights, count);
+    }
+}
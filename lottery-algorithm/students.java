@@ -10,6 +10,23 @@ public class students {
     public final int gradYear;
     public final MajorStatus majorStatus;
 
+    // pastClasses encoded as a PrerequisiteGraph bitset, rebuilt if the graph or the list grows
+    private static final class Transcript {
+        final long[] bits;
+        final int courseCount;
+        final int classCount;
+
+        Transcript(long[] bits, int courseCount, int classCount) {
+            this.bits = bits;
+            this.courseCount = courseCount;
+            this.classCount = classCount;
+        }
+    }
+    private Transcript transcript;
+
+    // Registration record this student views, or null if built from lists
+    private final StudentRecord record;
+
     public students(String studentId, String name,
                     List<String> pastClasses,
                     List<String> requestedClasses,
@@ -25,6 +42,28 @@ public class students {
             throw new IllegalArgumentException("Invalid graduation year: " + gradYear);
         this.gradYear = gradYear;
         this.majorStatus = (majorStatus != null) ? majorStatus : MajorStatus.NON_MAJOR;
+        this.record = null;
+    }
+
+    /**
+     * Creates a lottery view of a registration record. pastClasses reads the record's
+     * transcript and the transcript bits come from the record's cache, so nothing is copied.
+     * @param record            the student's registration record
+     * @param requestedClasses  classes requested in this run (may be null)
+     * @param majorStatus       the record's major status mapped to the lottery's categories
+     */
+    public students(StudentRecord record, List<String> requestedClasses, MajorStatus majorStatus) {
+        if (record.getStudentId() == null || record.getName() == null)
+            throw new IllegalArgumentException("Student ID and name cannot be null.");
+        if (record.getGradYear() < 1900 || record.getGradYear() > 2100)
+            throw new IllegalArgumentException("Invalid graduation year: " + record.getGradYear());
+        this.studentId = record.getStudentId();
+        this.name = record.getName();
+        this.pastClasses = record.getPastClassList();
+        this.requestedClasses = (requestedClasses != null) ? requestedClasses : new ArrayList<>();
+        this.gradYear = record.getGradYear();
+        this.majorStatus = (majorStatus != null) ? majorStatus : MajorStatus.NON_MAJOR;
+        this.record = record;
     }
     
     /**
@@ -33,9 +72,30 @@ public class students {
      * @return true if the class appears in the student's list of completed courses, false otherwise
      */
     public boolean hasTaken(String classId) {
+        if (record != null) {
+            return record.hasCompleted(classId);
+        }
         return pastClasses.contains(classId);
     }
 
+    /**
+     * Gets the student's completed classes as a transcript bitset for prerequisite checks.
+     * The encoding is cached and reused until the graph gains courses or pastClasses changes size.
+     * @param graph  the prerequisite graph whose course IDs are used
+     * @return transcript bits (shared; do not modify)
+     */
+    public long[] getTranscriptBits(PrerequisiteGraph graph) {
+        if (record != null) {
+            return record.getTranscriptBits(graph);
+        }
+        Transcript t = transcript;
+        if (t == null || t.courseCount != graph.getCourseCount() || t.classCount != pastClasses.size()) {
+            t = new Transcript(graph.encodeTranscript(pastClasses), graph.getCourseCount(), pastClasses.size());
+            transcript = t;
+        }
+        return t.bits;
+    }
+
     /**
      * Checks whether the student is currently requesting enrollment in a specific class.
      * @param classId  the ID of the class being checked
@@ -0,0 +1,315 @@
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * CourseCode - parsed form of a course section ID such as "CSCI181DVPO-01 SP2025"
+ *
+ *   department  "CSCI"     leading letters
+ *   number      "181"      digits, leading zeros dropped
+ *   suffix      "DV"       letters after the number (spaces dropped), e.g. "A", "L", "DV"
+ *   campus      "PO"       two-letter location code in front of the section number
+ *   section     "01"
+ *   term        "SP2025"
+ *
+ * getCode() is the key used by the registration and prerequisite systems ("CS181DVPO",
+ * "CS140" for "CSCI140  HM-01 SP2025") and getBaseCode() is that key without a location
+ * code ("CS181DV").
+ *
+ * Instances are parsed by a hand-written scanner and interned by section ID, so every
+ * section ID is parsed once per process no matter how many modules ask for it. The cache
+ * holds one entry per distinct section ID in the catalog.
+ */
+public final class CourseCode
+{
+    // Location codes recognized at the end of a bare course code (e.g., "CS181DVPO")
+    private static final Set<String> LOCATION_CODES = Set.of("PO", "HM", "CM", "PZ", "AF", "SA", "IO", "BS");
+
+    private static final ConcurrentHashMap<String, CourseCode> CACHE = new ConcurrentHashMap<>();
+    private static final CourseCode EMPTY = new CourseCode("");
+
+    private final String sectionId;
+    private final String department;
+    private final String number;
+    private final String suffix;
+    private final String campus;
+    private final String section;
+    private final String term;
+    private final String code;
+    private final String baseCode;
+
+    /**
+     * Get the parsed form of a section ID, parsing it only the first time it is seen
+     * Time Complexity: O(1) expected after the first call for a given ID
+     * @param courseSectionId Section ID (e.g., "CSCI062 LPO-01 SP2025" or "CS62-01")
+     * @return The interned CourseCode; an empty one for null or empty input
+     */
+    public static CourseCode of(String courseSectionId)
+    {
+        if (courseSectionId == null || courseSectionId.isEmpty())
+        {
+            return EMPTY;
+        }
+        return CACHE.computeIfAbsent(courseSectionId, CourseCode::new);
+    }
+
+    private CourseCode(String id)
+    {
+        this.sectionId = id;
+
+        int dash = id.indexOf('-');
+        int headEnd = dash >= 0 ? dash : id.length();
+
+        // Department letters, then the number
+        int i = 0;
+        while (i < headEnd && isLetter(id.charAt(i)))
+        {
+            i++;
+        }
+        this.department = id.substring(0, i);
+        int numberStart = i;
+        while (i < headEnd && isDigit(id.charAt(i)))
+        {
+            i++;
+        }
+        this.number = stripLeadingZeros(id.substring(numberStart, i), false);
+
+        // Suffix and campus share the rest of the head; catalog IDs pad them with spaces
+        StringBuilder rest = new StringBuilder(headEnd - i);
+        boolean padded = false;
+        for (; i < headEnd; i++)
+        {
+            char c = id.charAt(i);
+            if (c == ' ')
+            {
+                padded = true;
+            }
+            else
+            {
+                rest.append(c);
+            }
+        }
+        int restLength = rest.length();
+        boolean hasCampus = restLength >= 2
+            && isLetter(rest.charAt(restLength - 2)) && isLetter(rest.charAt(restLength - 1))
+            && (restLength > 2 || padded || LOCATION_CODES.contains(rest.toString()));
+        this.suffix = hasCampus ? rest.substring(0, restLength - 2) : rest.toString();
+        this.campus = hasCampus ? rest.substring(restLength - 2) : "";
+
+        // Section number, then term
+        if (dash >= 0)
+        {
+            int space = id.indexOf(' ', dash + 1);
+            this.section = (space >= 0 ? id.substring(dash + 1, space) : id.substring(dash + 1)).trim();
+            this.term = space >= 0 ? id.substring(space + 1).trim() : "";
+        }
+        else
+        {
+            this.section = "";
+            this.term = "";
+        }
+
+        this.code = extractCode(id);
+        this.baseCode = withoutLocation(code);
+    }
+
+    /**
+     * Course code as used for lookups: the ID up to its first dash or space, with CSCI
+     * shortened to CS and leading zeros dropped from the number
+     * (e.g., "CSCI181DVPO-01 SP2025" -> "CS181DVPO", "CSCI004  PZ-01 SP2025" -> "CS4")
+     */
+    private static String extractCode(String id)
+    {
+        int dashIndex = id.indexOf('-');
+        int spaceIndex = id.indexOf(' ');
+
+        String courseCode;
+        if (dashIndex > 0 && (spaceIndex == -1 || dashIndex < spaceIndex))
+        {
+            courseCode = id.substring(0, dashIndex).trim();
+        }
+        else if (spaceIndex > 0)
+        {
+            courseCode = id.substring(0, spaceIndex).trim();
+        }
+        else
+        {
+            courseCode = id.trim();
+        }
+
+        if (courseCode.startsWith("CSCI"))
+        {
+            courseCode = "CS" + courseCode.substring(4);
+        }
+        if (courseCode.length() > 2 && courseCode.startsWith("CS"))
+        {
+            courseCode = "CS" + stripLeadingZeros(courseCode.substring(2), true);
+        }
+        return courseCode;
+    }
+
+    /**
+     * Remove a location code from a course code (e.g., "CS181DVPO" -> "CS181DV")
+     * Codes without one are returned unchanged
+     */
+    public static String withoutLocation(String courseCode)
+    {
+        if (courseCode.length() > 4 && courseCode.startsWith("CS")
+            && LOCATION_CODES.contains(courseCode.substring(courseCode.length() - 2)))
+        {
+            return courseCode.substring(0, courseCode.length() - 2);
+        }
+        return courseCode;
+    }
+
+    /**
+     * Normalize a course code typed by a user
+     * Students may type just the number ("101", "181dv"), "CS51" or "CSCI051"; all become
+     * the "CS" form with whitespace and leading zeros removed
+     * @return The normalized code (e.g., "CS51"), or "" for null input
+     */
+    public static String normalizeInput(String input)
+    {
+        if (input == null)
+        {
+            return "";
+        }
+        String upper = input.toUpperCase();
+        StringBuilder compact = new StringBuilder(upper.length());
+        for (int i = 0; i < upper.length(); i++)
+        {
+            char c = upper.charAt(i);
+            if (!isRegexWhitespace(c))
+            {
+                compact.append(c);
+            }
+        }
+
+        String rest = compact.toString();
+        if (rest.startsWith("CSCI"))
+        {
+            rest = rest.substring(4);
+        }
+        else if (rest.startsWith("CS"))
+        {
+            rest = rest.substring(2);
+        }
+        return "CS" + stripLeadingZeros(rest, true);
+    }
+
+    /**
+     * Check that a normalized code names a course: "CS" followed by something
+     */
+    public static boolean isValidInput(String normalizedCode)
+    {
+        return normalizedCode != null && normalizedCode.length() > 2
+            && !normalizedCode.substring(2).trim().isEmpty();
+    }
+
+    /**
+     * Drop leading zeros from a number
+     * @param onlyBeforeDigit If true, zeros are only dropped when a digit follows the first one,
+     *                        so "0A" and "0" are kept (the rule used for course codes)
+     */
+    private static String stripLeadingZeros(String s, boolean onlyBeforeDigit)
+    {
+        if (s.isEmpty() || s.charAt(0) != '0')
+        {
+            return s;
+        }
+        if (onlyBeforeDigit && (s.length() < 2 || !isDigit(s.charAt(1))))
+        {
+            return s;
+        }
+        int i = 0;
+        while (i < s.length() && s.charAt(i) == '0')
+        {
+            i++;
+        }
+        if (!onlyBeforeDigit && i == s.length())
+        {
+            i--; // keep "0" for an all-zero number
+        }
+        return s.substring(i);
+    }
+
+    private static boolean isLetter(char c)
+    {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z');
+    }
+
+    private static boolean isDigit(char c)
+    {
+        return c >= '0' && c <= '9';
+    }
+
+    // The characters matched by \s
+    private static boolean isRegexWhitespace(char c)
+    {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    // Getters
+
+    public String getSectionId()
+    {
+        return sectionId;
+    }
+
+    public String getDepartment()
+    {
+        return department;
+    }
+
+    public String getNumber()
+    {
+        return number;
+    }
+
+    public String getSuffix()
+    {
+        return suffix;
+    }
+
+    public String getCampus()
+    {
+        return campus;
+    }
+
+    public String getSection()
+    {
+        return section;
+    }
+
+    public String getTerm()
+    {
+        return term;
+    }
+
+    public String getCode()
+    {
+        return code;
+    }
+
+    public String getBaseCode()
+    {
+        return baseCode;
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        return this == o || (o instanceof CourseCode && sectionId.equals(((CourseCode) o).sectionId));
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return sectionId.hashCode();
+    }
+
+    @Override
+    public String toString()
+    {
+        return code;
+    }
+}
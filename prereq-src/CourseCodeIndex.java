@@ -0,0 +1,138 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * CourseCodeIndex - prefix trie over normalized course codes (e.g., "CS62", "CS181DVPO")
+ * Finds the codes that match a query up to a location-code suffix, so "CS181DV" finds
+ * "CS181DVPO" and "CS181DVPO" finds "CS181DV"
+ *
+ * A query walks the trie once; shorter codes are picked up along the walk and longer ones
+ * from the few nodes at most three uppercase letters below its end.
+ * Time Complexity: O(k) for a query of length k, plus the location-code branches under it
+ */
+public class CourseCodeIndex
+{
+    private static final int MIN_SUFFIX = 2;
+    private static final int MAX_SUFFIX = 3;
+
+    private static final class Node
+    {
+        char[] keys = new char[0];
+        Node[] children = new Node[0];
+        String code; // non-null if a course code ends here
+
+        Node child(char c)
+        {
+            for (int i = 0; i < keys.length; i++)
+            {
+                if (keys[i] == c)
+                {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        Node addChild(char c)
+        {
+            Node node = child(c);
+            if (node == null)
+            {
+                node = new Node();
+                keys = Arrays.copyOf(keys, keys.length + 1);
+                children = Arrays.copyOf(children, children.length + 1);
+                keys[keys.length - 1] = c;
+                children[children.length - 1] = node;
+            }
+            return node;
+        }
+    }
+
+    private final Node root = new Node();
+
+    /**
+     * Add a course code to the index (adding the same code again does nothing)
+     */
+    public void add(String code)
+    {
+        Node node = root;
+        for (int i = 0; i < code.length(); i++)
+        {
+            node = node.addChild(code.charAt(i));
+        }
+        node.code = code;
+    }
+
+    /**
+     * Find the indexed codes equal to the query, or differing from it only by a trailing
+     * 2-3 uppercase letter location code on either side
+     * @param query Normalized course code (e.g., "CS181DV")
+     * @return Matching codes (no particular order)
+     */
+    public List<String> findMatchingCodes(String query)
+    {
+        List<String> matches = new ArrayList<>();
+        Node node = root;
+        for (int depth = 0; depth <= query.length(); depth++)
+        {
+            // Shorter code + location code == query
+            int rest = query.length() - depth;
+            if (node.code != null && rest >= MIN_SUFFIX && rest <= MAX_SUFFIX && isUppercase(query, depth))
+            {
+                matches.add(node.code);
+            }
+            if (depth == query.length())
+            {
+                break;
+            }
+            node = node.child(query.charAt(depth));
+            if (node == null)
+            {
+                return matches;
+            }
+        }
+
+        // Exact match, then query + location code
+        if (node.code != null)
+        {
+            matches.add(node.code);
+        }
+        collectSuffixes(node, 0, matches);
+        return matches;
+    }
+
+    private static void collectSuffixes(Node node, int depth, List<String> matches)
+    {
+        for (int i = 0; i < node.keys.length; i++)
+        {
+            char c = node.keys[i];
+            if (c < 'A' || c > 'Z')
+            {
+                continue;
+            }
+            Node child = node.children[i];
+            if (child.code != null && depth + 1 >= MIN_SUFFIX)
+            {
+                matches.add(child.code);
+            }
+            if (depth + 1 < MAX_SUFFIX)
+            {
+                collectSuffixes(child, depth + 1, matches);
+            }
+        }
+    }
+
+    private static boolean isUppercase(String s, int from)
+    {
+        for (int i = from; i < s.length(); i++)
+        {
+            char c = s.charAt(i);
+            if (c < 'A' || c > 'Z')
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+}
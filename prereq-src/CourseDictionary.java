@@ -0,0 +1,77 @@
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * CourseDictionary - process-wide dense IDs (0, 1, 2, ...) for course codes
+ * Transcripts store these IDs instead of code strings, so each code is kept once and a
+ * student's transcript is a small sorted array of numbers.
+ *
+ * Lookups are lock-free; assigning a new ID takes a lock, which only happens the first
+ * time a code is seen.
+ */
+public final class CourseDictionary
+{
+    private static final ConcurrentHashMap<String, Integer> idByCode = new ConcurrentHashMap<>();
+    private static volatile String[] codeById = new String[64];
+    private static int size; // guarded by the class lock
+
+    private CourseDictionary()
+    {
+    }
+
+    /**
+     * Get the ID of a course code, assigning the next free ID if it is new
+     * Time Complexity: O(1) expected
+     */
+    public static int idOf(String code)
+    {
+        Integer id = idByCode.get(code);
+        if (id != null)
+        {
+            return id;
+        }
+        synchronized (CourseDictionary.class)
+        {
+            id = idByCode.get(code);
+            if (id == null)
+            {
+                String[] codes = codeById;
+                if (size == codes.length)
+                {
+                    codes = Arrays.copyOf(codes, size * 2);
+                }
+                codes[size] = code;
+                codeById = codes;
+                id = size++;
+                idByCode.put(code, id);
+            }
+            return id;
+        }
+    }
+
+    /**
+     * Get the ID of a course code without assigning one
+     * @return The ID, or -1 if the code has never been seen
+     */
+    public static int find(String code)
+    {
+        Integer id = idByCode.get(code);
+        return id != null ? id : -1;
+    }
+
+    /**
+     * Get the course code for an ID returned by idOf
+     */
+    public static String codeOf(int id)
+    {
+        return codeById[id];
+    }
+
+    /**
+     * @return Number of course codes with an ID
+     */
+    public static synchronized int size()
+    {
+        return size;
+    }
+}
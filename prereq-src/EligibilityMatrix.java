@@ -0,0 +1,322 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * EligibilityMatrix - one bit per (student, course with prerequisites) pair
+ * Answers "has this student met every prerequisite of this course?" with a single bit test
+ *
+ * Eligibility only depends on the course code, so all sections of a course share one column,
+ * and courses without prerequisites have no column at all (everyone is eligible).
+ * Columns are stored as bitsets over student rows, so counting the students eligible for a
+ * course is a popcount. Columns are built in parallel straight from the PrerequisiteGraph
+ * closures and transcript bitsets.
+ *
+ * The matrix keeps itself current: updateStudent recomputes one row when a transcript
+ * changes, and queries recompute only the columns whose closure changed when the graph did.
+ * Building is parallel; queries and updates are not synchronized.
+ */
+public class EligibilityMatrix
+{
+    private final PrerequisiteGraph graph;
+
+    // Rows: one per student
+    private final HashMap<String, Integer> rowByStudentId = new HashMap<>();
+    private long[][] transcripts = new long[16][];
+    private int rowCount;
+
+    // Columns: one per course code that has prerequisites
+    private final HashMap<String, Integer> columnByCode = new HashMap<>();
+    private final List<String> codeByColumn = new ArrayList<>();
+    private final List<long[]> closureByColumn = new ArrayList<>(); // closure each column was built from
+    private final List<long[]> columns = new ArrayList<>();         // bit r set = row r is eligible
+    private int graphVersion;
+
+    private EligibilityMatrix(PrerequisiteGraph graph)
+    {
+        this.graph = graph;
+    }
+
+    /**
+     * Build the matrix for a set of students
+     * Time Complexity: O(c * s * n / 64) for c columns, s students and n courses, split across cores
+     * @param graph The prerequisite graph
+     * @param studentIds Student IDs, one row each
+     * @param transcriptBits Each student's transcript bits (same order), from PrerequisiteGraph.encodeTranscript
+     */
+    public static EligibilityMatrix build(PrerequisiteGraph graph, List<String> studentIds, List<long[]> transcriptBits)
+    {
+        EligibilityMatrix matrix = new EligibilityMatrix(graph);
+        for (int i = 0; i < studentIds.size(); i++)
+        {
+            Integer row = matrix.rowByStudentId.get(studentIds.get(i));
+            if (row == null)
+            {
+                row = matrix.addRow(studentIds.get(i));
+            }
+            matrix.transcripts[row] = transcriptBits.get(i);
+        }
+        matrix.graphVersion = graph.getVersion();
+
+        for (int id = 0; id < graph.getCourseCount(); id++)
+        {
+            String code = graph.getCourseCode(id);
+            if (graph.hasPrerequisites(code))
+            {
+                matrix.columnByCode.put(code, matrix.codeByColumn.size());
+                matrix.codeByColumn.add(code);
+                matrix.closureByColumn.add(graph.getClosureBits(code));
+                matrix.columns.add(null);
+            }
+        }
+
+        long[][] built = new long[matrix.codeByColumn.size()][];
+        IntStream.range(0, built.length).parallel()
+                 .forEach(c -> built[c] = matrix.computeColumn(matrix.closureByColumn.get(c)));
+        for (int c = 0; c < built.length; c++)
+        {
+            matrix.columns.set(c, built[c]);
+        }
+        return matrix;
+    }
+
+    /**
+     * Check eligibility with one bit test
+     * @param studentId The student ID
+     * @param courseCode The course code (e.g., "CS105")
+     * @return true/false, or null if the student is not in the matrix
+     */
+    public Boolean isEligible(String studentId, String courseCode)
+    {
+        refresh();
+        Integer row = rowByStudentId.get(studentId);
+        if (row == null)
+        {
+            return null;
+        }
+        Integer column = columnByCode.get(courseCode);
+        if (column == null)
+        {
+            return true; // no prerequisites
+        }
+        long[] bits = columns.get(column);
+        return (bits[row >>> 6] & (1L << row)) != 0;
+    }
+
+    /**
+     * Get a student's row, for repeated bit tests with isEligible(int, int)
+     * @param studentId The student ID
+     * @return The row, or -1 if the student is not in the matrix
+     */
+    public int rowOf(String studentId)
+    {
+        refresh();
+        Integer row = rowByStudentId.get(studentId);
+        return row != null ? row : -1;
+    }
+
+    /**
+     * Get a course's column, for repeated bit tests with isEligible(int, int)
+     * @param courseCode The course code
+     * @return The column, or -1 if the course has no prerequisites (everyone is eligible)
+     */
+    public int columnOf(String courseCode)
+    {
+        refresh();
+        Integer column = columnByCode.get(courseCode);
+        return column != null ? column : -1;
+    }
+
+    /**
+     * Bit test for a row and column from rowOf and columnOf, with no lookups
+     * Does not bring the matrix up to date, so rows and columns must be looked up after the
+     * last change; safe to call from many threads while nothing is updating the matrix
+     * @return true if the row's student has met every prerequisite of the column's course
+     */
+    public boolean isEligible(int row, int column)
+    {
+        return (columns.get(column)[row >>> 6] & (1L << row)) != 0;
+    }
+
+    /**
+     * Count the students eligible for a course - a popcount over the course's column
+     * @param courseCode The course code
+     * @return Number of students in the matrix who have met every prerequisite
+     */
+    public int countEligible(String courseCode)
+    {
+        refresh();
+        Integer column = columnByCode.get(courseCode);
+        if (column == null)
+        {
+            return rowCount;
+        }
+        int count = 0;
+        for (long word : columns.get(column))
+        {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * Get the number of students in the matrix
+     */
+    public int getStudentCount()
+    {
+        return rowCount;
+    }
+
+    /**
+     * Add a student or update their transcript, recomputing only that student's row
+     * Does nothing if the same transcript array is already stored, so it is cheap to call
+     * before every query with the student's cached transcript bits
+     * @param studentId The student ID
+     * @param transcriptBits The student's current transcript bits
+     */
+    public void updateStudent(String studentId, long[] transcriptBits)
+    {
+        refresh();
+        Integer row = rowByStudentId.get(studentId);
+        if (row == null)
+        {
+            row = addRow(studentId);
+        }
+        else if (transcripts[row] == transcriptBits)
+        {
+            return;
+        }
+        transcripts[row] = transcriptBits;
+
+        long bit = 1L << row;
+        for (int c = 0; c < columns.size(); c++)
+        {
+            long[] bits = columns.get(c);
+            if (meets(closureByColumn.get(c), transcriptBits))
+            {
+                bits[row >>> 6] |= bit;
+            }
+            else
+            {
+                bits[row >>> 6] &= ~bit;
+            }
+        }
+    }
+
+    /**
+     * Bring the matrix up to date after the graph changed: add columns for courses that gained
+     * prerequisites and recompute only the columns whose closure is different
+     */
+    private void refresh()
+    {
+        if (graphVersion == graph.getVersion())
+        {
+            return;
+        }
+        graphVersion = graph.getVersion();
+
+        for (int id = 0; id < graph.getCourseCount(); id++)
+        {
+            String code = graph.getCourseCode(id);
+            if (!graph.hasPrerequisites(code))
+            {
+                continue;
+            }
+            long[] closure = graph.getClosureBits(code);
+            Integer column = columnByCode.get(code);
+            if (column == null)
+            {
+                columnByCode.put(code, codeByColumn.size());
+                codeByColumn.add(code);
+                closureByColumn.add(closure);
+                columns.add(computeColumn(closure));
+            }
+            else if (!sameBits(closureByColumn.get(column), closure))
+            {
+                closureByColumn.set(column, closure);
+                columns.set(column, computeColumn(closure));
+            }
+            else
+            {
+                closureByColumn.set(column, closure);
+            }
+        }
+    }
+
+    /**
+     * Compute one column: bit r set if row r's transcript covers the closure
+     */
+    private long[] computeColumn(long[] closure)
+    {
+        long[] bits = new long[columnWords()];
+        for (int row = 0; row < rowCount; row++)
+        {
+            if (meets(closure, transcripts[row]))
+            {
+                bits[row >>> 6] |= 1L << row;
+            }
+        }
+        return bits;
+    }
+
+    /**
+     * Add an empty row, growing the transcript and column arrays if needed
+     */
+    private int addRow(String studentId)
+    {
+        int row = rowCount++;
+        rowByStudentId.put(studentId, row);
+        if (row == transcripts.length)
+        {
+            transcripts = Arrays.copyOf(transcripts, row * 2);
+        }
+        transcripts[row] = new long[0];
+        for (int c = 0; c < columns.size(); c++)
+        {
+            long[] bits = columns.get(c);
+            if (bits != null && bits.length < columnWords())
+            {
+                columns.set(c, Arrays.copyOf(bits, columnWords()));
+            }
+        }
+        return row;
+    }
+
+    private int columnWords()
+    {
+        return Math.max(1, (transcripts.length + 63) >>> 6);
+    }
+
+    /**
+     * closure & ~transcript == 0; a shorter transcript counts as zeros past its end
+     */
+    private static boolean meets(long[] closure, long[] transcript)
+    {
+        for (int i = 0; i < closure.length; i++)
+        {
+            long taken = (i < transcript.length) ? transcript[i] : 0L;
+            if ((closure[i] & ~taken) != 0)
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean sameBits(long[] a, long[] b)
+    {
+        int n = Math.max(a.length, b.length);
+        for (int i = 0; i < n; i++)
+        {
+            long x = (i < a.length) ? a[i] : 0L;
+            long y = (i < b.length) ? b[i] : 0L;
+            if (x != y)
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+}
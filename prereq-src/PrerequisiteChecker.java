@@ -1,4 +1,3 @@
-import java.util.HashSet;
 import java.util.Set;
 
 public class PrerequisiteChecker
@@ -16,53 +15,25 @@ public class PrerequisiteChecker
     
     /**
      * Check if student meets all prerequisites for a course using DAG
-     * Time Complexity: O(p) where p = number of prerequisites (including transitive)
+     * Compares the course's precomputed closure bitset against the student's transcript bits
+     * Time Complexity: O(n / 64) where n = number of courses in the graph
      */
     public static boolean checkPrerequisites(Student student, Course course)
     {
-        String courseCode = course.getCourseCode();
-        Set<String> allPrerequisites = prerequisiteGraph.getAllPrerequisites(courseCode);
-        
-        if (allPrerequisites.isEmpty())
-        {
-            return true;
-        }
-        
-        for (String prereq : allPrerequisites)
-        {
-            if (!student.hasCompletedCourse(prereq))
-            {
-                return false;
-            }
-        }
-        return true;
+        return prerequisiteGraph.meetsPrerequisites(course.getCourseCode(),
+                                                    student.getTranscriptBits(prerequisiteGraph));
     }
     
     /**
      * Get the set of missing prerequisites for a student using DAG
-     * Returns all missing prerequisites (direct and indirect)
-     * Time Complexity: O(p) where p = number of prerequisites
+     * Returns all missing prerequisites (direct and indirect), read from closure & ~transcript
+     * Time Complexity: O(n / 64 + m) where m = number of missing prerequisites
      * Returns Set instead of List for efficiency
      */
     public static Set<String> getMissingPrerequisites(Student student, Course course)
     {
-        Set<String> missing = new HashSet<>();
-        String courseCode = course.getCourseCode();
-        Set<String> allPrerequisites = prerequisiteGraph.getAllPrerequisites(courseCode);
-        
-        if (allPrerequisites.isEmpty())
-        {
-            return missing;
-        }
-        
-        for (String prereq : allPrerequisites)
-        {
-            if (!student.hasCompletedCourse(prereq))
-            {
-                missing.add(prereq);
-            }
-        }
-        return missing;
+        return prerequisiteGraph.getMissingPrerequisites(course.getCourseCode(),
+                                                         student.getTranscriptBits(prerequisiteGraph));
     }
     
     /**
@@ -1,16 +1,33 @@
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 /**
  * PrerequisiteGraph - DAG (Directed Acyclic Graph) for managing course prerequisites
  * Uses adjacency list representation for efficient prerequisite lookups
+ * 
+ * Every course also gets a dense int ID, and the full set of prerequisites of each
+ * course is precomputed as a bitset (one bit per course ID). A transcript encoded the
+ * same way can then be checked with closure & ~transcript, one long at a time.
  */
 public class PrerequisiteGraph
 {
     // Adjacency list: course -> set of direct prerequisites
     private HashMap<String, Set<String>> graph;
     
+    // Dense course IDs, assigned in the order courses are added (IDs never change)
+    private HashMap<String, Integer> idByCode = new HashMap<>();
+    private List<String> codeById = new ArrayList<>();
+    
+    // closures[id] = bitset of all prerequisites of course id; null until first needed
+    // and cleared whenever the graph changes
+    private volatile long[][] closures;
+    // Bumped on every change, so cached results built from the graph can tell they are stale
+    private int version;
+    
     /**
      * Constructor - initializes the graph with all CS course prerequisites
      */
@@ -110,6 +127,10 @@ public class PrerequisiteGraph
         if (!graph.containsKey(courseCode))
         {
             graph.put(courseCode, new HashSet<>());
+            idByCode.put(courseCode, codeById.size());
+            codeById.add(courseCode);
+            closures = null;
+            version++;
         }
     }
     
@@ -122,7 +143,11 @@ public class PrerequisiteGraph
     {
         addCourse(courseCode);
         addCourse(prerequisite);
-        graph.get(courseCode).add(prerequisite);
+        if (graph.get(courseCode).add(prerequisite))
+        {
+            closures = null;
+            version++;
+        }
     }
     
     /**
@@ -137,40 +162,271 @@ public class PrerequisiteGraph
     }
     
     /**
-     * Get all prerequisites (transitive closure) for a course using DFS
+     * Get all prerequisites (transitive closure) for a course
      * This includes direct prerequisites and all their prerequisites recursively
+     * Read from the precomputed closure bitset, so no graph walk is needed
      * @param courseCode The course code
      * @return Set of all prerequisites (direct and indirect)
      */
     public Set<String> getAllPrerequisites(String courseCode)
     {
-        Set<String> allPrereqs = new HashSet<>();
-        Set<String> visited = new HashSet<>();
-        dfsPrerequisites(courseCode, allPrereqs, visited);
-        return allPrereqs;
+        Integer id = idByCode.get(courseCode);
+        if (id == null)
+        {
+            return new HashSet<>();
+        }
+        return decode(getClosures()[id], null);
+    }
+    
+    /**
+     * Get the dense ID of a course
+     * @param courseCode The course code
+     * @return The course ID, or -1 if the course is not in the graph
+     */
+    public int getCourseId(String courseCode)
+    {
+        Integer id = idByCode.get(courseCode);
+        return (id != null) ? id : -1;
+    }
+    
+    /**
+     * Get the course code for a dense course ID
+     */
+    public String getCourseCode(int courseId)
+    {
+        return codeById.get(courseId);
+    }
+    
+    /**
+     * Get the number of courses in the graph (course IDs are 0 to count - 1)
+     */
+    public int getCourseCount()
+    {
+        return codeById.size();
+    }
+    
+    /**
+     * Get the graph's version, which changes whenever a course or prerequisite is added
+     */
+    public int getVersion()
+    {
+        return version;
+    }
+    
+    /**
+     * Get the precomputed closure bitset of a course (bit i set = course i is a prerequisite)
+     * @param courseCode The course code
+     * @return The closure bits (shared, do not modify), or null if the course is not in the graph
+     */
+    public long[] getClosureBits(String courseCode)
+    {
+        Integer id = idByCode.get(courseCode);
+        return (id != null) ? getClosures()[id] : null;
+    }
+    
+    /**
+     * Encode a list of completed courses as a transcript bitset (one bit per course ID)
+     * Courses that are not in the graph are not prerequisites of anything and are skipped
+     * @param completedCourses Course codes the student has completed
+     * @return Transcript bits, to pass to meetsPrerequisites/getMissingPrerequisites
+     */
+    public long[] encodeTranscript(Collection<String> completedCourses)
+    {
+        long[] bits = new long[(codeById.size() + 63) >>> 6];
+        for (String code : completedCourses)
+        {
+            Integer id = idByCode.get(code);
+            if (id != null)
+            {
+                bits[id >>> 6] |= 1L << id;
+            }
+        }
+        return bits;
+    }
+    
+    /**
+     * Check if a transcript covers every prerequisite of a course: closure & ~transcript == 0
+     * Time Complexity: O(n / 64) where n = number of courses in the graph
+     * @param courseCode The course code
+     * @param transcript Transcript bits from encodeTranscript
+     * @return true if nothing is missing (or the course is not in the graph)
+     */
+    public boolean meetsPrerequisites(String courseCode, long[] transcript)
+    {
+        Integer id = idByCode.get(courseCode);
+        if (id == null)
+        {
+            return true;
+        }
+        long[] closure = getClosures()[id];
+        for (int i = 0; i < closure.length; i++)
+        {
+            if ((closure[i] & ~word(transcript, i)) != 0)
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Get the prerequisites of a course (direct and indirect) that a transcript is missing
+     * @param courseCode The course code
+     * @param transcript Transcript bits from encodeTranscript
+     * @return Set of missing prerequisites (empty if all are met)
+     */
+    public Set<String> getMissingPrerequisites(String courseCode, long[] transcript)
+    {
+        Integer id = idByCode.get(courseCode);
+        if (id == null)
+        {
+            return new HashSet<>();
+        }
+        return decode(getClosures()[id], transcript);
+    }
+    
+    /**
+     * Word i of a transcript; transcripts encoded before later courses were added are shorter
+     */
+    private static long word(long[] transcript, int i)
+    {
+        return (i < transcript.length) ? transcript[i] : 0L;
+    }
+    
+    /**
+     * Turn closure & ~transcript back into course codes (transcript may be null)
+     */
+    private Set<String> decode(long[] closure, long[] transcript)
+    {
+        Set<String> codes = new HashSet<>();
+        for (int i = 0; i < closure.length; i++)
+        {
+            long bits = (transcript == null) ? closure[i] : closure[i] & ~word(transcript, i);
+            while (bits != 0)
+            {
+                codes.add(codeById.get((i << 6) + Long.numberOfTrailingZeros(bits)));
+                bits &= bits - 1;
+            }
+        }
+        return codes;
     }
     
     /**
-     * DFS helper to find all prerequisites (transitive closure)
+     * Get the closure bitsets, building them first if the graph changed since the last build
      */
-    private void dfsPrerequisites(String courseCode, Set<String> allPrereqs, Set<String> visited)
+    private long[][] getClosures()
     {
-        if (visited.contains(courseCode))
+        long[][] built = closures;
+        if (built == null)
+        {
+            synchronized (this)
+            {
+                built = closures;
+                if (built == null)
+                {
+                    built = buildClosures();
+                    closures = built;
+                }
+            }
+        }
+        return built;
+    }
+    
+    /**
+     * Build every course's closure once, in topological order (prerequisites first),
+     * so each course is the OR of its direct prerequisites and their finished closures
+     * Time Complexity: O(E * n / 64) for E prerequisite edges and n courses
+     */
+    private long[][] buildClosures()
+    {
+        int n = codeById.size();
+        int words = (n + 63) >>> 6;
+        long[][] built = new long[n][words];
+        
+        // Kahn's algorithm: a course is ready once all of its direct prerequisites are done
+        int[] pending = new int[n];
+        List<List<Integer>> dependents = new ArrayList<>();
+        for (int id = 0; id < n; id++)
+        {
+            dependents.add(new ArrayList<>());
+        }
+        for (int id = 0; id < n; id++)
         {
-            return; // Already processed
+            for (String prereq : graph.get(codeById.get(id)))
+            {
+                dependents.get(idByCode.get(prereq)).add(id);
+                pending[id]++;
+            }
         }
         
-        visited.add(courseCode);
-        Set<String> directPrereqs = graph.get(courseCode);
+        int[] order = new int[n];
+        int head = 0, tail = 0;
+        for (int id = 0; id < n; id++)
+        {
+            if (pending[id] == 0)
+            {
+                order[tail++] = id;
+            }
+        }
+        while (head < tail)
+        {
+            int id = order[head++];
+            orInPrerequisites(built, id);
+            for (int dependent : dependents.get(id))
+            {
+                if (--pending[dependent] == 0)
+                {
+                    order[tail++] = dependent;
+                }
+            }
+        }
         
-        if (directPrereqs != null)
+        // Courses on a cycle never become ready; repeat until their closures stop growing
+        if (tail < n)
+        {
+            boolean changed = true;
+            while (changed)
+            {
+                changed = false;
+                for (int id = 0; id < n; id++)
+                {
+                    if (pending[id] > 0)
+                    {
+                        changed |= orInPrerequisites(built, id);
+                    }
+                }
+            }
+        }
+        return built;
+    }
+    
+    /**
+     * closure[id] |= each direct prerequisite and its closure
+     * @return true if closure[id] changed
+     */
+    private boolean orInPrerequisites(long[][] built, int id)
+    {
+        long[] closure = built[id];
+        boolean changed = false;
+        for (String prereq : graph.get(codeById.get(id)))
         {
-            for (String prereq : directPrereqs)
+            int p = idByCode.get(prereq);
+            long[] prereqClosure = built[p];
+            for (int i = 0; i < closure.length; i++)
             {
-                allPrereqs.add(prereq);
-                dfsPrerequisites(prereq, allPrereqs, visited);
+                long next = closure[i] | prereqClosure[i];
+                if (i == (p >>> 6))
+                {
+                    next |= 1L << p;
+                }
+                if (next != closure[i])
+                {
+                    closure[i] = next;
+                    changed = true;
+                }
             }
         }
+        return changed;
     }
     
     /**
@@ -1,9 +1,12 @@
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.HashSet;
-import java.io.BufferedReader;
-import java.io.FileReader;
+import java.util.LinkedHashSet;
 import java.io.IOException;
 
 public class RegistrationSystem
@@ -12,8 +15,14 @@ public class RegistrationSystem
     private HashMap<String, Student> students;
     // Stores all courses - O(1) lookup by courseId
     private HashMap<String, Course> courses;
-    // O(1) lookup to find all sections of a course (e.g., all "CSCI004" sections)
+    // O(1) lookup to find all sections of a course (e.g., all "CSCI004" sections), in the order added
     private HashMap<String, Set<String>> coursesByCode;
+    // Trie over the keys of coursesByCode, for matches that differ by a location code
+    private CourseCodeIndex courseCodeIndex;
+    // Student x course eligibility bits, built on first use and updated as students change
+    private EligibilityMatrix eligibility;
+    // Highest number among student IDs of the form S####, -1 if none
+    private int highestStudentNumber = -1;
     
     /**
      * Constructor
@@ -24,6 +33,7 @@ public class RegistrationSystem
         this.students = new HashMap<>();
         this.courses = new HashMap<>();
         this.coursesByCode = new HashMap<>();
+        this.courseCodeIndex = new CourseCodeIndex();
     }
     
     /**
@@ -34,6 +44,12 @@ public class RegistrationSystem
         if (student != null && student.getStudentId() != null)
         {
             students.put(student.getStudentId(), student);
+            highestStudentNumber = Math.max(highestStudentNumber, StudentCsvLoader.studentNumber(student.getStudentId()));
+            if (eligibility != null)
+            {
+                PrerequisiteGraph graph = PrerequisiteChecker.getPrerequisiteGraph();
+                eligibility.updateStudent(student.getStudentId(), student.getTranscriptBits(graph));
+            }
         }
     }
     
@@ -51,16 +67,56 @@ public class RegistrationSystem
             {
                 if (!coursesByCode.containsKey(courseCode))
                 {
-                    coursesByCode.put(courseCode, new HashSet<>());
+                    coursesByCode.put(courseCode, new LinkedHashSet<>());
+                    courseCodeIndex.add(courseCode);
                 }
                 coursesByCode.get(courseCode).add(course.getCourseSectionId());
             }
         }
     }
     
+    /**
+     * Get the sections of every course whose code matches, allowing a 2-3 letter location code
+     * on either side (e.g., "CS181DV" also finds the sections of "CS181DVPO")
+     * Time Complexity: O(k) for a code of length k, plus the sections returned
+     * @param courseCode Normalized course code
+     * @return Section IDs, grouped by course code, each group in the order the sections were added
+     */
+    public List<String> getSectionIdsMatchingCode(String courseCode)
+    {
+        List<String> sectionIds = new ArrayList<>();
+        for (String code : courseCodeIndex.findMatchingCodes(courseCode))
+        {
+            sectionIds.addAll(coursesByCode.get(code));
+        }
+        return sectionIds;
+    }
+    
+    /**
+     * Get the eligibility matrix for all students in the system, building it on first use
+     */
+    public EligibilityMatrix getEligibilityMatrix()
+    {
+        if (eligibility == null)
+        {
+            PrerequisiteGraph graph = PrerequisiteChecker.getPrerequisiteGraph();
+            List<String> studentIds = new ArrayList<>();
+            List<long[]> transcripts = new ArrayList<>();
+            for (Student student : students.values())
+            {
+                studentIds.add(student.getStudentId());
+                transcripts.add(student.getTranscriptBits(graph));
+            }
+            eligibility = EligibilityMatrix.build(graph, studentIds, transcripts);
+        }
+        return eligibility;
+    }
+    
     /**
      * Validate if a student can register for a course
-     * Time Complexity: O(p) where p = number of prerequisites
+     * Eligibility is one bit test in the eligibility matrix; the missing set is only
+     * worked out for students who are not eligible
+     * Time Complexity: O(1) when eligible, O(n / 64 + m) otherwise (see PrerequisiteChecker)
      */
     public PrerequisiteValidationResult validateRegistration(String studentId, String courseId)
     {
@@ -82,6 +138,14 @@ public class RegistrationSystem
             return new PrerequisiteValidationResult(false, new HashSet<>(), "Course is full");
         }
         
+        // Picks up a changed transcript (new bits array) before the bit test
+        EligibilityMatrix matrix = getEligibilityMatrix();
+        matrix.updateStudent(studentId, student.getTranscriptBits(PrerequisiteChecker.getPrerequisiteGraph()));
+        if (matrix.isEligible(studentId, course.getCourseCode()))
+        {
+            return new PrerequisiteValidationResult(true, new HashSet<>(), "Eligible for registration");
+        }
+        
         Set<String> missingPrereqs = PrerequisiteChecker.getMissingPrerequisites(student, course);
         
         if (missingPrereqs.isEmpty())
@@ -122,11 +186,11 @@ public class RegistrationSystem
     
     /**
      * Get all students in the system
-     * @return HashMap of all students (studentId -> Student)
+     * @return Read-only view of all students (studentId -> Student), not a copy
      */
-    public HashMap<String, Student> getAllStudents()
+    public Map<String, Student> getAllStudents()
     {
-        return new HashMap<>(students);
+        return Collections.unmodifiableMap(students);
     }
     
     /**
@@ -136,74 +200,45 @@ public class RegistrationSystem
      */
     public void loadStudentData(String filepath)
     {
-        try (BufferedReader br = new BufferedReader(new FileReader(filepath)))
+        loadStudentData(filepath, null);
+    }
+    
+    /**
+     * Load student data from file, letting the caller read the rest of each row in the same pass
+     * (e.g. requested_classes) so the file is only parsed once
+     * Large files are parsed in parallel chunks; rows are still visited one at a time in file order
+     * @param filepath Path to the student CSV file
+     * @param alsoVisit Called with each row after its student is added, or null
+     */
+    public void loadStudentData(String filepath, StudentCsvLoader.RowHandler alsoVisit)
+    {
+        try
         {
-            String line = br.readLine();
-            
-            while ((line = br.readLine()) != null)
+            StudentCsvLoader.load(filepath, row ->
             {
-                int firstComma = line.indexOf(',');
-                int secondComma = line.indexOf(',', firstComma + 1);
-                int firstBracket = line.indexOf('[');
-                int firstCloseBracket = line.indexOf(']');
-                int secondBracket = line.indexOf('[', firstCloseBracket + 1);
-                int secondCloseBracket = line.indexOf(']', secondBracket + 1);
+                addStudent(new Student(new StudentRecord(row.studentId, row.name, row.gradYear,
+                                                         row.majorStatus, row.pastClasses)));
                 
-                if (firstComma == -1 || secondComma == -1)
+                if (alsoVisit != null)
                 {
-                    continue;
+                    alsoVisit.accept(row);
                 }
-                
-                String studentId = line.substring(0, firstComma).trim();
-                String name = line.substring(firstComma + 1, secondComma).trim();
-                
-                String pastClassesStr = "";
-                String requestedClassesStr = "";
-                
-                if (firstBracket != -1 && firstCloseBracket != -1)
-                {
-                    pastClassesStr = line.substring(firstBracket, firstCloseBracket + 1).trim();
-                }
-                
-                if (secondBracket != -1 && secondCloseBracket != -1)
-                {
-                    requestedClassesStr = line.substring(secondBracket, secondCloseBracket + 1).trim();
-                }
-                
-                String remaining = line.substring(secondCloseBracket + 2);
-                String[] lastParts = remaining.split(",");
-                
-                if (lastParts.length < 2)
-                {
-                    continue;
-                }
-                
-                int gradYear = Integer.parseInt(lastParts[0].trim());
-                String majorStatus = lastParts[1].trim();
-                
-                Student student = new Student(studentId, name, gradYear, majorStatus);
-                
-                if (!pastClassesStr.equals("") && !pastClassesStr.equals("[]"))
-                {
-                    String cleaned = pastClassesStr.replace("[", "").replace("]", "");
-                    String[] courses = cleaned.split(",");
-                    for (String course : courses)
-                    {
-                        student.addPastClass(course.trim());
-                    }
-                }
-                
-                addStudent(student);
-            }
+            }, true);
         }
         catch (IOException e)
         {
             System.err.println("Error loading student data: " + e.getMessage());
         }
-        catch (Exception e)
-        {
-            System.err.println("Error parsing student data: " + e.getMessage());
-        }
+    }
+    
+    /**
+     * Get the highest number among student IDs of the form S#### (e.g. 1499 for "S1499")
+     * Kept up to date by addStudent, so a new ID can be handed out without rereading the file
+     * @return The highest student number, or -1 if there is none
+     */
+    public int getHighestStudentNumber()
+    {
+        return highestStudentNumber;
     }
     
     /**
@@ -1,68 +1,85 @@
-import java.util.HashSet;
 import java.util.Set;
 
+/**
+ * Registration view of a student: wraps the student's immutable StudentRecord and swaps in
+ * a new record when a completed course is added
+ */
 public class Student
 {
-    private String studentId;
-    private String name;
-    private HashSet<String> pastClasses; // O(1) lookup instead of List which is O(n)
-    private int gradYear;
-    private String majorStatus;
-    
+    private StudentRecord record;
+
     /**
      * Constructor
      */
     public Student(String studentId, String name, int gradYear, String majorStatus)
     {
-        this.studentId = studentId;
-        this.name = name;
-        this.gradYear = gradYear;
-        this.majorStatus = majorStatus;
-        this.pastClasses = new HashSet<>();
+        this(new StudentRecord(studentId, name, gradYear, majorStatus, null));
+    }
+
+    /**
+     * Create a view over an existing record (no copy of the transcript)
+     */
+    public Student(StudentRecord record)
+    {
+        this.record = record;
     }
-    
+
     /**
-     * Check if student has completed a specific course - O(1) lookup
+     * Check if student has completed a specific course - O(log n) lookup
      */
     public boolean hasCompletedCourse(String courseId)
     {
-        return pastClasses.contains(courseId);
+        return record.hasCompleted(courseId);
     }
-    
+
     /**
      * Add a completed course to student's history
      */
     public void addPastClass(String courseId)
     {
-        if (courseId != null && !courseId.isEmpty())
-        {
-            pastClasses.add(courseId);
-        }
+        record = record.withPastClass(courseId);
     }
-    
+
+    /**
+     * Get completed courses as a transcript bitset for prerequisite checks
+     * Encoded once and reused until a course is added or the graph gains courses
+     */
+    public long[] getTranscriptBits(PrerequisiteGraph graph)
+    {
+        return record.getTranscriptBits(graph);
+    }
+
+    /**
+     * Get the student's current record, shared with the lottery's view of the student
+     */
+    public StudentRecord getRecord()
+    {
+        return record;
+    }
+
     // Getters
     public String getStudentId()
     {
-        return studentId;
+        return record.getStudentId();
     }
-    
+
     public String getName()
     {
-        return name;
+        return record.getName();
     }
-    
+
     public Set<String> getPastClasses()
     {
-        return pastClasses;
+        return record.getPastClasses();
     }
-    
+
     public int getGradYear()
     {
-        return gradYear;
+        return record.getGradYear();
     }
-    
+
     public String getMajorStatus()
     {
-        return majorStatus;
+        return record.getMajorStatus();
     }
 }
@@ -0,0 +1,499 @@
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Streaming loader for data/student.csv
+ * CSV format: student_id,name,past_classes,requested_classes,grad_year,major_status
+ * past_classes / requested_classes format: [CS140,CS51,CS62] (bracketed list)
+ *
+ * The file is read once as bytes and split in place; each row is handed to a RowHandler
+ * and then reused, so memory stays bounded no matter how many rows there are. Course codes
+ * repeat on almost every row, so they are interned while parsing and each distinct code
+ * becomes a String only once. Rows that cannot be parsed are skipped.
+ *
+ * In parallel mode the file is split at line boundaries into chunks that are parsed on the
+ * common ForkJoinPool a wave at a time; the rows are still handed to the handler one by one
+ * in file order, so handlers need not be thread-safe. Memory is bounded by one wave of chunks.
+ */
+public class StudentCsvLoader {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    // Bytes per chunk in parallel mode; files under two chunks are read sequentially
+    static final int CHUNK_SIZE = 1 << 22;
+
+    /**
+     * One parsed row. The same object (and the same lists) is reused for every row,
+     * so a handler must copy anything it keeps.
+     */
+    public static final class Row {
+        public String studentId;
+        public String name;
+        public final List<String> pastClasses = new ArrayList<>();
+        public final List<String> requestedClasses = new ArrayList<>();
+        public int gradYear;
+        public String majorStatus;
+    }
+
+    /**
+     * Receives each row of the file in order.
+     */
+    public interface RowHandler {
+        void accept(Row row);
+    }
+
+    /**
+     * Read the file once, passing every row to the handler
+     * @param filepath Path to the student CSV file
+     * @param handler Called once per row, or null to only scan for the ID high-water mark
+     * @return Highest number among IDs of the form S#### (e.g. 1499 for "S1499"), or -1 if none
+     */
+    public static int load(String filepath, RowHandler handler) throws IOException {
+        return load(filepath, handler, false);
+    }
+
+    /**
+     * Read the file once, passing every row to the handler in file order
+     * @param filepath Path to the student CSV file
+     * @param handler Called once per row, or null to only scan for the ID high-water mark
+     * @param parallel true to parse chunks of the file on the common ForkJoinPool
+     * @return Highest number among IDs of the form S#### (e.g. 1499 for "S1499"), or -1 if none
+     */
+    public static int load(String filepath, RowHandler handler, boolean parallel) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(filepath), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (!parallel || size < 2L * CHUNK_SIZE) {
+                try (InputStream in = new FileInputStream(filepath)) {
+                    return new Parser(handler).run(in);
+                }
+            }
+            return loadChunks(channel, size, handler);
+        }
+    }
+
+    private static int loadChunks(FileChannel channel, long size, RowHandler handler) throws IOException {
+        long[] bounds = chunkBounds(channel, size);
+        int chunkCount = bounds.length - 1;
+        int wave = Math.max(1, ForkJoinPool.getCommonPoolParallelism() * 2);
+        Row row = new Row();
+        int highWaterMark = -1;
+
+        for (int first = 0; first < chunkCount; first += wave) {
+            int firstChunk = first;
+            ChunkRows[] parsed = new ChunkRows[Math.min(wave, chunkCount - first)];
+            try {
+                IntStream.range(0, parsed.length).parallel().forEach(i -> {
+                    int c = firstChunk + i;
+                    parsed[i] = parseChunk(channel, bounds[c], bounds[c + 1], c == 0, handler != null);
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            for (ChunkRows chunk : parsed) {
+                highWaterMark = Math.max(highWaterMark, chunk.highWaterMark);
+                if (handler != null) {
+                    chunk.replay(row, handler);
+                }
+            }
+        }
+        return highWaterMark;
+    }
+
+    /**
+     * Split the file into chunks of about CHUNK_SIZE bytes, each ending just after a newline
+     * @return chunk start offsets followed by the file size
+     */
+    private static long[] chunkBounds(FileChannel channel, long size) throws IOException {
+        int chunks = (int) Math.min(Integer.MAX_VALUE - 1, (size + CHUNK_SIZE - 1) / CHUNK_SIZE);
+        long[] bounds = new long[chunks + 1];
+        ByteBuffer probe = ByteBuffer.allocate(1 << 12);
+        for (int c = 1; c < chunks; c++) {
+            long at = Math.max((long) c * CHUNK_SIZE, bounds[c - 1]);
+            long bound = size;
+            while (at < size) {
+                probe.clear();
+                int n = channel.read(probe, at);
+                if (n <= 0) {
+                    break;
+                }
+                int newline = -1;
+                for (int i = 0; i < n; i++) {
+                    if (probe.get(i) == '\n') {
+                        newline = i;
+                        break;
+                    }
+                }
+                if (newline >= 0) {
+                    bound = at + newline + 1;
+                    break;
+                }
+                at += n;
+            }
+            bounds[c] = bound;
+        }
+        bounds[chunks] = size;
+        return bounds;
+    }
+
+    private static ChunkRows parseChunk(FileChannel channel, long start, long end, boolean hasHeader, boolean keepRows) {
+        try {
+            byte[] bytes = new byte[(int) (end - start)];
+            ByteBuffer target = ByteBuffer.wrap(bytes);
+            while (target.hasRemaining()) {
+                if (channel.read(target, start + target.position()) < 0) {
+                    break;
+                }
+            }
+            ChunkRows rows = new ChunkRows();
+            Parser parser = new Parser(keepRows ? rows : null);
+            rows.highWaterMark = parser.runChunk(bytes, target.position(), hasHeader);
+            return rows;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * The rows of one chunk, kept as flat arrays until they can be replayed in file order.
+     */
+    private static final class ChunkRows implements RowHandler {
+        private String[] ids = new String[256];
+        private String[] names = new String[256];
+        private String[] majorStatuses = new String[256];
+        private int[] gradYears = new int[256];
+        private int[] codeEnds = new int[512]; // per row: end of past classes, end of requested classes
+        private String[] codes = new String[2048];
+        private int rowCount;
+        private int codeCount;
+        int highWaterMark = -1;
+
+        @Override
+        public void accept(Row row) {
+            if (rowCount == ids.length) {
+                int grown = rowCount * 2;
+                ids = Arrays.copyOf(ids, grown);
+                names = Arrays.copyOf(names, grown);
+                majorStatuses = Arrays.copyOf(majorStatuses, grown);
+                gradYears = Arrays.copyOf(gradYears, grown);
+                codeEnds = Arrays.copyOf(codeEnds, grown * 2);
+            }
+            ids[rowCount] = row.studentId;
+            names[rowCount] = row.name;
+            majorStatuses[rowCount] = row.majorStatus;
+            gradYears[rowCount] = row.gradYear;
+            addCodes(row.pastClasses);
+            codeEnds[rowCount * 2] = codeCount;
+            addCodes(row.requestedClasses);
+            codeEnds[rowCount * 2 + 1] = codeCount;
+            rowCount++;
+        }
+
+        private void addCodes(List<String> list) {
+            if (codeCount + list.size() > codes.length) {
+                codes = Arrays.copyOf(codes, Math.max(codes.length * 2, codeCount + list.size()));
+            }
+            for (int i = 0; i < list.size(); i++) {
+                codes[codeCount++] = list.get(i);
+            }
+        }
+
+        void replay(Row row, RowHandler handler) {
+            int codeStart = 0;
+            for (int r = 0; r < rowCount; r++) {
+                row.studentId = ids[r];
+                row.name = names[r];
+                row.gradYear = gradYears[r];
+                row.majorStatus = majorStatuses[r];
+                row.pastClasses.clear();
+                row.requestedClasses.clear();
+                int pastEnd = codeEnds[r * 2];
+                int requestedEnd = codeEnds[r * 2 + 1];
+                for (int i = codeStart; i < pastEnd; i++) {
+                    row.pastClasses.add(codes[i]);
+                }
+                for (int i = pastEnd; i < requestedEnd; i++) {
+                    row.requestedClasses.add(codes[i]);
+                }
+                codeStart = requestedEnd;
+                handler.accept(row);
+            }
+        }
+    }
+
+    /**
+     * @return the number in an ID of the form S#### (e.g. 1499 for "S1499"), or -1 if it has another form
+     */
+    public static int studentNumber(String studentId) {
+        if (studentId == null || studentId.length() < 2 || studentId.length() > 10 || studentId.charAt(0) != 'S') {
+            return -1;
+        }
+        long number = 0;
+        for (int i = 1; i < studentId.length(); i++) {
+            char c = studentId.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            number = number * 10 + (c - '0');
+        }
+        return (number > Integer.MAX_VALUE) ? -1 : (int) number;
+    }
+
+    /**
+     * Splits lines in the read buffer and fields in each line without copying them out.
+     */
+    private static final class Parser {
+        private final RowHandler handler;
+        private final Row row = new Row();
+        private final CodeTable codes = new CodeTable();
+        private byte[] buf = new byte[BUFFER_SIZE];
+        private int highWaterMark = -1;
+
+        // Top-level field bounds for the current line: [fieldStart[i], fieldEnd[i])
+        private final int[] fieldStart = new int[6];
+        private final int[] fieldEnd = new int[6];
+
+        Parser(RowHandler handler) {
+            this.handler = handler;
+        }
+
+        /**
+         * Parse a whole chunk already in memory; a last line without a newline is parsed too
+         */
+        int runChunk(byte[] bytes, int length, boolean hasHeader) {
+            buf = bytes;
+            int start = 0;
+            boolean header = hasHeader;
+            for (int i = 0; i < length; i++) {
+                if (bytes[i] == '\n') {
+                    if (header) {
+                        header = false;
+                    } else {
+                        parseLine(start, i);
+                    }
+                    start = i + 1;
+                }
+            }
+            if (start < length && !header) {
+                parseLine(start, length);
+            }
+            return highWaterMark;
+        }
+
+        int run(InputStream in) throws IOException {
+            int start = 0;
+            int limit = 0;
+            boolean header = true;
+            boolean eof = false;
+
+            while (true) {
+                int newline = -1;
+                for (int i = start; i < limit; i++) {
+                    if (buf[i] == '\n') {
+                        newline = i;
+                        break;
+                    }
+                }
+
+                if (newline == -1) {
+                    if (eof) {
+                        if (start < limit && !header) {
+                            parseLine(start, limit);
+                        }
+                        return highWaterMark;
+                    }
+                    // Move the partial line to the front, growing the buffer for very long lines
+                    int pending = limit - start;
+                    if (pending == buf.length) {
+                        buf = Arrays.copyOf(buf, buf.length * 2);
+                    } else if (start > 0) {
+                        System.arraycopy(buf, start, buf, 0, pending);
+                    }
+                    start = 0;
+                    limit = pending;
+                    int n = in.read(buf, limit, buf.length - limit);
+                    if (n < 0) {
+                        eof = true;
+                    } else {
+                        limit += n;
+                    }
+                    continue;
+                }
+
+                if (header) {
+                    header = false;
+                } else {
+                    parseLine(start, newline);
+                }
+                start = newline + 1;
+            }
+        }
+
+        private void parseLine(int start, int end) {
+            // Split on commas outside brackets
+            int fields = 0;
+            int depth = 0;
+            int fieldBegin = start;
+            for (int i = start; i < end && fields < 6; i++) {
+                byte b = buf[i];
+                if (b == '[') {
+                    depth++;
+                } else if (b == ']') {
+                    depth--;
+                } else if (b == ',' && depth == 0) {
+                    fieldStart[fields] = fieldBegin;
+                    fieldEnd[fields++] = i;
+                    fieldBegin = i + 1;
+                }
+            }
+            if (fields == 5) {
+                fieldStart[fields] = fieldBegin;
+                fieldEnd[fields++] = end;
+            }
+            if (fields < 6) {
+                return; // blank or malformed line
+            }
+            for (int f = 0; f < 6; f++) {
+                trim(f);
+            }
+            if (fieldStart[0] == fieldEnd[0]) {
+                return;
+            }
+
+            int gradYear = parseInt(fieldStart[4], fieldEnd[4]);
+            if (gradYear < 0) {
+                return;
+            }
+
+            String studentId = text(fieldStart[0], fieldEnd[0]);
+            highWaterMark = Math.max(highWaterMark, studentNumber(studentId));
+            if (handler == null) {
+                return;
+            }
+
+            row.studentId = studentId;
+            row.name = text(fieldStart[1], fieldEnd[1]);
+            parseList(fieldStart[2], fieldEnd[2], row.pastClasses);
+            parseList(fieldStart[3], fieldEnd[3], row.requestedClasses);
+            row.gradYear = gradYear;
+            row.majorStatus = codes.intern(buf, fieldStart[5], fieldEnd[5]);
+            handler.accept(row);
+        }
+
+        private void trim(int f) {
+            int s = fieldStart[f];
+            int e = fieldEnd[f];
+            while (s < e && buf[s] <= ' ') s++;
+            while (e > s && buf[e - 1] <= ' ') e--;
+            fieldStart[f] = s;
+            fieldEnd[f] = e;
+        }
+
+        /**
+         * Parse "[A,B,C]" (brackets optional) into interned codes, skipping empty entries
+         */
+        private void parseList(int start, int end, List<String> out) {
+            out.clear();
+            if (start < end && buf[start] == '[') start++;
+            if (end > start && buf[end - 1] == ']') end--;
+            int itemStart = start;
+            for (int i = start; i <= end; i++) {
+                if (i == end || buf[i] == ',') {
+                    int s = itemStart;
+                    int e = i;
+                    while (s < e && buf[s] <= ' ') s++;
+                    while (e > s && buf[e - 1] <= ' ') e--;
+                    if (s < e) {
+                        out.add(codes.intern(buf, s, e));
+                    }
+                    itemStart = i + 1;
+                }
+            }
+        }
+
+        private int parseInt(int start, int end) {
+            if (start == end || end - start > 9) {
+                return -1;
+            }
+            int value = 0;
+            for (int i = start; i < end; i++) {
+                byte b = buf[i];
+                if (b < '0' || b > '9') {
+                    return -1;
+                }
+                value = value * 10 + (b - '0');
+            }
+            return value;
+        }
+
+        private String text(int start, int end) {
+            return new String(buf, start, end - start, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Open-addressing table from byte ranges to Strings, so a repeated code is looked up
+     * from the buffer instead of being decoded again.
+     */
+    private static final class CodeTable {
+        private byte[][] keys = new byte[64][];
+        private String[] values = new String[64];
+        private int size;
+
+        String intern(byte[] buf, int start, int end) {
+            int mask = keys.length - 1;
+            int hash = hash(buf, start, end);
+            for (int i = hash & mask; ; i = (i + 1) & mask) {
+                byte[] key = keys[i];
+                if (key == null) {
+                    String value = new String(buf, start, end - start, StandardCharsets.UTF_8);
+                    keys[i] = Arrays.copyOfRange(buf, start, end);
+                    values[i] = value;
+                    if (++size * 2 > keys.length) {
+                        grow();
+                    }
+                    return value;
+                }
+                if (Arrays.equals(key, 0, key.length, buf, start, end)) {
+                    return values[i];
+                }
+            }
+        }
+
+        private void grow() {
+            byte[][] oldKeys = keys;
+            String[] oldValues = values;
+            keys = new byte[oldKeys.length * 2][];
+            values = new String[oldKeys.length * 2];
+            int mask = keys.length - 1;
+            for (int j = 0; j < oldKeys.length; j++) {
+                byte[] key = oldKeys[j];
+                if (key == null) continue;
+                int i = hash(key, 0, key.length) & mask;
+                while (keys[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = key;
+                values[i] = oldValues[j];
+            }
+        }
+
+        private static int hash(byte[] buf, int start, int end) {
+            int h = 1;
+            for (int i = start; i < end; i++) {
+                h = 31 * h + buf[i];
+            }
+            return h ^ (h >>> 16);
+        }
+    }
+}
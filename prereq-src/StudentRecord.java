@@ -0,0 +1,267 @@
+import java.util.AbstractList;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * StudentRecord - immutable data of one student, shared by the registration system and the lottery
+ * Student (registration) and students (lottery) are views over a record, so a student's
+ * transcript is stored once and converting between the two copies nothing.
+ *
+ * The transcript is a sorted array of CourseDictionary IDs: a short[] while every ID fits in
+ * a short (fewer than 32768 distinct codes), an int[] otherwise, so n courses take about
+ * 16 + 2n bytes instead of a set of per-student Strings. Lookups are a binary search; the
+ * prerequisite bitset is encoded on first use and cached per record. The set and list views
+ * list codes in ID order, which is the order the dictionary first saw them, not alphabetical.
+ */
+public final class StudentRecord
+{
+    private static final short[] NO_CLASSES = new short[0];
+
+    private final String studentId;
+    private final String name;
+    private final int gradYear;
+    private final String majorStatus;
+    // Completed course IDs, sorted with no duplicates; exactly one of the two is non-null
+    private final short[] shortIds;
+    private final int[] intIds;
+
+    // Transcript bits for the graph size they were encoded at, null until needed
+    private static final class TranscriptBits
+    {
+        final long[] bits;
+        final int courseCount;
+
+        TranscriptBits(long[] bits, int courseCount)
+        {
+            this.bits = bits;
+            this.courseCount = courseCount;
+        }
+    }
+    private volatile TranscriptBits transcriptBits;
+
+    /**
+     * Constructor
+     * @param pastClasses Completed course codes, in any order (copied; empty codes are skipped)
+     */
+    public StudentRecord(String studentId, String name, int gradYear, String majorStatus, Collection<String> pastClasses)
+    {
+        this(studentId, name, gradYear, majorStatus, encode(pastClasses));
+    }
+
+    private StudentRecord(String studentId, String name, int gradYear, String majorStatus, int[] sortedIds)
+    {
+        this.studentId = studentId;
+        this.name = name;
+        this.gradYear = gradYear;
+        this.majorStatus = majorStatus;
+        int maxId = sortedIds.length == 0 ? 0 : sortedIds[sortedIds.length - 1];
+        if (maxId <= Short.MAX_VALUE)
+        {
+            short[] ids = sortedIds.length == 0 ? NO_CLASSES : new short[sortedIds.length];
+            for (int i = 0; i < ids.length; i++)
+            {
+                ids[i] = (short) sortedIds[i];
+            }
+            this.shortIds = ids;
+            this.intIds = null;
+        }
+        else
+        {
+            this.shortIds = null;
+            this.intIds = sortedIds;
+        }
+    }
+
+    /**
+     * Encode course codes as sorted, distinct dictionary IDs
+     */
+    private static int[] encode(Collection<String> codes)
+    {
+        if (codes == null || codes.isEmpty())
+        {
+            return new int[0];
+        }
+        int[] ids = new int[codes.size()];
+        int count = 0;
+        for (String code : codes)
+        {
+            if (code != null && !code.isEmpty())
+            {
+                ids[count++] = CourseDictionary.idOf(code);
+            }
+        }
+        Arrays.sort(ids, 0, count);
+        int distinct = 0;
+        for (int i = 0; i < count; i++)
+        {
+            if (distinct == 0 || ids[i] != ids[distinct - 1])
+            {
+                ids[distinct++] = ids[i];
+            }
+        }
+        return distinct == ids.length ? ids : Arrays.copyOf(ids, distinct);
+    }
+
+    private int count()
+    {
+        return shortIds != null ? shortIds.length : intIds.length;
+    }
+
+    private int idAt(int index)
+    {
+        return shortIds != null ? shortIds[index] : intIds[index];
+    }
+
+    /**
+     * Binary search for a course ID
+     * @return Its index, or (-(insertion point) - 1) if it is not in the transcript
+     */
+    private int indexOf(int id)
+    {
+        if (shortIds != null)
+        {
+            return id > Short.MAX_VALUE ? -shortIds.length - 1 : Arrays.binarySearch(shortIds, (short) id);
+        }
+        return Arrays.binarySearch(intIds, id);
+    }
+
+    /**
+     * Get a record with one more completed course (this record if it is already there)
+     * Time Complexity: O(n) where n = number of completed courses
+     */
+    public StudentRecord withPastClass(String courseCode)
+    {
+        if (courseCode == null || courseCode.isEmpty())
+        {
+            return this;
+        }
+        int id = CourseDictionary.idOf(courseCode);
+        int index = indexOf(id);
+        if (index >= 0)
+        {
+            return this;
+        }
+        int insertAt = -index - 1;
+        int[] grown = new int[count() + 1];
+        for (int i = 0; i < insertAt; i++)
+        {
+            grown[i] = idAt(i);
+        }
+        grown[insertAt] = id;
+        for (int i = insertAt; i < count(); i++)
+        {
+            grown[i + 1] = idAt(i);
+        }
+        return new StudentRecord(studentId, name, gradYear, majorStatus, grown);
+    }
+
+    /**
+     * Check if the student has completed a course - O(log n) binary search over IDs
+     */
+    public boolean hasCompleted(String courseCode)
+    {
+        if (courseCode == null)
+        {
+            return false;
+        }
+        int id = CourseDictionary.find(courseCode);
+        return id >= 0 && indexOf(id) >= 0;
+    }
+
+    /**
+     * Get completed courses as a transcript bitset for prerequisite checks
+     * Encoded once per record and reused until the graph gains courses
+     * @return Transcript bits (shared; do not modify)
+     */
+    public long[] getTranscriptBits(PrerequisiteGraph graph)
+    {
+        TranscriptBits t = transcriptBits;
+        if (t == null || t.courseCount != graph.getCourseCount())
+        {
+            t = new TranscriptBits(graph.encodeTranscript(getPastClassList()), graph.getCourseCount());
+            transcriptBits = t;
+        }
+        return t.bits;
+    }
+
+    // Views over the transcript (read-only, no copies)
+
+    /**
+     * Get completed courses as a read-only set, in dictionary ID order
+     */
+    public Set<String> getPastClasses()
+    {
+        return new AbstractSet<String>()
+        {
+            @Override
+            public boolean contains(Object o)
+            {
+                return o instanceof String && hasCompleted((String) o);
+            }
+
+            @Override
+            public Iterator<String> iterator()
+            {
+                return getPastClassList().iterator();
+            }
+
+            @Override
+            public int size()
+            {
+                return count();
+            }
+        };
+    }
+
+    /**
+     * Get completed courses as a read-only list, in dictionary ID order
+     */
+    public List<String> getPastClassList()
+    {
+        return new AbstractList<String>()
+        {
+            @Override
+            public String get(int index)
+            {
+                return CourseDictionary.codeOf(idAt(index));
+            }
+
+            @Override
+            public int size()
+            {
+                return count();
+            }
+
+            @Override
+            public boolean contains(Object o)
+            {
+                return o instanceof String && hasCompleted((String) o);
+            }
+        };
+    }
+
+    // Getters
+    public String getStudentId()
+    {
+        return studentId;
+    }
+
+    public String getName()
+    {
+        return name;
+    }
+
+    public int getGradYear()
+    {
+        return gradYear;
+    }
+
+    public String getMajorStatus()
+    {
+        return majorStatus;
+    }
+}
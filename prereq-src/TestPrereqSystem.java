@@ -5,12 +5,17 @@ public class TestPrereqSystem
         System.out.println("Course Registration Prerequisite System Tests\n");
         
         testPrerequisiteGraph();
+        testClosureBitsets();
+        testEligibilityMatrix();
+        testCourseCode();
+        testCourseCodeIndex();
         testCourseClass();
         testStudentClass();
         testPrerequisiteChecker();
         testPrerequisiteValidationResult();
         testRegistrationSystem();
         testRegistrationSystemWithCSVData();
+        testStudentCsvLoader();
         
         System.out.println("\nAll Tests Completed");
     }
@@ -58,6 +63,186 @@ public class TestPrereqSystem
         System.out.println("PrerequisiteGraph tests passed\n");
     }
     
+    /**
+     * Test closure bitsets against transcripts, including a graph extended after encoding
+     */
+    public static void testClosureBitsets()
+    {
+        System.out.println("Testing closure bitsets");
+        
+        PrerequisiteGraph graph = new PrerequisiteGraph();
+        long[] transcript = graph.encodeTranscript(java.util.Arrays.asList("CS51", "CS54", "CS62"));
+        System.out.println("CS105 met with CS51, CS54, CS62: " + graph.meetsPrerequisites("CS105", transcript));
+        System.out.println("CS132 missing: " + graph.getMissingPrerequisites("CS132", transcript)); // CS101, CS105
+        
+        // Enough courses to spill past one long, with a chain so the closure crosses words
+        for (int i = 0; i < 100; i++)
+        {
+            graph.addPrerequisite("X" + (i + 1), "X" + i);
+        }
+        graph.addPrerequisite("X0", "CS132");
+        boolean ok = graph.getAllPrerequisites("X100").size() == 100 + 6
+                && graph.meetsPrerequisites("CS105", transcript)
+                && graph.getMissingPrerequisites("X100", transcript).size() == 100 + 3
+                && !graph.getAllPrerequisites("X100").contains("X100");
+        if (!ok)
+        {
+            System.out.println("ERROR: closure bitsets do not match the graph");
+        }
+        System.out.println("Closure bitset tests passed\n");
+    }
+    
+    /**
+     * Test the eligibility matrix, including incremental updates for transcripts and edges
+     */
+    public static void testEligibilityMatrix()
+    {
+        System.out.println("Testing EligibilityMatrix");
+        
+        PrerequisiteGraph graph = new PrerequisiteGraph();
+        java.util.List<String> ids = new java.util.ArrayList<>();
+        java.util.List<long[]> transcripts = new java.util.ArrayList<>();
+        for (int i = 0; i < 100; i++)
+        {
+            ids.add("S" + i);
+            transcripts.add(graph.encodeTranscript((i % 2 == 0)
+                ? java.util.Arrays.asList("CS51", "CS54", "CS62")
+                : java.util.Arrays.asList("CS51")));
+        }
+        EligibilityMatrix matrix = EligibilityMatrix.build(graph, ids, transcripts);
+        System.out.println("Eligible for CS105: " + matrix.countEligible("CS105") + " of " + matrix.getStudentCount()); // 50 of 100
+        
+        boolean ok = matrix.isEligible("S0", "CS105") && !matrix.isEligible("S1", "CS105")
+                && matrix.isEligible("S1", "CS62") && matrix.isEligible("S1", "CS35")
+                && matrix.isEligible("nobody", "CS105") == null;
+        
+        // Transcript change: only S1's row is recomputed
+        matrix.updateStudent("S1", graph.encodeTranscript(java.util.Arrays.asList("CS51", "CS54", "CS62")));
+        ok &= matrix.isEligible("S1", "CS105") && matrix.countEligible("CS105") == 51;
+        
+        // Edge change: CS35 now requires CS54, so only students with CS54 stay eligible
+        graph.addPrerequisite("CS35", "CS54");
+        ok &= matrix.countEligible("CS35") == 51 && !matrix.isEligible("S3", "CS35");
+        
+        // New student added after the build
+        matrix.updateStudent("S100", graph.encodeTranscript(java.util.Arrays.asList("CS51", "CS54")));
+        ok &= matrix.isEligible("S100", "CS35") && !matrix.isEligible("S100", "CS105")
+                && matrix.getStudentCount() == 101;
+        
+        if (!ok)
+        {
+            System.out.println("ERROR: eligibility matrix does not match the graph");
+        }
+        System.out.println("EligibilityMatrix tests passed\n");
+    }
+    
+    /**
+     * Test CourseCode parsing and normalization
+     */
+    public static void testCourseCode()
+    {
+        System.out.println("Testing CourseCode");
+        
+        CourseCode dv = CourseCode.of("CSCI181DVPO-01 SP2025");
+        System.out.println(dv.getSectionId() + " -> " + dv.getDepartment() + " " + dv.getNumber() + " "
+            + dv.getSuffix() + " " + dv.getCampus() + " " + dv.getSection() + " " + dv.getTerm());
+        
+        boolean ok = dv.getCode().equals("CS181DVPO") && dv.getBaseCode().equals("CS181DV")
+                && dv.getCampus().equals("PO") && dv.getTerm().equals("SP2025");
+        
+        CourseCode lab = CourseCode.of("CSCI062 LPO-02 SP2025");
+        ok &= lab.getCode().equals("CS62") && lab.getNumber().equals("62")
+                && lab.getSuffix().equals("L") && lab.getCampus().equals("PO");
+        ok &= CourseCode.of("CSCI004  PZ-01 SP2025").getCode().equals("CS4")
+                && CourseCode.of("CS62-01").getCampus().isEmpty();
+        
+        // Interned: the same section ID is parsed once
+        ok &= CourseCode.of("CSCI181DVPO-01 SP2025") == dv;
+        
+        ok &= CourseCode.normalizeInput("csci 051").equals("CS51") && CourseCode.normalizeInput("181dv").equals("CS181DV")
+                && CourseCode.isValidInput("CS51") && !CourseCode.isValidInput(CourseCode.normalizeInput("CS"));
+        
+        if (!ok)
+        {
+            System.out.println("ERROR: course code parsing does not match the expected fields");
+        }
+        System.out.println("CourseCode tests passed\n");
+    }
+    
+    /**
+     * Test CourseCodeIndex against the catalog scan findCoursesByCode used before it:
+     * exact matches, and 2-3 uppercase letter location codes on either side
+     */
+    public static void testCourseCodeIndex()
+    {
+        System.out.println("Testing CourseCodeIndex");
+        
+        java.util.List<String> codes = new java.util.ArrayList<>(java.util.Arrays.asList(
+            "CS5", "CS51", "CS51A", "CS51AB", "CS51ABC", "CS51ABCD", "CS62", "CS62PO", "CS62HMC",
+            "CS181", "CS181D", "CS181DV", "CS181DVPO", "CS181DVHMC", "CS181DVPOMC", "CS140", "CS1401", "CS140P1"));
+        java.util.Random rand = new java.util.Random(21L);
+        String alphabet = "CS18DVPOH0";
+        for (int i = 0; i < 200; i++)
+        {
+            StringBuilder code = new StringBuilder("CS");
+            int length = 1 + rand.nextInt(6);
+            for (int k = 0; k < length; k++)
+            {
+                code.append(alphabet.charAt(rand.nextInt(alphabet.length())));
+            }
+            codes.add(code.toString());
+        }
+        
+        CourseCodeIndex index = new CourseCodeIndex();
+        for (String code : codes)
+        {
+            index.add(code);
+        }
+        java.util.Set<String> distinct = new java.util.LinkedHashSet<>(codes);
+        
+        // Every code, every prefix of it, and it with suffixes of each length and case
+        java.util.Set<String> queries = new java.util.TreeSet<>();
+        for (String code : distinct)
+        {
+            for (int end = 1; end <= code.length(); end++)
+            {
+                queries.add(code.substring(0, end));
+            }
+            for (String suffix : new String[] { "P", "PO", "HMC", "POMC", "po", "P1" })
+            {
+                queries.add(code + suffix);
+            }
+        }
+        
+        int mismatches = 0;
+        for (String query : queries)
+        {
+            java.util.List<String> found = index.findMatchingCodes(query);
+            java.util.Set<String> expected = new java.util.HashSet<>();
+            for (String code : distinct)
+            {
+                if (code.equals(query)
+                    || (code.startsWith(query) && code.substring(query.length()).matches("^[A-Z]{2,3}$"))
+                    || (query.startsWith(code) && query.substring(code.length()).matches("^[A-Z]{2,3}$")))
+                {
+                    expected.add(code);
+                }
+            }
+            if (found.size() != expected.size() || !expected.equals(new java.util.HashSet<>(found)))
+            {
+                mismatches++;
+                System.out.println("Query " + query + ": index " + found + ", scan " + expected);
+            }
+        }
+        System.out.println("Compared " + queries.size() + " queries over " + distinct.size() + " codes");
+        
+        if (mismatches > 0)
+        {
+            System.out.println("ERROR: CourseCodeIndex differs from the catalog scan on " + mismatches + " queries");
+        }
+        System.out.println("CourseCodeIndex tests passed\n");
+    }
+    
     /**
      * Test Course class functionality
      */
@@ -111,6 +296,18 @@ public class TestPrereqSystem
         System.out.println("Has completed CS51: " + student.hasCompletedCourse("CS51"));
         System.out.println("Has completed CS105: " + student.hasCompletedCourse("CS105"));
         
+        // Records are immutable: adding a course swaps in a new record, the old one is unchanged
+        StudentRecord before = student.getRecord();
+        student.addPastClass("CS105");
+        boolean ok = !before.hasCompleted("CS105") && student.getRecord().hasCompleted("CS105")
+                && student.getPastClasses().size() == 4;
+        student.addPastClass("CS105");
+        ok &= student.getPastClasses().size() == 4;
+        if (!ok)
+        {
+            System.out.println("ERROR: student record did not update as expected");
+        }
+        
         System.out.println("Student class tests passed\n");
     }
     
@@ -295,4 +492,109 @@ public class TestPrereqSystem
         
         System.out.println("CSV data loading tests passed\n");
     }
+    
+    /**
+     * Test StudentCsvLoader on edge cases, and parallel against sequential loading
+     * on a file of more than two chunks
+     */
+    public static void testStudentCsvLoader()
+    {
+        System.out.println("Testing StudentCsvLoader");
+        
+        java.nio.file.Path small = null;
+        java.nio.file.Path large = null;
+        try
+        {
+            small = java.nio.file.Files.createTempFile("students", ".csv");
+            String csv = "student_id,name,past_classes,requested_classes,grad_year,major_status\r\n"
+                + "S0001, Alice ,[CS51, CS54],[CS62],2026,CS Major\r\n"
+                + "\r\n"
+                + "S0002,Bob,[CS51]\r\n"                        // too few fields
+                + "S0003,Carl,[],[],soon,CS Major\r\n"         // bad grad year
+                + "S0042,Dana,[],[CS51,,CS54],2027,Non-Major\r\n"
+                + "X9,Eve,[CS51],[],2028,CS Minor\r\n"
+                + "S0007,Gus,[CS62],[CS105],2027,CS Minor";       // no final newline
+            java.nio.file.Files.write(small, csv.getBytes(java.nio.charset.StandardCharsets.UTF_8));
+            
+            java.util.List<String> rows = new java.util.ArrayList<>();
+            java.util.Set<StudentCsvLoader.Row> rowObjects = java.util.Collections.newSetFromMap(new java.util.IdentityHashMap<>());
+            java.util.Set<java.util.List<String>> listObjects = java.util.Collections.newSetFromMap(new java.util.IdentityHashMap<>());
+            int highWaterMark = StudentCsvLoader.load(small.toString(), row ->
+            {
+                rows.add(describe(row));
+                rowObjects.add(row);
+                listObjects.add(row.pastClasses);
+            });
+            
+            java.util.List<String> expected = java.util.Arrays.asList(
+                "S0001|Alice|[CS51, CS54]|[CS62]|2026|CS Major",
+                "S0042|Dana|[]|[CS51, CS54]|2027|Non-Major",
+                "X9|Eve|[CS51]|[]|2028|CS Minor",
+                "S0007|Gus|[CS62]|[CS105]|2027|CS Minor");
+            System.out.println("Rows: " + rows);
+            boolean ok = rows.equals(expected) && highWaterMark == 42
+                    && rowObjects.size() == 1 && listObjects.size() == 1
+                    && StudentCsvLoader.load(small.toString(), null) == 42;
+            if (!ok)
+            {
+                System.out.println("ERROR: StudentCsvLoader rows or high-water mark are wrong");
+            }
+            
+            // More than two chunks, so parallel mode really splits the file
+            large = java.nio.file.Files.createTempFile("students-large", ".csv");
+            StringBuilder big = new StringBuilder("student_id,name,past_classes,requested_classes,grad_year,major_status\n");
+            for (int i = 0; big.length() <= 2 * StudentCsvLoader.CHUNK_SIZE + 4096; i++)
+            {
+                big.append('S').append(i).append(",Student ").append(i)
+                   .append(",[CS51,CS").append(54 + i % 7).append("],[CS").append(100 + i % 40)
+                   .append("],").append(2025 + i % 4).append(i % 3 == 0 ? ",CS Major" : ",Non-Major")
+                   .append(i % 5 == 0 ? "\r\n" : "\n");
+            }
+            big.append("S9999999,Last,[],[],2030,CS Minor"); // no final newline
+            java.nio.file.Files.write(large, big.toString().getBytes(java.nio.charset.StandardCharsets.UTF_8));
+            
+            java.util.List<String> sequential = new java.util.ArrayList<>();
+            java.util.List<String> parallel = new java.util.ArrayList<>();
+            int sequentialMark = StudentCsvLoader.load(large.toString(), row -> sequential.add(describe(row)), false);
+            int parallelMark = StudentCsvLoader.load(large.toString(), row -> parallel.add(describe(row)), true);
+            System.out.println("Large file: " + java.nio.file.Files.size(large) + " bytes, " + sequential.size() + " rows");
+            if (!sequential.equals(parallel) || sequentialMark != 9999999 || parallelMark != sequentialMark
+                    || StudentCsvLoader.load(large.toString(), null, true) != sequentialMark)
+            {
+                System.out.println("ERROR: parallel StudentCsvLoader does not match sequential");
+            }
+        }
+        catch (java.io.IOException e)
+        {
+            System.out.println("ERROR: StudentCsvLoader test failed: " + e.getMessage());
+        }
+        finally
+        {
+            deleteQuietly(small);
+            deleteQuietly(large);
+        }
+        System.out.println("StudentCsvLoader tests passed\n");
+    }
+    
+    private static String describe(StudentCsvLoader.Row row)
+    {
+        return row.studentId + "|" + row.name + "|" + row.pastClasses + "|" + row.requestedClasses
+            + "|" + row.gradYear + "|" + row.majorStatus;
+    }
+    
+    private static void deleteQuietly(java.nio.file.Path path)
+    {
+        if (path == null)
+        {
+            return;
+        }
+        try
+        {
+            java.nio.file.Files.deleteIfExists(path);
+        }
+        catch (java.io.IOException e)
+        {
+            // temp file; nothing else to do
+        }
+    }
 }
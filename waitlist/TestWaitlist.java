@@ -167,6 +167,9 @@ public class TestWaitlist {
             System.out.println("Waitlisted: " + waitlistedCount);
             System.out.println("Rejected: " + rejectedCount);
             System.out.println("Total: " + requests.size());
+
+            testDemographicsPerCourse();
+            testReasonText();
             
         } catch (Exception e) {
             System.err.println("Error: " + e.getMessage());
@@ -183,5 +186,266 @@ public class TestWaitlist {
             default: return "Unknown";
         }
     }
-}
 
+    /**
+     * Checks that the demographics shared per course match the old per-request computation:
+     * for each waitlisted request, walk the course's roster and look up every enrolled
+     * student's request and weight again.
+     */
+    private static void testDemographicsPerCourse() {
+        int currentYear = java.time.Year.now().getValue();
+        List<students> studentList = new ArrayList<>();
+        List<classes> courseList = new ArrayList<>();
+        List<ClassRequest> requests = new ArrayList<>();
+        LotteryEngine.LotteryResult result = runSampleTerm(studentList, courseList, requests, 11L);
+
+        Map<String, classes> coursesById = new java.util.HashMap<>();
+        for (classes c : courseList) {
+            coursesById.put(c.courseSectionId, c);
+        }
+        Map<String, students> studentsById = new java.util.HashMap<>();
+        for (students s : studentList) {
+            studentsById.put(s.studentId, s);
+        }
+
+        boolean ok = true;
+        int waitlisted = 0;
+        for (ClassRequest req : requests) {
+            WaitlistResult waitlistResult = result.getResult(req.studentId, req.courseId);
+            if (waitlistResult == null || waitlistResult.status != WaitlistResult.Status.WAITLISTED) {
+                continue;
+            }
+            waitlisted++;
+            List<students> enrolled = result.enrolledByCourse.getOrDefault(req.courseId, new ArrayList<>());
+            int seniors = 0, juniors = 0, sophomores = 0, freshmen = 0;
+            int csMajors = 0, csMinors = 0, nonMajors = 0;
+            int[] ranks = new int[5];
+            double totalWeight = 0.0;
+            int weightCount = 0;
+            for (students s : enrolled) {
+                switch (LotteryWeightCalculator.getStudentYear(s.gradYear, currentYear)) {
+                    case SENIOR: seniors++; break;
+                    case JUNIOR: juniors++; break;
+                    case SOPHOMORE: sophomores++; break;
+                    case FRESHMAN: freshmen++; break;
+                }
+                students.MajorStatus major = (s.majorStatus == null) ?
+                        students.MajorStatus.NON_MAJOR : s.majorStatus;
+                switch (major) {
+                    case CS_MAJOR: csMajors++; break;
+                    case CS_MINOR: csMinors++; break;
+                    case NON_MAJOR: nonMajors++; break;
+                }
+                for (ClassRequest other : requests) {
+                    if (other.studentId.equals(s.studentId) && other.courseId.equals(req.courseId)) {
+                        ranks[other.preferenceRank]++;
+                        int weight = LotteryWeightCalculator.computeWeight(
+                                studentsById.get(s.studentId), other, coursesById.get(req.courseId), currentYear);
+                        if (weight > 0) {
+                            totalWeight += weight;
+                            weightCount++;
+                        }
+                        break;
+                    }
+                }
+            }
+            double avgWeight = weightCount > 0 ? totalWeight / weightCount : 0.0;
+
+            WaitlistResult.ClassDemographics d = waitlistResult.enrolledDemographics;
+            ok &= d != null
+                    && d.totalEnrolled == enrolled.size()
+                    && d.seniors == seniors && d.juniors == juniors
+                    && d.sophomores == sophomores && d.freshmen == freshmen
+                    && d.csMajors == csMajors && d.csMinors == csMinors && d.nonMajors == nonMajors
+                    && d.rank1Preferences == ranks[1] && d.rank2Preferences == ranks[2]
+                    && d.rank3Preferences == ranks[3] && d.rank4Preferences == ranks[4]
+                    && d.avgWeight == avgWeight;
+        }
+        System.out.println("\n=== PER-COURSE DEMOGRAPHICS CHECK ===");
+        System.out.println(ok && waitlisted > 0
+                ? "Shared demographics match the per-request computation for " + waitlisted + " waitlisted requests"
+                : "ERROR: shared demographics differ from the per-request computation");
+    }
+
+    /**
+     * Checks that the reason text rendered from the stored codes is the same text the analyzer
+     * used to build for every request (see oldWaitlistReason).
+     */
+    private static void testReasonText() {
+        int currentYear = java.time.Year.now().getValue();
+        List<students> studentList = new ArrayList<>();
+        List<classes> courseList = new ArrayList<>();
+        List<ClassRequest> requests = new ArrayList<>();
+        // One section that is already full, so nobody gets a seat and the short text is used
+        courseList.add(new classes("CS130-01", "01", 3, 3, 1.0));
+        LotteryEngine.LotteryResult result = runSampleTerm(studentList, courseList, requests, 13L);
+
+        Map<String, classes> coursesById = new java.util.HashMap<>();
+        for (classes c : courseList) {
+            coursesById.put(c.courseSectionId, c);
+        }
+        Map<String, students> studentsById = new java.util.HashMap<>();
+        for (students s : studentList) {
+            studentsById.put(s.studentId, s);
+        }
+
+        boolean ok = true;
+        int[] checked = new int[WaitlistResult.Status.values().length];
+        for (ClassRequest req : requests) {
+            WaitlistResult waitlistResult = result.getResult(req.studentId, req.courseId);
+            students student = studentsById.get(req.studentId);
+            classes course = coursesById.get(req.courseId);
+            String expected;
+            switch (waitlistResult.status) {
+                case ENROLLED:
+                    expected = "Successfully enrolled";
+                    break;
+                case REJECTED:
+                    expected = "Missing prerequisites: "
+                            + String.join(", ", LotteryWeightCalculator.validatePrerequisites(student, course)
+                                    .getMissingPrerequisites())
+                            + ". Must complete prerequisites before registering for this class.";
+                    break;
+                default:
+                    expected = oldWaitlistReason(student, req, course, waitlistResult.enrolledDemographics,
+                            LotteryWeightCalculator.computeWeight(student, req, course, currentYear), currentYear);
+                    break;
+            }
+            ok &= expected.equals(waitlistResult.getReason());
+            checked[waitlistResult.status.ordinal()]++;
+        }
+        System.out.println("\n=== REASON TEXT CHECK ===");
+        System.out.println(ok && checked[WaitlistResult.Status.WAITLISTED.ordinal()] > 0
+                && checked[WaitlistResult.Status.REJECTED.ordinal()] > 0
+                ? "Rendered reasons match the old text for " + requests.size() + " requests"
+                : "ERROR: rendered reasons differ from the old text");
+    }
+
+    /**
+     * Fills in a term of 200 students over 21 sections (three different sections each, so a
+     * student and course pick out one request) and runs it with a fixed seed.
+     * Sections already in courseList are kept and requested too.
+     */
+    private static LotteryEngine.LotteryResult runSampleTerm(List<students> studentList,
+            List<classes> courseList, List<ClassRequest> requests, long seed) {
+        int currentYear = java.time.Year.now().getValue();
+        String[] transcripts = {"", "CS51", "CS51,CS54", "CS51,CS54,CS62"};
+        for (int c = 0; c < 20; c++) {
+            courseList.add(new classes("CS" + (100 + c) + "-01", "01", 2 + (c % 5), 0, 1.0));
+        }
+        courseList.add(new classes("CSCI140 HM-01 SP2025", "01", 4, 0, 1.0));
+        java.util.Random rand = new java.util.Random(seed);
+        for (int i = 0; i < 200; i++) {
+            String past = transcripts[i % transcripts.length];
+            studentList.add(new students("S" + i, "Student " + i,
+                    past.isEmpty() ? new ArrayList<>() : new ArrayList<>(Arrays.asList(past.split(","))),
+                    new ArrayList<>(), currentYear + (i % 4), students.MajorStatus.values()[i % 3]));
+            int first = rand.nextInt(courseList.size());
+            for (int r = 0; r < 3; r++) {
+                String courseId = courseList.get((first + r * 7) % courseList.size()).courseSectionId;
+                requests.add(new ClassRequest("S" + i, courseId, 1 + rand.nextInt(4)));
+            }
+        }
+        return new LotteryEngine().runLotteryWithWaitlist(studentList, courseList, requests, seed);
+    }
+
+    /**
+     * The waitlist reason as WaitlistAnalyzer.generateWaitlistReason built it before reasons
+     * were stored as codes, kept here as the reference for WaitlistResult.getReason.
+     */
+    private static String oldWaitlistReason(students student, ClassRequest request, classes course,
+                                            WaitlistResult.ClassDemographics demographics,
+                                            int studentWeight, int currentYear) {
+        List<String> reasons = new ArrayList<>();
+        StudentYear studentYear = LotteryWeightCalculator.getStudentYear(student.gradYear, currentYear);
+        if (demographics.totalEnrolled == 0) {
+            return "Course is full. No seats available.";
+        }
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("Your lottery weight: ").append(studentWeight);
+        sb.append(" (Base: 10");
+        int rankBonus = 0;
+        switch (request.preferenceRank) {
+            case 1: rankBonus = 4; break;
+            case 2: rankBonus = 3; break;
+            case 3: rankBonus = 2; break;
+            case 4: rankBonus = 1; break;
+        }
+        if (rankBonus > 0) {
+            sb.append(" + Preference Rank ").append(request.preferenceRank).append(": +").append(rankBonus);
+        }
+        if (student.majorStatus == students.MajorStatus.CS_MAJOR) {
+            sb.append(" + CS Major: +").append(4);
+        } else if (student.majorStatus == students.MajorStatus.CS_MINOR) {
+            sb.append(" + CS Minor: +").append(2);
+        }
+        switch (studentYear) {
+            case SENIOR: sb.append(" + Senior: +").append(4); break;
+            case JUNIOR: sb.append(" + Junior: +").append(3); break;
+            case SOPHOMORE: sb.append(" + Sophomore: +").append(2); break;
+            case FRESHMAN: sb.append(" + Freshman: +").append(1); break;
+        }
+        sb.append(")");
+
+        if (demographics.avgWeight > 0) {
+            sb.append(". Average weight of enrolled students: ").append(String.format("%.2f", demographics.avgWeight));
+            if (studentWeight < demographics.avgWeight) {
+                sb.append(" (you were ").append(String.format("%.2f", demographics.avgWeight - studentWeight))
+                  .append(" points below average)");
+                reasons.add("Your lottery weight was below the average of enrolled students");
+            } else if (studentWeight > demographics.avgWeight) {
+                sb.append(" (you were ").append(String.format("%.2f", studentWeight - demographics.avgWeight))
+                  .append(" points above average, but course was full)");
+            }
+        }
+        sb.append(". ");
+
+        if (studentYear == StudentYear.FRESHMAN && demographics.freshmen == 0) {
+            reasons.add("All enrolled students are upperclassmen (Sophomores, Juniors, or Seniors)");
+        } else if (studentYear == StudentYear.SOPHOMORE &&
+                   demographics.seniors + demographics.juniors > demographics.sophomores) {
+            reasons.add("Priority given to upperclassmen (Juniors and Seniors)");
+        } else if (studentYear == StudentYear.JUNIOR &&
+                   demographics.seniors > demographics.juniors) {
+            reasons.add("Priority given to Seniors");
+        }
+
+        if (student.majorStatus == students.MajorStatus.NON_MAJOR &&
+            demographics.csMajors + demographics.csMinors > demographics.nonMajors) {
+            reasons.add("Priority given to CS Majors and Minors");
+        } else if (student.majorStatus == students.MajorStatus.CS_MINOR &&
+                   demographics.csMajors > demographics.csMinors) {
+            reasons.add("Priority given to CS Majors");
+        }
+
+        if (request.preferenceRank > 1) {
+            int higherRankCount = 0;
+            if (request.preferenceRank >= 2) higherRankCount += demographics.rank1Preferences;
+            if (request.preferenceRank >= 3) higherRankCount += demographics.rank2Preferences;
+            if (request.preferenceRank == 4) higherRankCount += demographics.rank3Preferences;
+            if (higherRankCount > 0) {
+                reasons.add("Students with higher preference ranks (more preferred) were prioritized");
+            }
+        }
+
+        int seatsLeft = course.capacity - course.currentEnrollment;
+        if (seatsLeft <= 0) {
+            reasons.add("Course is at capacity (" + course.capacity + " seats)");
+        }
+
+        if (reasons.isEmpty()) {
+            sb.append("Waitlisted due to: Course is full. Limited seats available and lottery selection favored other students.");
+        } else {
+            sb.append("Waitlisted due to: ");
+            sb.append(String.join("; ", reasons));
+        }
+        sb.append(". Class demographics: ").append(demographics.totalEnrolled)
+          .append(" students enrolled (");
+        sb.append(demographics.seniors).append(" Seniors, ")
+          .append(demographics.juniors).append(" Juniors, ")
+          .append(demographics.sophomores).append(" Sophomores, ")
+          .append(demographics.freshmen).append(" Freshmen).");
+        return sb.toString();
+    }
+}
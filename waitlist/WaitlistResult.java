@@ -1,6 +1,13 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
 /**
  * Represents the result of a course registration request.
  * Can be ENROLLED, WAITLISTED, or REJECTED
+ * 
+ * Reasons are stored as reason codes and the numbers behind them (weight, rank, major,
+ * year, a shared demographics reference) and only rendered as text by getReason().
  */
 public class WaitlistResult {
     public enum Status {
@@ -9,8 +16,23 @@ public class WaitlistResult {
         REJECTED
     }
 
+    // Reason codes for waitlisted results, combined as bit flags
+    public static final int REASON_BELOW_AVERAGE_WEIGHT = 1;
+    public static final int REASON_ALL_UPPERCLASSMEN = 1 << 1;
+    public static final int REASON_UPPERCLASSMEN_PRIORITY = 1 << 2;
+    public static final int REASON_SENIOR_PRIORITY = 1 << 3;
+    public static final int REASON_MAJOR_MINOR_PRIORITY = 1 << 4;
+    public static final int REASON_MAJOR_PRIORITY = 1 << 5;
+    public static final int REASON_HIGHER_RANKS = 1 << 6;
+    public static final int REASON_AT_CAPACITY = 1 << 7;
+    private static final int REASON_MASK = 0xFF;
+
+    // Other facts packed next to the reason codes: preference rank, major status, academic year
+    private static final int RANK_SHIFT = 16;
+    private static final int MAJOR_SHIFT = 20;
+    private static final int YEAR_SHIFT = 24;
+
     public final Status status;
-    public final String reason;
     public final String courseId;
     public final String studentId;
     
@@ -20,27 +42,41 @@ public class WaitlistResult {
     // Demographic information about enrolled students (for waitlisted students)
     public final ClassDemographics enrolledDemographics;
 
+    // The reason is kept as facts and only turned into text when asked for (see getReason)
+    private final String reasonText;                 // fixed text, or null to render from the facts
+    private final int facts;                         // reason codes | rank | major | year
+    private final int capacity;                      // course capacity, for REASON_AT_CAPACITY
+    private final Set<String> missingPrerequisites;  // for rejected results
+
     public WaitlistResult(Status status, String reason, String courseId, String studentId) {
         this(status, reason, courseId, studentId, 0, null);
     }
 
     public WaitlistResult(Status status, String reason, String courseId, String studentId, 
                          int studentWeight, ClassDemographics enrolledDemographics) {
+        this(status, reason, courseId, studentId, studentWeight, enrolledDemographics, 0, 0, null);
+    }
+
+    private WaitlistResult(Status status, String reasonText, String courseId, String studentId,
+                           int studentWeight, ClassDemographics enrolledDemographics,
+                           int facts, int capacity, Set<String> missingPrerequisites) {
         this.status = status;
-        this.reason = reason;
+        this.reasonText = reasonText;
         this.courseId = courseId;
         this.studentId = studentId;
         this.studentWeight = studentWeight;
         this.enrolledDemographics = enrolledDemographics;
+        this.facts = facts;
+        this.capacity = capacity;
+        this.missingPrerequisites = missingPrerequisites;
     }
 
     /**
      * Method for rejected students (missing prerequisites)
+     * @param missingPrerequisites the missing courses, or null if they could not be determined
      */
-    public static WaitlistResult rejected(String courseId, String studentId, String missingPrereqs) {
-        String reason = "Missing prerequisites: " + missingPrereqs + 
-                       ". Must complete prerequisites before registering for this class.";
-        return new WaitlistResult(Status.REJECTED, reason, courseId, studentId, 0, null);
+    public static WaitlistResult rejected(String courseId, String studentId, Set<String> missingPrerequisites) {
+        return new WaitlistResult(Status.REJECTED, null, courseId, studentId, 0, null, 0, 0, missingPrerequisites);
     }
 
     /**
@@ -52,10 +88,137 @@ public class WaitlistResult {
 
     /**
      * Method for waitlisted students
+     * @param reasonCodes REASON_* flags that apply to this student
      */
-    public static WaitlistResult waitlisted(String courseId, String studentId, String reason, 
+    public static WaitlistResult waitlisted(String courseId, String studentId, int reasonCodes,
+                                           int preferenceRank, students.MajorStatus majorStatus,
+                                           StudentYear studentYear, int capacity,
                                            int studentWeight, ClassDemographics demographics) {
-        return new WaitlistResult(Status.WAITLISTED, reason, courseId, studentId, studentWeight, demographics);
+        int facts = (reasonCodes & REASON_MASK)
+                  | (preferenceRank << RANK_SHIFT)
+                  | (majorStatus.ordinal() << MAJOR_SHIFT)
+                  | (studentYear.ordinal() << YEAR_SHIFT);
+        return new WaitlistResult(Status.WAITLISTED, null, courseId, studentId, studentWeight, demographics,
+                                  facts, capacity, null);
+    }
+
+    /**
+     * @return REASON_* flags for a waitlisted result (0 otherwise)
+     */
+    public int getReasonCodes() {
+        return facts & REASON_MASK;
+    }
+
+    /**
+     * Renders the reason text for this result. Nothing is stored, so call it once per display.
+     */
+    public String getReason() {
+        if (reasonText != null) {
+            return reasonText;
+        }
+        if (status == Status.REJECTED) {
+            String missing = (missingPrerequisites != null)
+                    ? String.join(", ", missingPrerequisites)
+                    : "Prerequisites not met (unable to determine specific missing courses)";
+            return "Missing prerequisites: " + missing +
+                   ". Must complete prerequisites before registering for this class.";
+        }
+        if (status == Status.WAITLISTED) {
+            return renderWaitlistReason();
+        }
+        return "";
+    }
+
+    /**
+     * Explains a waitlisted result: the weight breakdown, how it compares with the enrolled
+     * students, and the reasons recorded in the reason codes.
+     */
+    private String renderWaitlistReason() {
+        ClassDemographics demographics = enrolledDemographics;
+        if (demographics == null || demographics.totalEnrolled == 0) {
+            return "Course is full. No seats available.";
+        }
+        int preferenceRank = (facts >>> RANK_SHIFT) & 0xF;
+        students.MajorStatus majorStatus = students.MajorStatus.values()[(facts >>> MAJOR_SHIFT) & 0x3];
+        StudentYear studentYear = StudentYear.values()[(facts >>> YEAR_SHIFT) & 0x3];
+
+        // Start with lottery weight information
+        StringBuilder sb = new StringBuilder();
+        sb.append("Your lottery weight: ").append(studentWeight);
+        
+        // Explain weight components
+        sb.append(" (Base: 10");
+        int rankBonus = 0;
+        switch (preferenceRank) {
+            case 1: rankBonus = 4; break;
+            case 2: rankBonus = 3; break;
+            case 3: rankBonus = 2; break;
+            case 4: rankBonus = 1; break;
+        }
+        if (rankBonus > 0) {
+            sb.append(" + Preference Rank ").append(preferenceRank).append(": +").append(rankBonus);
+        }
+        if (majorStatus == students.MajorStatus.CS_MAJOR) {
+            sb.append(" + CS Major: +4");
+        } else if (majorStatus == students.MajorStatus.CS_MINOR) {
+            sb.append(" + CS Minor: +2");
+        }
+        switch (studentYear) {
+            case SENIOR: sb.append(" + Senior: +4"); break;
+            case JUNIOR: sb.append(" + Junior: +3"); break;
+            case SOPHOMORE: sb.append(" + Sophomore: +2"); break;
+            case FRESHMAN: sb.append(" + Freshman: +1"); break;
+        }
+        sb.append(")");
+        
+        // Compare to average weight
+        if (demographics.avgWeight > 0) {
+            sb.append(". Average weight of enrolled students: ").append(String.format("%.2f", demographics.avgWeight));
+            if (studentWeight < demographics.avgWeight) {
+                sb.append(" (you were ").append(String.format("%.2f", demographics.avgWeight - studentWeight))
+                  .append(" points below average)");
+            } else if (studentWeight > demographics.avgWeight) {
+                sb.append(" (you were ").append(String.format("%.2f", studentWeight - demographics.avgWeight))
+                  .append(" points above average, but course was full)");
+            }
+        }
+        sb.append(". ");
+
+        List<String> reasons = new ArrayList<>();
+        int codes = getReasonCodes();
+        if ((codes & REASON_BELOW_AVERAGE_WEIGHT) != 0)
+            reasons.add("Your lottery weight was below the average of enrolled students");
+        if ((codes & REASON_ALL_UPPERCLASSMEN) != 0)
+            reasons.add("All enrolled students are upperclassmen (Sophomores, Juniors, or Seniors)");
+        if ((codes & REASON_UPPERCLASSMEN_PRIORITY) != 0)
+            reasons.add("Priority given to upperclassmen (Juniors and Seniors)");
+        if ((codes & REASON_SENIOR_PRIORITY) != 0)
+            reasons.add("Priority given to Seniors");
+        if ((codes & REASON_MAJOR_MINOR_PRIORITY) != 0)
+            reasons.add("Priority given to CS Majors and Minors");
+        if ((codes & REASON_MAJOR_PRIORITY) != 0)
+            reasons.add("Priority given to CS Majors");
+        if ((codes & REASON_HIGHER_RANKS) != 0)
+            reasons.add("Students with higher preference ranks (more preferred) were prioritized");
+        if ((codes & REASON_AT_CAPACITY) != 0)
+            reasons.add("Course is at capacity (" + capacity + " seats)");
+
+        // Build final reason message
+        if (reasons.isEmpty()) {
+            sb.append("Waitlisted due to: Course is full. Limited seats available and lottery selection favored other students.");
+        } else {
+            sb.append("Waitlisted due to: ");
+            sb.append(String.join("; ", reasons));
+        }
+        
+        sb.append(". Class demographics: ").append(demographics.totalEnrolled)
+          .append(" students enrolled (");
+        sb.append(demographics.seniors).append(" Seniors, ")
+          .append(demographics.juniors).append(" Juniors, ")
+          .append(demographics.sophomores).append(" Sophomores, ")
+          .append(demographics.freshmen).append(" Freshmen).");
+
+        return sb.toString();
     }
 
     @Override
@@ -63,7 +226,7 @@ public class WaitlistResult {
         StringBuilder sb = new StringBuilder();
         sb.append("Status: ").append(status).append("\n");
         sb.append("Course: ").append(courseId).append("\n");
-        sb.append("Reason: ").append(reason).append("\n");
+        sb.append("Reason: ").append(getReason()).append("\n");
         if (enrolledDemographics != null) {
             sb.append("\nEnrolled Class Demographics:\n");
             sb.append(enrolledDemographics.toString());
@@ -86,7 +249,7 @@ public class WaitlistResult {
         if (studentWeight > 0) {
             sb.append("  Lottery Weight: ").append(studentWeight).append("\n");
         }
-        sb.append("  Reason: ").append(reason).append("\n");
+        sb.append("  Reason: ").append(getReason()).append("\n");
         
         if (enrolledDemographics != null) {
             sb.append("\n  Enrolled Class Demographics:\n");